@@ -1,5 +1,8 @@
 package com.davidrandoll.spring_web_captor.storage;
 
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -14,6 +17,25 @@ public interface INetworkLogStore {
 
     void save(INetworkLog log);
 
+    /**
+     * Saves a batch collected by the write-behind stage
+     * ({@code network-log.write-behind.enabled}). Override to write it in one
+     * transaction or one round trip; by default every row is saved on its own,
+     * and a row that fails is logged without stopping the others. An override
+     * that throws should have saved none of the rows, as a rolled back
+     * transaction would: the rows are then saved one by one.
+     */
+    default void saveAll(List<INetworkLog> logs) {
+        for (INetworkLog log : logs) {
+            try {
+                save(log);
+            } catch (RuntimeException e) {
+                LoggerFactory.getLogger(INetworkLogStore.class)
+                        .error("Failed to persist network log {}: {}", log.getRequestId(), e.getMessage(), e);
+            }
+        }
+    }
+
     Optional<INetworkLog> findByRequestId(String requestId);
 
     void deleteByRequestId(String requestId);
@@ -1,24 +1,23 @@
 package com.davidrandoll.spring_web_captor.storage;
 
 import com.davidrandoll.spring_web_captor.event.BaseHttpEvent;
+import com.davidrandoll.spring_web_captor.event.BodyPayload;
 import com.davidrandoll.spring_web_captor.event.HttpRequestEvent;
 import com.davidrandoll.spring_web_captor.event.HttpResponseEvent;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpHeaders;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.lang.Nullable;
 import org.springframework.util.MultiValueMap;
 
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Funnels captor request/response events into the consumer-supplied
@@ -29,97 +28,250 @@ import java.util.stream.Collectors;
  *     <li>{@link RequestIdProvider} (used by {@link NetworkLogHttpEventExtension})
  *         controls the correlation id.</li>
  * </ul>
+ *
+ * <p>With {@code network-log.tail-capture.enabled} the request event is held
+ * in {@link PendingExchanges} rather than written, and the exchange is
+ * assembled into one row and saved once, or not at all, when its response has
+ * been through the capture rules.
+ * With {@code network-log.write-behind.enabled} rows are handed to
+ * {@link INetworkLogStore#saveAll} in batches by {@link WriteBehindBuffer}.</p>
+ *
+ * <p>Events are persisted on {@link NetworkLogWorkers}, which run the phases of
+ * one exchange in order, so a response never looks for a request row that is
+ * still being written.</p>
  */
 @Slf4j
-@RequiredArgsConstructor
-public class NetworkLogEventListener {
+public class NetworkLogEventListener implements DisposableBean {
 
     private final INetworkLogStore store;
     private final NetworkLogProperties properties;
     private final ObjectMapper objectMapper;
     private final List<NetworkLogEnricher> enrichers;
+    /**
+     * Where events are persisted; {@code null} to persist them on the publishing thread.
+     */
+    @Nullable
+    private final NetworkLogWorkers workers;
+    private volatile PendingExchanges<HeldRequest> pending;
+    private volatile WriteBehindBuffer writeBehind;
+    private volatile RedactionPlan redaction;
+
+    /**
+     * A listener that persists every event on the thread publishing it.
+     */
+    public NetworkLogEventListener(INetworkLogStore store, NetworkLogProperties properties,
+                                   ObjectMapper objectMapper, List<NetworkLogEnricher> enrichers) {
+        this(store, properties, objectMapper, enrichers, null);
+    }
+
+    public NetworkLogEventListener(INetworkLogStore store, NetworkLogProperties properties,
+                                   ObjectMapper objectMapper, List<NetworkLogEnricher> enrichers,
+                                   @Nullable NetworkLogWorkers workers) {
+        this.store = store;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.enrichers = enrichers;
+        this.workers = workers;
+    }
 
-    @Async
     @EventListener
     public void onHttpRequest(HttpRequestEvent event) {
         if (!properties.isEnabled() || isExcludedPath(event.getPath())) return;
+        String requestId = extractRequestId(event.getAdditionalData());
+        dispatch(requestId, true, () -> persistRequest(event, requestId));
+    }
+
+    @EventListener
+    public void onHttpResponse(HttpResponseEvent event) {
+        if (!properties.isEnabled() || isExcludedPath(event.getPath())) return;
+        String requestId = extractRequestId(event.getAdditionalData());
+        // the response of a failed exchange rebuilds the row on its own if its request was dropped
+        boolean droppable = event.getResponseStatus() != null && !event.isErrorResponse();
+        dispatch(requestId, droppable, () -> persistResponse(event, requestId));
+    }
+
+    /**
+     * Runs {@code task} on the worker of the exchange, behind what was submitted for it before.
+     */
+    private void dispatch(@Nullable String requestId, boolean droppable, Runnable task) {
+        if (workers == null) {
+            task.run();
+            return;
+        }
         try {
-            INetworkLog networkLog = store.newInstance();
-            networkLog.setRequestId(extractRequestId(event.getAdditionalData()))
-                    .setRequestTimestamp(Instant.now())
-                    .setMethod(event.getMethod() != null ? event.getMethod().name() : null)
-                    .setFullUrl(event.getFullUrl())
-                    .setPath(event.getPath())
-                    .setRequestHeaders(redactHeaders(toMap(event.getHeaders())))
-                    .setQueryParams(multiValueMapToMap(event.getQueryParams()))
-                    .setPathParams(event.getPathParams() != null ? new HashMap<>(event.getPathParams()) : null)
-                    .setRequestBody(redactFields(event.getRequestBody()))
-                    .setAdditionalData(redactMapFields(event.getAdditionalData()))
-                    .setEndpointCalled(event.isEndpointCalled());
+            workers.execute(requestId, droppable, task);
+        } catch (RejectedExecutionException e) {
+            // the workers are shutting down
+            task.run();
+        }
+    }
 
-            applyEnrichers(networkLog, event);
-            store.save(networkLog);
+    private void persistRequest(HttpRequestEvent event, @Nullable String requestId) {
+        try {
+            PendingExchanges<HeldRequest> pending = pendingExchanges();
+            if (pending != null && requestId != null && pending.hold(requestId, new HeldRequest(event, Instant.now()))) {
+                return;
+            }
+            write(assemble(event, Instant.now()));
         } catch (Exception e) {
             log.error("Failed to persist network request log for {} {}: {}",
                     event.getMethod(), event.getPath(), e.getMessage(), e);
         }
     }
 
-    @Async
-    @EventListener
-    public void onHttpResponse(HttpResponseEvent event) {
-        if (!properties.isEnabled() || isExcludedPath(event.getPath())) return;
+    private void persistResponse(HttpResponseEvent event, @Nullable String requestId) {
         try {
             Integer status = event.getResponseStatus() != null ? event.getResponseStatus().value() : null;
-            String requestId = extractRequestId(event.getAdditionalData());
+
+            PendingExchanges<HeldRequest> pending = pendingExchanges();
+            HeldRequest held = pending != null && requestId != null ? pending.complete(requestId) : null;
+
+            WriteBehindBuffer buffer = writeBehind();
+            INetworkLog unwritten = held == null && buffer != null && requestId != null ? buffer.remove(requestId) : null;
 
             var decision = CaptureRuleResolver.resolve(status, properties);
             if (!decision.capture()) {
-                if (requestId != null) {
+                // a held or still buffered request was never written
+                if (requestId != null && held == null && unwritten == null) {
                     store.deleteByRequestId(requestId);
                 }
                 return;
             }
 
-            INetworkLog networkLog = requestId != null
-                    ? store.findByRequestId(requestId).orElse(null)
-                    : null;
+            // a held request is assembled only now that the exchange is kept
+            INetworkLog networkLog = held != null ? assemble(held.event(), held.receivedAt()) : unwritten;
+            if (networkLog == null && requestId != null) {
+                networkLog = store.findByRequestId(requestId).orElse(null);
+            }
 
+            RedactionPlan plan = redaction();
             if (networkLog != null) {
                 networkLog
                         .setResponseStatus(status)
-                        .setResponseHeaders(redactHeaders(toMap(event.getResponseHeaders())))
-                        .setResponseBody(redactFields(event.getResponseBody()))
+                        .setResponseHeaders(plan.redactHeaders(toMap(event.getResponseHeaders())))
+                        .setResponseBody(redactedResponseBody(event, plan))
                         .setErrorDetail(event.getErrorDetail())
-                        .setAdditionalData(redactMapFields(mergeAdditionalData(networkLog.getAdditionalData(), event.getAdditionalData())));
+                        .setAdditionalData(plan.redactMap(mergeAdditionalData(networkLog.getAdditionalData(), event.getAdditionalData())));
             } else {
-                networkLog = store.newInstance();
-                networkLog.setRequestId(requestId)
-                        .setRequestTimestamp(Instant.now())
-                        .setMethod(event.getMethod() != null ? event.getMethod().name() : null)
-                        .setFullUrl(event.getFullUrl())
-                        .setPath(event.getPath())
-                        .setRequestHeaders(redactHeaders(toMap(event.getHeaders())))
-                        .setQueryParams(multiValueMapToMap(event.getQueryParams()))
-                        .setPathParams(event.getPathParams() != null ? new HashMap<>(event.getPathParams()) : null)
-                        .setRequestBody(redactFields(event.getRequestBody()))
-                        .setAdditionalData(redactMapFields(event.getAdditionalData()))
-                        .setEndpointCalled(event.isEndpointCalled())
+                networkLog = newRequestLog(event);
+                networkLog
                         .setResponseStatus(status)
-                        .setResponseHeaders(redactHeaders(toMap(event.getResponseHeaders())))
-                        .setResponseBody(redactFields(event.getResponseBody()))
+                        .setResponseHeaders(plan.redactHeaders(toMap(event.getResponseHeaders())))
+                        .setResponseBody(redactedResponseBody(event, plan))
                         .setErrorDetail(event.getErrorDetail());
             }
 
             applyEnrichers(networkLog, event);
             NetworkLogFieldMask.apply(networkLog, decision.fieldWhitelist());
-            store.save(networkLog);
+            write(networkLog);
         } catch (Exception e) {
             log.error("Failed to persist network response log for {} {}: {}",
                     event.getMethod(), event.getPath(), e.getMessage(), e);
         }
     }
 
+    /**
+     * Persists the events already submitted, then writes the requests still held and the rows still
+     * buffered, so that none is lost on shutdown.
+     */
+    @Override
+    public void destroy() {
+        if (workers != null) workers.close();
+        PendingExchanges<HeldRequest> pending = this.pending;
+        if (pending != null) pending.close();
+        WriteBehindBuffer writeBehind = this.writeBehind;
+        if (writeBehind != null) writeBehind.close();
+    }
+
+    private void write(INetworkLog networkLog) {
+        WriteBehindBuffer buffer = writeBehind();
+        if (buffer == null || !buffer.add(networkLog)) {
+            store.save(networkLog);
+        }
+    }
+
+    /**
+     * The write-behind buffer, created on first use when write-behind is enabled.
+     */
+    private WriteBehindBuffer writeBehind() {
+        NetworkLogProperties.WriteBehind settings = properties.getWriteBehind();
+        if (settings == null || !settings.isEnabled()) return null;
+        WriteBehindBuffer buffer = this.writeBehind;
+        if (buffer == null) {
+            synchronized (this) {
+                buffer = this.writeBehind;
+                if (buffer == null) {
+                    buffer = new WriteBehindBuffer(store, settings.getBatchSize(), settings.getFlushInterval(),
+                            settings.getCapacity());
+                    this.writeBehind = buffer;
+                }
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * The table of held requests, created on first use when tail capture is enabled.
+     */
+    private PendingExchanges<HeldRequest> pendingExchanges() {
+        NetworkLogProperties.TailCapture tailCapture = properties.getTailCapture();
+        if (tailCapture == null || !tailCapture.isEnabled()) return null;
+        PendingExchanges<HeldRequest> pending = this.pending;
+        if (pending == null) {
+            synchronized (this) {
+                pending = this.pending;
+                if (pending == null) {
+                    pending = new PendingExchanges<>(tailCapture.getMaxPending(), tailCapture.getTimeout(),
+                            tailCapture.getMarkerTimeout(), tailCapture.getTick(), this::persistExpired);
+                    this.pending = pending;
+                }
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * A held request whose response never came: written on its own, as the rules have it for an
+     * exchange without status.
+     */
+    private void persistExpired(HeldRequest held) {
+        var decision = CaptureRuleResolver.resolve(null, properties);
+        if (!decision.capture()) return;
+        INetworkLog networkLog = assemble(held.event(), held.receivedAt());
+        NetworkLogFieldMask.apply(networkLog, decision.fieldWhitelist());
+        write(networkLog);
+    }
+
+    /**
+     * The request phase of {@code event} as a new row, enriched.
+     */
+    private INetworkLog assemble(HttpRequestEvent event, Instant receivedAt) {
+        INetworkLog networkLog = newRequestLog(event);
+        networkLog.setRequestTimestamp(receivedAt);
+        applyEnrichers(networkLog, event);
+        return networkLog;
+    }
+
+    /**
+     * A new row holding the request phase of {@code event}.
+     */
+    private INetworkLog newRequestLog(BaseHttpEvent event) {
+        RedactionPlan plan = redaction();
+        INetworkLog networkLog = store.newInstance();
+        networkLog.setRequestId(extractRequestId(event.getAdditionalData()))
+                .setRequestTimestamp(Instant.now())
+                .setMethod(event.getMethod() != null ? event.getMethod().name() : null)
+                .setFullUrl(event.getFullUrl())
+                .setPath(event.getPath())
+                .setRequestHeaders(plan.redactHeaders(toMap(event.getHeaders())))
+                .setQueryParams(multiValueMapToMap(event.getQueryParams()))
+                .setPathParams(event.getPathParams() != null ? new HashMap<>(event.getPathParams()) : null)
+                .setRequestBody(redactedRequestBody(event, plan))
+                .setAdditionalData(plan.redactMap(event.getAdditionalData()))
+                .setEndpointCalled(event.isEndpointCalled());
+        return networkLog;
+    }
+
     private void applyEnrichers(INetworkLog log, BaseHttpEvent event) {
         if (enrichers == null) return;
         for (NetworkLogEnricher enricher : enrichers) {
@@ -163,51 +315,38 @@ public class NetworkLogEventListener {
         return merged;
     }
 
-    private Map<String, Object> redactHeaders(Map<String, Object> headers) {
-        if (headers == null || properties.getRedactHeaders() == null || properties.getRedactHeaders().isEmpty()) {
-            return headers;
-        }
-        Set<String> redactSet = properties.getRedactHeaders().stream()
-                .map(String::toLowerCase)
-                .collect(Collectors.toSet());
-        headers.replaceAll((key, value) -> redactSet.contains(key.toLowerCase()) ? "[REDACTED]" : value);
-        return headers;
+    /**
+     * The request body of {@code event}, redacted; parsed straight into its redacted form when nobody
+     * has read it yet.
+     */
+    private JsonNode redactedRequestBody(BaseHttpEvent event, RedactionPlan plan) {
+        BodyPayload payload = event.getBodyPayload();
+        JsonNode streamed = plan.canStream(payload) ? plan.parseRedacted(payload) : null;
+        return streamed != null ? streamed : plan.redactTree(event.getRequestBody());
     }
 
-    private JsonNode redactFields(JsonNode node) {
-        if (node == null || properties.getRedactFields() == null || properties.getRedactFields().isEmpty()) {
-            return node;
-        }
-        Set<String> fieldNames = Set.copyOf(properties.getRedactFields());
-        redactFieldsRecursive(node, fieldNames);
-        return node;
+    private JsonNode redactedResponseBody(HttpResponseEvent event, RedactionPlan plan) {
+        BodyPayload payload = event.getResponseBodyPayload();
+        // an error detail replaces the captured body
+        JsonNode streamed = event.getErrorDetail() == null && plan.canStream(payload) ? plan.parseRedacted(payload) : null;
+        return streamed != null ? streamed : plan.redactTree(event.getResponseBody());
     }
 
-    @SuppressWarnings("unchecked")
-    private Map<String, Object> redactMapFields(Map<String, Object> map) {
-        if (map == null || properties.getRedactFields() == null || properties.getRedactFields().isEmpty()) {
-            return map;
-        }
-        JsonNode node = objectMapper.valueToTree(map);
-        redactFieldsRecursive(node, Set.copyOf(properties.getRedactFields()));
-        return objectMapper.convertValue(node, Map.class);
-    }
-
-    private void redactFieldsRecursive(JsonNode node, Set<String> fieldNames) {
-        if (node == null) return;
-        if (node.isObject()) {
-            ObjectNode obj = (ObjectNode) node;
-            obj.fieldNames().forEachRemaining(name -> {
-                if (fieldNames.contains(name)) {
-                    obj.put(name, "[REDACTED]");
-                } else {
-                    redactFieldsRecursive(obj.get(name), fieldNames);
-                }
-            });
-        } else if (node.isArray()) {
-            for (JsonNode element : node) {
-                redactFieldsRecursive(element, fieldNames);
-            }
+    /**
+     * The redaction settings, compiled again only when the redact lists are replaced.
+     */
+    private RedactionPlan redaction() {
+        RedactionPlan plan = this.redaction;
+        if (plan == null || !plan.isFor(properties)) {
+            plan = RedactionPlan.compile(properties, objectMapper);
+            this.redaction = plan;
         }
+        return plan;
+    }
+
+    /**
+     * A request held by tail capture, with the time it was received.
+     */
+    private record HeldRequest(HttpRequestEvent event, Instant receivedAt) {
     }
 }
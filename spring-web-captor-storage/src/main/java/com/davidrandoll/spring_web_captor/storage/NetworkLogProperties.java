@@ -3,6 +3,7 @@ package com.davidrandoll.spring_web_captor.storage;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -31,6 +32,15 @@ public class NetworkLogProperties {
     /** Ordered capture rules; first match wins, no match drops the row. */
     private List<CaptureRule> rules = new ArrayList<>();
 
+    /** Holds request rows until the response decides whether they are kept. */
+    private TailCapture tailCapture = new TailCapture();
+
+    /** Hands rows to the store in batches instead of one save per event. */
+    private WriteBehind writeBehind = new WriteBehind();
+
+    /** The threads rows are persisted on. */
+    private Workers workers = new Workers();
+
     @Data
     public static class CaptureRule {
         /** Status matcher entries: {@code "500"}, {@code "400-599"}, {@code ">=400"}, etc. */
@@ -39,4 +49,87 @@ public class NetworkLogProperties {
         /** Whitelist of field names to keep; null/empty means keep everything. */
         private List<String> fields;
     }
+
+    /**
+     * Tail-based capture: the request phase is held in memory instead of being
+     * written, and the capture rules decide once the response arrives, so a
+     * dropped exchange costs no store call at all and a kept one a single save.
+     * Without any rule this is plain single-write assembly: every exchange is
+     * joined in memory and written once, complete.
+     */
+    @Data
+    public static class TailCapture {
+        private boolean enabled = false;
+
+        /** Requests held at most; beyond that they are written straight away, as without tail capture. */
+        private int maxPending = 10_000;
+
+        /** How long a request waits for its response before it is written on its own. */
+        private Duration timeout = Duration.ofSeconds(30);
+
+        /** How long a response remembers its exchange, so that a request phase arriving after it is dropped. */
+        private Duration markerTimeout = Duration.ofSeconds(2);
+
+        /** Resolution of the timeout. */
+        private Duration tick = Duration.ofMillis(100);
+    }
+
+    /**
+     * Write-behind batching: rows are collected and passed to
+     * {@link INetworkLogStore#saveAll} by a background thread.
+     */
+    @Data
+    public static class WriteBehind {
+        private boolean enabled = false;
+
+        /** Rows written together at most; a full batch is written right away. */
+        private int batchSize = 500;
+
+        /** How long a row waits for its batch to fill before it is written anyway. */
+        private Duration flushInterval = Duration.ofMillis(200);
+
+        /** Rows waiting at most; beyond that they are saved one by one on the listener thread. */
+        private int capacity = 10_000;
+    }
+
+    /**
+     * Persistence workers: each request id is hashed to one single-threaded
+     * worker, so the phases of an exchange are persisted in order.
+     */
+    @Data
+    public static class Workers {
+        /** Number of workers; defaults to the number of processors. */
+        private int partitions = Runtime.getRuntime().availableProcessors();
+
+        /** Tasks queued at most, shared evenly between the workers. */
+        private int queueCapacity = 10_000;
+
+        /** What happens to a task whose worker's queue is full. */
+        private RejectionPolicy rejectionPolicy = RejectionPolicy.CALLER_RUNS;
+
+        /** How long an error response waits for room under {@code DROP_SUCCESS_ONLY} before it is dropped too. */
+        private Duration maxWait = Duration.ofSeconds(1);
+
+        /** How long shutdown waits for the workers to persist what is queued. */
+        private Duration shutdownTimeout = Duration.ofSeconds(10);
+    }
+
+    public enum RejectionPolicy {
+        /**
+         * The task is dropped.
+         */
+        DROP,
+        /**
+         * The publishing thread persists the event itself. Its exchange may then
+         * be persisted out of order, as without the workers.
+         */
+        CALLER_RUNS,
+        /**
+         * Request phases and responses below 400 are dropped, a kept failed
+         * exchange being rebuilt from its response; error responses wait up to
+         * {@code max-wait} for room, so failed exchanges are still recorded
+         * under load without holding the publishing thread indefinitely.
+         */
+        DROP_SUCCESS_ONLY
+    }
 }
@@ -0,0 +1,173 @@
+package com.davidrandoll.spring_web_captor.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The threads {@link NetworkLogEventListener} persists on: {@code partitions} single-threaded
+ * workers, each with a queue of its own. Every task of a request id runs on the same worker, in the
+ * order it was submitted, so the response phase of an exchange never overtakes its request phase;
+ * exchanges on different workers run in parallel.
+ *
+ * <p>The queues are bounded, so a slow store holds back at most {@code queueCapacity} tasks. When
+ * the queue of a worker is full the configured {@link NetworkLogProperties.RejectionPolicy} decides
+ * what happens to the task; a task that waits for room waits {@code maxWait} at most and is then
+ * dropped. The counters are cumulative since startup and are meant to be exported
+ * to whatever metrics system the application uses.</p>
+ */
+@Slf4j
+public class NetworkLogWorkers implements AutoCloseable {
+    private static final long OFFER_STEP_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final ThreadPoolExecutor[] workers;
+    private final NetworkLogProperties.RejectionPolicy rejectionPolicy;
+    private final Duration shutdownTimeout;
+    private final long maxWaitNanos;
+
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+
+    public NetworkLogWorkers(NetworkLogProperties.Workers settings) {
+        this.workers = new ThreadPoolExecutor[Math.max(1, settings.getPartitions())];
+        this.rejectionPolicy = settings.getRejectionPolicy();
+        this.shutdownTimeout = settings.getShutdownTimeout();
+        this.maxWaitNanos = settings.getMaxWait().toNanos();
+        int capacity = Math.max(1, settings.getQueueCapacity() / workers.length);
+        for (int i = 0; i < workers.length; i++) {
+            String name = "network-log-" + i;
+            workers[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(capacity), runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+            workers[i].prestartCoreThread();
+        }
+    }
+
+    /**
+     * Runs {@code task} on the worker of {@code requestId}, after the tasks submitted for it before;
+     * tasks without a request id go to any worker.
+     *
+     * @param droppable whether losing the task loses nothing the rules would keep: a request phase,
+     *                  whose row the response rebuilds, or the response of a successful exchange
+     * @throws RejectedExecutionException once the workers are closed
+     */
+    public void execute(@Nullable String requestId, boolean droppable, Runnable task) {
+        ThreadPoolExecutor worker = workers[partitionOf(requestId)];
+        try {
+            worker.execute(task);
+            return;
+        } catch (RejectedExecutionException e) {
+            if (worker.isShutdown()) throw e;
+        }
+        rejectedCount.increment();
+        switch (rejectionPolicy) {
+            case DROP -> drop(requestId);
+            case CALLER_RUNS -> task.run();
+            case DROP_SUCCESS_ONLY -> {
+                if (droppable || !awaitRoom(worker, task)) drop(requestId);
+            }
+        }
+    }
+
+    private void drop(@Nullable String requestId) {
+        droppedCount.increment();
+        log.debug("Network log queue full, dropping a task of {}", requestId);
+    }
+
+    /**
+     * Waits up to {@code maxWait} for room in the queue of {@code worker}, keeping the task behind
+     * those of its exchange.
+     *
+     * @return {@code false} when there was no room in time and the task was not queued
+     */
+    private boolean awaitRoom(ThreadPoolExecutor worker, Runnable task) {
+        long deadline = System.nanoTime() + maxWaitNanos;
+        try {
+            // offer in short steps, to notice a shutdown while waiting
+            long remaining;
+            while ((remaining = deadline - System.nanoTime()) > 0) {
+                if (worker.getQueue().offer(task, Math.min(remaining, OFFER_STEP_NANOS), TimeUnit.NANOSECONDS)) return true;
+                if (worker.isShutdown()) throw new RejectedExecutionException("Network log workers are closed");
+            }
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for the network log queue", e);
+        }
+    }
+
+    int partitionOf(@Nullable String requestId) {
+        if (requestId == null) return ThreadLocalRandom.current().nextInt(workers.length);
+        int hash = requestId.hashCode();
+        // the low bits of String hashes of similar ids are close; spread the high ones in
+        return Math.floorMod(hash ^ (hash >>> 16), workers.length);
+    }
+
+    /**
+     * Runs what was submitted, waiting up to the shutdown timeout for it, and takes no more tasks.
+     */
+    @Override
+    public void close() {
+        for (ThreadPoolExecutor worker : workers) {
+            worker.shutdown();
+        }
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        try {
+            for (ThreadPoolExecutor worker : workers) {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                if (!worker.awaitTermination(remaining, TimeUnit.NANOSECONDS)) {
+                    log.warn("Network log worker did not finish its queue within {}; {} tasks dropped",
+                            shutdownTimeout, worker.shutdownNow().size());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getPartitions() {
+        return workers.length;
+    }
+
+    /**
+     * Tasks waiting in all the queues.
+     */
+    public int getQueueDepth() {
+        int depth = 0;
+        for (ThreadPoolExecutor worker : workers) {
+            depth += worker.getQueue().size();
+        }
+        return depth;
+    }
+
+    /**
+     * Workers running a task right now.
+     */
+    public int getActiveWorkers() {
+        int active = 0;
+        for (ThreadPoolExecutor worker : workers) {
+            active += worker.getActiveCount();
+        }
+        return active;
+    }
+
+    /**
+     * Tasks that found their queue full, whatever the policy then did with them.
+     */
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+}
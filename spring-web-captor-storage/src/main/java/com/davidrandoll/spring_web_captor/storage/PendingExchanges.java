@@ -0,0 +1,196 @@
+package com.davidrandoll.spring_web_captor.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Request phases waiting for their response, keyed by request id. The table is bounded: once
+ * {@code maxPending} requests are held, {@link #hold} refuses new ones and the caller writes them
+ * straight away.
+ *
+ * <p>A request that gets no response within the timeout is handed to the expiry callback. Deadlines
+ * are kept in a hashed timer wheel: each tick visits one slot, so expiry costs the same however many
+ * requests are pending. A response leaves a marker in place of its request for the marker timeout,
+ * so that a request arriving after its response is dropped instead of being written over the
+ * complete row. Markers do not count against {@code maxPending}; they have a bound of the same size
+ * of their own, beyond which a response leaves none.</p>
+ *
+ * @param <T> what is kept of a request until its response arrives
+ */
+@Slf4j
+final class PendingExchanges<T> implements AutoCloseable {
+    private static final int WHEEL_SIZE = 512;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private final Map<String, Entry<T>> entries = new ConcurrentHashMap<>();
+    @SuppressWarnings("unchecked")
+    private final Queue<Entry<T>>[] wheel = new Queue[WHEEL_SIZE];
+    private final int maxPending;
+    private final long timeoutTicks;
+    private final long markerTicks;
+    private final AtomicInteger held = new AtomicInteger();
+    private final AtomicInteger markers = new AtomicInteger();
+    private final Consumer<T> onExpiry;
+    private final ScheduledExecutorService ticker;
+    /**
+     * The next slot to be visited; only advanced by the ticker.
+     */
+    private volatile long tick;
+
+    PendingExchanges(int maxPending, Duration timeout, Duration markerTimeout, Duration tickDuration, Consumer<T> onExpiry) {
+        this.maxPending = maxPending;
+        long tickMillis = Math.max(1, tickDuration.toMillis());
+        this.timeoutTicks = ticks(timeout, tickMillis);
+        this.markerTicks = ticks(markerTimeout, tickMillis);
+        this.onExpiry = onExpiry;
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "network-log-pending-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Holds the request until its response arrives.
+     *
+     * @return {@code false} when the table is full and the request was not held
+     */
+    boolean hold(String requestId, T request) {
+        if (held.incrementAndGet() > maxPending) {
+            held.decrementAndGet();
+            return false;
+        }
+        Entry<T> entry = new Entry<>(requestId, request);
+        // an entry already there is a response that overtook this request, or the same request again
+        if (entries.putIfAbsent(requestId, entry) == null) {
+            schedule(entry, timeoutTicks);
+        } else {
+            held.decrementAndGet();
+        }
+        return true;
+    }
+
+    /**
+     * Takes the held request of a response, leaving a marker in its place while there is room for one.
+     *
+     * @return the request, or {@code null} if none is held
+     */
+    @Nullable
+    T complete(String requestId) {
+        Entry<T> previous;
+        if (markers.incrementAndGet() > maxPending) {
+            markers.decrementAndGet();
+            previous = entries.remove(requestId);
+        } else {
+            Entry<T> marker = new Entry<>(requestId, null);
+            previous = entries.put(requestId, marker);
+            schedule(marker, markerTicks);
+        }
+        if (previous == null) return null;
+        // the replaced entry stays in the wheel but no longer matches, so it is counted out here
+        (previous.request != null ? held : markers).decrementAndGet();
+        return previous.request;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Requests held right now, markers left out.
+     */
+    int heldCount() {
+        return held.get();
+    }
+
+    private static long ticks(Duration duration, long tickMillis) {
+        return Math.max(1, (duration.toMillis() + tickMillis - 1) / tickMillis);
+    }
+
+    private void schedule(Entry<T> entry, long ticks) {
+        long deadline = tick + ticks;
+        // the slot comes round every WHEEL_SIZE ticks; skip the turns before the deadline
+        entry.rounds = ticks / WHEEL_SIZE;
+        wheel[(int) (deadline & WHEEL_MASK)].add(entry);
+    }
+
+    private void advance() {
+        try {
+            Iterator<Entry<T>> slot = wheel[(int) (tick & WHEEL_MASK)].iterator();
+            while (slot.hasNext()) {
+                Entry<T> entry = slot.next();
+                if (entry.rounds > 0) {
+                    entry.rounds--;
+                    continue;
+                }
+                slot.remove();
+                expire(entry);
+            }
+        } catch (Exception e) {
+            // never let an exception cancel the periodic task
+            log.error("Failed to expire pending network logs", e);
+        } finally {
+            tick++;
+        }
+    }
+
+    private void expire(Entry<T> entry) {
+        // replaced by a response, or already expired
+        if (!entries.remove(entry.requestId, entry)) return;
+        if (entry.request == null) {
+            markers.decrementAndGet();
+            return;
+        }
+        held.decrementAndGet();
+        try {
+            onExpiry.accept(entry.request);
+        } catch (Exception e) {
+            log.error("Failed to persist expired network request log {}", entry.requestId, e);
+        }
+    }
+
+    /**
+     * Stops the wheel and hands every request still waiting to the expiry callback.
+     */
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+        for (Entry<T> entry : entries.values()) {
+            expire(entry);
+        }
+    }
+
+    private static final class Entry<T> {
+        private final String requestId;
+        /**
+         * {@code null} for the marker a response leaves.
+         */
+        @Nullable
+        private final T request;
+        /**
+         * Full turns of the wheel left before the deadline; only touched by the ticker once scheduled.
+         */
+        private long rounds;
+
+        private Entry(String requestId, @Nullable T request) {
+            this.requestId = requestId;
+            this.request = request;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.davidrandoll.spring_web_captor.storage;
+
+import com.davidrandoll.spring_web_captor.event.BodyPayload;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * The redaction settings of {@link NetworkLogProperties}, compiled once into lookup sets, and the
+ * walks that apply them. Headers and body trees are redacted in place; maps, and the JSON trees
+ * inside them, are copied only along the path to a redacted key, since they may still be shared with
+ * the event and its other listeners. A JSON body nobody has read yet is parsed straight into a
+ * redacted tree, skipping the redacted values instead of building them and walking the result again.
+ */
+@Slf4j
+final class RedactionPlan {
+    static final String REDACTED = "[REDACTED]";
+
+    // the lists the plan was compiled from, to notice when they are replaced
+    private final List<String> headerSource;
+    private final List<String> fieldSource;
+
+    private final Set<String> headers = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    private final Set<String> fields = new HashSet<>();
+    private final ObjectMapper objectMapper;
+
+    private RedactionPlan(NetworkLogProperties properties, ObjectMapper objectMapper) {
+        this.headerSource = properties.getRedactHeaders();
+        this.fieldSource = properties.getRedactFields();
+        if (headerSource != null) headers.addAll(headerSource);
+        if (fieldSource != null) fields.addAll(fieldSource);
+        this.objectMapper = objectMapper;
+    }
+
+    static RedactionPlan compile(NetworkLogProperties properties, ObjectMapper objectMapper) {
+        return new RedactionPlan(properties, objectMapper);
+    }
+
+    /**
+     * Whether the plan still matches the redaction lists of {@code properties}.
+     */
+    boolean isFor(NetworkLogProperties properties) {
+        return properties.getRedactHeaders() == headerSource && properties.getRedactFields() == fieldSource;
+    }
+
+    /**
+     * Replaces the values of redacted headers in {@code headers}, which must be a copy of its own.
+     */
+    @Nullable
+    Map<String, Object> redactHeaders(@Nullable Map<String, Object> headers) {
+        if (headers == null || this.headers.isEmpty()) return headers;
+        for (Map.Entry<String, Object> header : headers.entrySet()) {
+            if (this.headers.contains(header.getKey())) header.setValue(REDACTED);
+        }
+        return headers;
+    }
+
+    /**
+     * Redacts {@code node} in place.
+     */
+    @Nullable
+    JsonNode redactTree(@Nullable JsonNode node) {
+        if (node != null && !fields.isEmpty()) walk(node);
+        return node;
+    }
+
+    /**
+     * Whether {@link #parseRedacted} can read {@code payload}: a JSON body captured in full and not
+     * parsed yet.
+     */
+    boolean canStream(@Nullable BodyPayload payload) {
+        return payload != null && !fields.isEmpty() && !payload.isParsed() && !payload.isTruncated()
+                && payload.getRawLength() > 0
+                && payload.getContentType() != null && payload.getContentType().contains("json");
+    }
+
+    /**
+     * The body of {@code payload} parsed into a redacted tree, leaving the payload itself unparsed;
+     * {@code null} if the bytes are not a single valid JSON value.
+     */
+    @Nullable
+    JsonNode parseRedacted(BodyPayload payload) {
+        InputStream raw = payload.openRawBody();
+        // parsed, and its bytes released, since canStream was asked
+        if (raw == null) return null;
+        try (raw; JsonParser parser = objectMapper.createParser(raw)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) return null;
+            JsonNode tree = read(parser, token);
+            // values after the first (ndjson, json-seq) are left to the tree walk
+            return parser.nextToken() == null ? tree : null;
+        } catch (IOException e) {
+            log.debug("Body is not valid JSON, redacting it once parsed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * {@code map} with redacted keys replaced at any depth. Nested maps, collections and trees are
+     * walked as they are, and copied where a key is redacted; other objects are converted to maps
+     * first, so their fields are found too. The map is returned as is when nothing in it is redacted.
+     */
+    @Nullable
+    Map<String, Object> redactMap(@Nullable Map<String, Object> map) {
+        if (map == null || fields.isEmpty()) return map;
+        return redactEntries(map);
+    }
+
+    private void walk(JsonNode node) {
+        if (node.isObject()) {
+            ObjectNode object = (ObjectNode) node;
+            for (Iterator<Map.Entry<String, JsonNode>> it = object.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = it.next();
+                if (fields.contains(field.getKey())) {
+                    field.setValue(JsonNodeFactory.instance.textNode(REDACTED));
+                } else {
+                    walk(field.getValue());
+                }
+            }
+        } else if (node.isArray()) {
+            for (JsonNode element : node) {
+                walk(element);
+            }
+        }
+    }
+
+    private JsonNode read(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.START_OBJECT) {
+            ObjectNode object = objectMapper.createObjectNode();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (fields.contains(name)) {
+                    parser.skipChildren();
+                    object.put(name, REDACTED);
+                } else {
+                    object.set(name, read(parser, value));
+                }
+            }
+            return object;
+        }
+        if (token == JsonToken.START_ARRAY) {
+            ArrayNode array = objectMapper.createArrayNode();
+            for (JsonToken element = parser.nextToken(); element != JsonToken.END_ARRAY; element = parser.nextToken()) {
+                array.add(read(parser, element));
+            }
+            return array;
+        }
+        // scalars are built as the mapper would, numbers included
+        return objectMapper.readTree(parser);
+    }
+
+    private Map<String, Object> redactEntries(Map<String, Object> map) {
+        Map<String, Object> copy = null;
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            Object value = entry.getValue();
+            Object redacted = fields.contains(entry.getKey()) ? REDACTED : redactValue(value);
+            if (redacted != value) {
+                if (copy == null) copy = new HashMap<>(map);
+                copy.put(entry.getKey(), redacted);
+            }
+        }
+        return copy != null ? copy : map;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object redactValue(@Nullable Object value) {
+        if (value == null || isScalar(value)) return value;
+        if (value instanceof JsonNode node) return redactedCopy(node);
+        if (value instanceof Map<?, ?> map) return redactEntries((Map<String, Object>) map);
+        if (value instanceof Collection<?> collection) return redactElements(collection);
+        return redactValue(objectMapper.convertValue(value, Object.class));
+    }
+
+    /**
+     * {@code node} with redacted fields replaced at any depth, copied if any is found.
+     */
+    private JsonNode redactedCopy(JsonNode node) {
+        JsonNode copy = null;
+        if (node.isObject()) {
+            for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = it.next();
+                JsonNode value = fields.contains(field.getKey())
+                        ? JsonNodeFactory.instance.textNode(REDACTED) : redactedCopy(field.getValue());
+                if (value != field.getValue()) {
+                    if (copy == null) copy = node.deepCopy();
+                    ((ObjectNode) copy).set(field.getKey(), value);
+                }
+            }
+        } else if (node.isArray()) {
+            for (int i = 0; i < node.size(); i++) {
+                JsonNode value = redactedCopy(node.get(i));
+                if (value != node.get(i)) {
+                    if (copy == null) copy = node.deepCopy();
+                    ((ArrayNode) copy).set(i, value);
+                }
+            }
+        }
+        return copy != null ? copy : node;
+    }
+
+    private Object redactElements(Collection<?> collection) {
+        List<Object> copy = null;
+        int index = 0;
+        for (Object element : collection) {
+            Object redacted = redactValue(element);
+            if (redacted != element && copy == null) {
+                copy = new ArrayList<>(collection.size());
+                Iterator<?> it = collection.iterator();
+                for (int i = 0; i < index; i++) copy.add(it.next());
+            }
+            if (copy != null) copy.add(redacted);
+            index++;
+        }
+        return copy != null ? copy : collection;
+    }
+
+    private static boolean isScalar(Object value) {
+        return value instanceof CharSequence || value instanceof Number || value instanceof Boolean
+                || value instanceof Character || value instanceof Enum<?> || value instanceof TemporalAccessor
+                || value instanceof UUID;
+    }
+}
@@ -0,0 +1,198 @@
+package com.davidrandoll.spring_web_captor.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Rows waiting to be handed to {@link INetworkLogStore#saveAll} in batches. A batch is written once
+ * {@code batchSize} rows are waiting or the oldest of them has waited {@code flushInterval},
+ * whichever comes first.
+ *
+ * <p>Rows are kept by request id, so the response phase can take back its request row before it was
+ * written and the exchange still ends up as one row. A row already handed to the store is waited
+ * for instead, so that the response finds it in the store rather than writing a second one. The
+ * buffer is bounded: once {@code capacity} rows are waiting, {@link #add} refuses new ones and the
+ * caller saves them itself.</p>
+ *
+ * <p>When {@link INetworkLogStore#saveAll} fails, the rows of the batch are saved one by one, so
+ * that one bad row does not cost the others.</p>
+ */
+@Slf4j
+final class WriteBehindBuffer implements AutoCloseable {
+    private final INetworkLogStore store;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final int capacity;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition batchReady = lock.newCondition();
+    private final Condition batchWritten = lock.newCondition();
+    // guarded by lock; rows without a request id are kept under a key of their own
+    private Map<Object, INetworkLog> rows = new LinkedHashMap<>();
+    // guarded by lock; the rows being written, by the flusher or by close
+    private Map<Object, INetworkLog> inFlight = Map.of();
+    private long oldestNanos;
+    private boolean closed;
+
+    private final Thread flusher;
+
+    WriteBehindBuffer(INetworkLogStore store, int batchSize, Duration flushInterval, int capacity) {
+        this.store = store;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalNanos = Math.max(1, flushInterval.toNanos());
+        this.capacity = capacity;
+        this.flusher = new Thread(this::run, "network-log-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Queues the row for the next batch, replacing a row of the same request still waiting.
+     *
+     * @return {@code false} when the buffer is full or closed and the row was not queued
+     */
+    boolean add(INetworkLog networkLog) {
+        lock.lock();
+        try {
+            if (closed || rows.size() >= capacity) return false;
+            if (rows.isEmpty()) oldestNanos = System.nanoTime();
+            rows.put(networkLog.getRequestId() != null ? networkLog.getRequestId() : new Object(), networkLog);
+            if (rows.size() >= batchSize) batchReady.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes back the row of {@code requestId} if it has not been written yet. If it is being written,
+     * waits until it is, so that the store has it once this returns {@code null}.
+     */
+    @Nullable
+    INetworkLog remove(String requestId) {
+        lock.lock();
+        try {
+            INetworkLog row = rows.remove(requestId);
+            if (row != null) return row;
+            while (inFlight.containsKey(requestId)) {
+                batchWritten.awaitUninterruptibly();
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void run() {
+        while (true) {
+            List<INetworkLog> batch;
+            lock.lock();
+            try {
+                long waitNanos;
+                while (!closed && (waitNanos = nanosUntilFlush()) > 0) {
+                    batchReady.awaitNanos(waitNanos);
+                }
+                if (closed) return;
+                batch = drain();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+            writeInFlight(batch);
+        }
+    }
+
+    /**
+     * How long until the waiting rows are due; {@code 0} when they are.
+     */
+    private long nanosUntilFlush() {
+        if (rows.isEmpty()) return flushIntervalNanos;
+        if (rows.size() >= batchSize) return 0;
+        return Math.max(0, oldestNanos + flushIntervalNanos - System.nanoTime());
+    }
+
+    /**
+     * Takes the waiting rows, which stay visible to {@link #remove} as in flight until written.
+     */
+    private List<INetworkLog> drain() {
+        List<INetworkLog> batch = new ArrayList<>(rows.values());
+        inFlight = rows;
+        rows = new LinkedHashMap<>();
+        return batch;
+    }
+
+    private void writeInFlight(List<INetworkLog> rows) {
+        try {
+            write(rows);
+        } finally {
+            lock.lock();
+            try {
+                inFlight = Map.of();
+                batchWritten.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void write(List<INetworkLog> rows) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<INetworkLog> batch = rows.subList(from, Math.min(rows.size(), from + batchSize));
+            try {
+                store.saveAll(batch);
+            } catch (Exception e) {
+                log.warn("Failed to persist a batch of {} network logs, saving them one by one: {}", batch.size(), e.getMessage());
+                saveEach(batch);
+            }
+        }
+    }
+
+    private void saveEach(List<INetworkLog> batch) {
+        for (INetworkLog row : batch) {
+            try {
+                store.save(row);
+            } catch (Exception e) {
+                log.error("Failed to persist network log {}: {}", row.getRequestId(), e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Stops the flusher and writes whatever is still waiting.
+     */
+    @Override
+    public void close() {
+        List<INetworkLog> remaining;
+        lock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            batchReady.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            remaining = drain();
+        } finally {
+            lock.unlock();
+        }
+        writeInFlight(remaining);
+    }
+}
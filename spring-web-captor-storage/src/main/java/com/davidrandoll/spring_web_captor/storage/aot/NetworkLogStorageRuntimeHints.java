@@ -12,7 +12,7 @@ import org.springframework.lang.Nullable;
  * <p>The persisted {@code INetworkLog} implementation is supplied by the consumer (typically a JPA entity or
  * document) and is registered by the consumer's own AOT processing — the library cannot know that type. What
  * the library owns and must guarantee binds under native is {@link NetworkLogProperties} and its nested
- * {@code CaptureRule}; this is normally handled by Spring Boot's {@code @ConfigurationProperties} AOT support,
+ * {@code CaptureRule}, {@code TailCapture}, {@code WriteBehind} and {@code Workers}; this is normally handled by Spring Boot's {@code @ConfigurationProperties} AOT support,
  * registered here as well so binding holds even outside standard auto-configuration.</p>
  */
 public class NetworkLogStorageRuntimeHints implements RuntimeHintsRegistrar {
@@ -23,6 +23,9 @@ public class NetworkLogStorageRuntimeHints implements RuntimeHintsRegistrar {
     public void registerHints(RuntimeHints hints, @Nullable ClassLoader classLoader) {
         bindingRegistrar.registerReflectionHints(hints.reflection(),
                 NetworkLogProperties.class,
-                NetworkLogProperties.CaptureRule.class);
+                NetworkLogProperties.CaptureRule.class,
+                NetworkLogProperties.TailCapture.class,
+                NetworkLogProperties.WriteBehind.class,
+                NetworkLogProperties.Workers.class);
     }
 }
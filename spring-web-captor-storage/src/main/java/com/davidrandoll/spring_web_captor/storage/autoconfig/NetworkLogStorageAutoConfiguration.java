@@ -5,6 +5,7 @@ import com.davidrandoll.spring_web_captor.storage.NetworkLogEnricher;
 import com.davidrandoll.spring_web_captor.storage.NetworkLogEventListener;
 import com.davidrandoll.spring_web_captor.storage.NetworkLogHttpEventExtension;
 import com.davidrandoll.spring_web_captor.storage.NetworkLogProperties;
+import com.davidrandoll.spring_web_captor.storage.NetworkLogWorkers;
 import com.davidrandoll.spring_web_captor.storage.RequestIdProvider;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
@@ -14,7 +15,6 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.annotation.EnableAsync;
 
 import java.util.List;
 
@@ -22,7 +22,6 @@ import java.util.List;
 @ConditionalOnClass(name = "com.davidrandoll.spring_web_captor.event.HttpRequestEvent")
 @ConditionalOnProperty(prefix = "network-log", name = "enabled", havingValue = "true", matchIfMissing = true)
 @EnableConfigurationProperties(NetworkLogProperties.class)
-@EnableAsync
 public class NetworkLogStorageAutoConfiguration {
 
     @Bean
@@ -37,13 +36,21 @@ public class NetworkLogStorageAutoConfiguration {
         return new NetworkLogHttpEventExtension(requestIdProvider);
     }
 
+    @Bean
+    @ConditionalOnBean(INetworkLogStore.class)
+    @ConditionalOnMissingBean
+    public NetworkLogWorkers networkLogExecutor(NetworkLogProperties properties) {
+        return new NetworkLogWorkers(properties.getWorkers());
+    }
+
     @Bean
     @ConditionalOnBean(INetworkLogStore.class)
     @ConditionalOnMissingBean
     public NetworkLogEventListener networkLogEventListener(INetworkLogStore store,
                                                            NetworkLogProperties properties,
                                                            ObjectMapper objectMapper,
-                                                           List<NetworkLogEnricher> enrichers) {
-        return new NetworkLogEventListener(store, properties, objectMapper, enrichers);
+                                                           List<NetworkLogEnricher> enrichers,
+                                                           NetworkLogWorkers workers) {
+        return new NetworkLogEventListener(store, properties, objectMapper, enrichers, workers);
     }
 }
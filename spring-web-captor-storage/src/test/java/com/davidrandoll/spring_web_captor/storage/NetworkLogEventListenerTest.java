@@ -14,10 +14,12 @@ import org.springframework.http.HttpStatus;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static com.davidrandoll.spring_web_captor.storage.NetworkLogHttpEventExtension.REQUEST_ID_KEY;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -291,9 +293,198 @@ class NetworkLogEventListenerTest {
         assertThat(store.size()).isZero();
     }
 
+    @Test
+    void tailCaptureWritesKeptExchangeOnce() {
+        properties.getTailCapture().setEnabled(true);
+        List<String> calls = new ArrayList<>();
+        CountingStore counting = new CountingStore(calls);
+        NetworkLogEventListener tail = new NetworkLogEventListener(counting, properties, objectMapper, enrichers);
+
+        tail.onHttpRequest(requestBuilder().build());
+        assertThat(calls).isEmpty();
+
+        tail.onHttpResponse(HttpResponseEvent.builder()
+                .path("/api/things/42")
+                .responseStatus(HttpStatus.OK)
+                .responseHeaders(new HttpHeaders())
+                .additionalData(REQUEST_ID_KEY, RID)
+                .build());
+
+        assertThat(calls).containsExactly("save");
+        INetworkLog saved = counting.findByRequestId(RID).orElseThrow();
+        assertThat(saved.getMethod()).isEqualTo("GET");
+        assertThat(saved.getRequestHeaders().get("Authorization")).isEqualTo("[REDACTED]");
+        assertThat(saved.getResponseStatus()).isEqualTo(200);
+        tail.destroy();
+    }
+
+    @Test
+    void tailCaptureDropsRejectedExchangeWithoutTouchingTheStore() {
+        properties.getTailCapture().setEnabled(true);
+        properties.setCaptureStatuses(List.of(">=500"));
+        List<String> calls = new ArrayList<>();
+        NetworkLogEventListener tail = new NetworkLogEventListener(new CountingStore(calls), properties, objectMapper, enrichers);
+
+        tail.onHttpRequest(requestBuilder().build());
+        tail.onHttpResponse(HttpResponseEvent.builder()
+                .path("/api/things/42")
+                .responseStatus(HttpStatus.OK)
+                .additionalData(REQUEST_ID_KEY, RID)
+                .build());
+
+        assertThat(calls).isEmpty();
+        tail.destroy();
+    }
+
+    @Test
+    void tailCaptureAssemblesTheRequestOnlyForKeptExchanges() {
+        properties.getTailCapture().setEnabled(true);
+        properties.setCaptureStatuses(List.of(">=500"));
+        List<String> calls = new ArrayList<>();
+        enrichers.add((log, event) -> calls.add(event.getClass().getSimpleName()));
+
+        listener.onHttpRequest(requestBuilder().build());
+        listener.onHttpResponse(HttpResponseEvent.builder()
+                .path("/api/things/42")
+                .responseStatus(HttpStatus.OK)
+                .additionalData(REQUEST_ID_KEY, RID)
+                .build());
+        assertThat(calls).isEmpty();
+
+        listener.onHttpRequest(requestBuilder().additionalData(REQUEST_ID_KEY, "req-500").build());
+        listener.onHttpResponse(HttpResponseEvent.builder()
+                .path("/api/things/42")
+                .responseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+                .additionalData(REQUEST_ID_KEY, "req-500")
+                .build());
+        listener.destroy();
+
+        assertThat(calls).containsExactly("HttpRequestEvent", "HttpResponseEvent");
+        assertThat(store.findByRequestId(RID)).isEmpty();
+        assertThat(store.findByRequestId("req-500").orElseThrow().getRequestHeaders())
+                .containsEntry("Authorization", "[REDACTED]");
+    }
+
+    @Test
+    void tailCaptureDropsRequestArrivingAfterItsResponse() {
+        properties.getTailCapture().setEnabled(true);
+
+        listener.onHttpResponse(HttpResponseEvent.builder()
+                .path("/api/things/42")
+                .responseStatus(HttpStatus.CREATED)
+                .additionalData(REQUEST_ID_KEY, RID)
+                .build());
+        listener.onHttpRequest(requestBuilder().build());
+        listener.destroy();
+
+        assertThat(store.findByRequestId(RID).orElseThrow().getResponseStatus()).isEqualTo(201);
+    }
+
+    @Test
+    void tailCaptureWritesHeldRequestsOnShutdown() {
+        properties.getTailCapture().setEnabled(true);
+        listener.onHttpRequest(requestBuilder().build());
+        assertThat(store.size()).isZero();
+
+        listener.destroy();
+
+        INetworkLog saved = store.findByRequestId(RID).orElseThrow();
+        assertThat(saved.getPath()).isEqualTo("/api/things/42");
+        assertThat(saved.getResponseStatus()).isNull();
+    }
+
+    @Test
+    void tailCaptureWritesStraightAwayWhenTheTableIsFull() {
+        properties.getTailCapture().setEnabled(true);
+        properties.getTailCapture().setMaxPending(0);
+
+        listener.onHttpRequest(requestBuilder().build());
+
+        assertThat(store.findByRequestId(RID)).isPresent();
+        listener.destroy();
+    }
+
+    @Test
+    void writeBehindJoinsABufferedRequestWithItsResponse() {
+        properties.getWriteBehind().setEnabled(true);
+        properties.getWriteBehind().setFlushInterval(Duration.ofMinutes(1));
+        List<String> calls = new ArrayList<>();
+        CountingStore counting = new CountingStore(calls);
+        NetworkLogEventListener batched = new NetworkLogEventListener(counting, properties, objectMapper, enrichers);
+
+        batched.onHttpRequest(requestBuilder().build());
+        batched.onHttpResponse(HttpResponseEvent.builder()
+                .path("/api/things/42")
+                .responseStatus(HttpStatus.OK)
+                .additionalData(REQUEST_ID_KEY, RID)
+                .build());
+        assertThat(calls).isEmpty();
+
+        batched.destroy();
+
+        assertThat(calls).containsExactly("saveAll", "save");
+        INetworkLog saved = counting.findByRequestId(RID).orElseThrow();
+        assertThat(saved.getMethod()).isEqualTo("GET");
+        assertThat(saved.getResponseStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void workersPersistTheResponseAfterItsRequest() {
+        List<String> calls = new ArrayList<>();
+        CountingStore counting = new CountingStore(calls);
+        NetworkLogEventListener ordered = new NetworkLogEventListener(counting, properties, objectMapper, enrichers,
+                new NetworkLogWorkers(new NetworkLogProperties.Workers()));
+
+        ordered.onHttpRequest(requestBuilder().build());
+        ordered.onHttpResponse(HttpResponseEvent.builder()
+                .path("/api/things/42")
+                .responseStatus(HttpStatus.OK)
+                .additionalData(REQUEST_ID_KEY, RID)
+                .build());
+        ordered.destroy();
+
+        assertThat(calls).containsExactly("save", "find", "save");
+        assertThat(counting.findByRequestId(RID).orElseThrow().getMethod()).isEqualTo("GET");
+    }
+
     private static Map<String, Object> merge(Map<String, Object> existing, String k, Object v) {
         Map<String, Object> m = existing == null ? new HashMap<>() : new HashMap<>(existing);
         m.put(k, v);
         return m;
     }
+
+    /**
+     * Records every store call besides {@code newInstance}.
+     */
+    private static class CountingStore extends InMemoryNetworkLogStore {
+        private final List<String> calls;
+
+        CountingStore(List<String> calls) {
+            this.calls = calls;
+        }
+
+        @Override
+        public void save(INetworkLog log) {
+            calls.add("save");
+            super.save(log);
+        }
+
+        @Override
+        public void saveAll(List<INetworkLog> logs) {
+            calls.add("saveAll");
+            super.saveAll(logs);
+        }
+
+        @Override
+        public Optional<INetworkLog> findByRequestId(String requestId) {
+            calls.add("find");
+            return super.findByRequestId(requestId);
+        }
+
+        @Override
+        public void deleteByRequestId(String requestId) {
+            calls.add("delete");
+            super.deleteByRequestId(requestId);
+        }
+    }
 }
@@ -0,0 +1,153 @@
+package com.davidrandoll.spring_web_captor.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NetworkLogWorkersTest {
+
+    @Test
+    void tasksOfOneRequestRunInOrderOnOneThread() {
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        List<String> threads = new CopyOnWriteArrayList<>();
+        NetworkLogWorkers workers = new NetworkLogWorkers(settings(4, 1000, NetworkLogProperties.RejectionPolicy.CALLER_RUNS));
+
+        for (int i = 0; i < 100; i++) {
+            int step = i;
+            workers.execute("req-1", false, () -> {
+                order.add(step);
+                threads.add(Thread.currentThread().getName());
+            });
+        }
+        workers.close();
+
+        assertThat(order).containsExactlyElementsOf(IntStream.range(0, 100).boxed().toList());
+        assertThat(threads).containsOnly(threads.get(0));
+    }
+
+    @Test
+    void requestIdsAreSpreadOverThePartitions() {
+        NetworkLogWorkers workers = new NetworkLogWorkers(settings(4, 1000, NetworkLogProperties.RejectionPolicy.CALLER_RUNS));
+        try {
+            assertThat(IntStream.range(0, 1000).map(i -> workers.partitionOf("req-" + i)).distinct().count())
+                    .isEqualTo(4);
+            assertThat(workers.partitionOf("req-7")).isEqualTo(workers.partitionOf("req-7"));
+        } finally {
+            workers.close();
+        }
+    }
+
+    @Test
+    void dropPolicyDropsTasksBeyondTheQueue() throws InterruptedException {
+        NetworkLogWorkers workers = new NetworkLogWorkers(settings(1, 1, NetworkLogProperties.RejectionPolicy.DROP));
+        List<String> ran = new CopyOnWriteArrayList<>();
+        CountDownLatch release = block(workers);
+
+        workers.execute("a", false, () -> ran.add("queued"));
+        workers.execute("a", false, () -> ran.add("dropped"));
+
+        assertThat(workers.getQueueDepth()).isEqualTo(1);
+        assertThat(workers.getActiveWorkers()).isEqualTo(1);
+        assertThat(workers.getRejectedCount()).isEqualTo(1);
+        assertThat(workers.getDroppedCount()).isEqualTo(1);
+        release.countDown();
+        workers.close();
+        assertThat(ran).containsExactly("queued");
+    }
+
+    @Test
+    void callerRunsPolicyRunsTasksBeyondTheQueueOnTheCaller() throws InterruptedException {
+        NetworkLogWorkers workers = new NetworkLogWorkers(settings(1, 1, NetworkLogProperties.RejectionPolicy.CALLER_RUNS));
+        List<String> threads = new CopyOnWriteArrayList<>();
+        CountDownLatch release = block(workers);
+
+        workers.execute("a", false, () -> {
+        });
+        workers.execute("a", false, () -> threads.add(Thread.currentThread().getName()));
+
+        assertThat(threads).containsExactly(Thread.currentThread().getName());
+        assertThat(workers.getRejectedCount()).isEqualTo(1);
+        release.countDown();
+        workers.close();
+    }
+
+    @Test
+    void dropSuccessOnlyPolicyDropsOnlyDroppableTasks() throws InterruptedException {
+        NetworkLogWorkers workers = new NetworkLogWorkers(settings(1, 1, NetworkLogProperties.RejectionPolicy.DROP_SUCCESS_ONLY));
+        List<String> ran = new CopyOnWriteArrayList<>();
+        CountDownLatch release = block(workers);
+
+        workers.execute("a", false, () -> ran.add("first"));
+        workers.execute("a", true, () -> ran.add("success"));
+        assertThat(workers.getDroppedCount()).isEqualTo(1);
+
+        Thread releaser = new Thread(() -> {
+            sleep();
+            release.countDown();
+        });
+        releaser.start();
+        // waits for room behind the first task
+        workers.execute("a", false, () -> ran.add("error"));
+        workers.close();
+
+        assertThat(ran).containsExactly("first", "error");
+    }
+
+    @Test
+    void dropSuccessOnlyPolicyDropsErrorResponsesThatWaitTooLong() throws InterruptedException {
+        NetworkLogProperties.Workers settings = settings(1, 1, NetworkLogProperties.RejectionPolicy.DROP_SUCCESS_ONLY);
+        settings.setMaxWait(Duration.ofMillis(50));
+        NetworkLogWorkers workers = new NetworkLogWorkers(settings);
+        List<String> ran = new CopyOnWriteArrayList<>();
+        CountDownLatch release = block(workers);
+
+        workers.execute("a", false, () -> ran.add("first"));
+        workers.execute("a", false, () -> ran.add("error"));
+
+        assertThat(workers.getDroppedCount()).isEqualTo(1);
+        release.countDown();
+        workers.close();
+        assertThat(ran).containsExactly("first");
+    }
+
+    /**
+     * Keeps the only worker busy until the returned latch is released.
+     */
+    private static CountDownLatch block(NetworkLogWorkers workers) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        workers.execute("a", false, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        started.await();
+        return release;
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static NetworkLogProperties.Workers settings(int partitions, int queueCapacity,
+                                                         NetworkLogProperties.RejectionPolicy policy) {
+        NetworkLogProperties.Workers settings = new NetworkLogProperties.Workers();
+        settings.setPartitions(partitions);
+        settings.setQueueCapacity(queueCapacity);
+        settings.setRejectionPolicy(policy);
+        return settings;
+    }
+}
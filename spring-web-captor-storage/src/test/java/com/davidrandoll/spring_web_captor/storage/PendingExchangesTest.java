@@ -0,0 +1,108 @@
+package com.davidrandoll.spring_web_captor.storage;
+
+import com.davidrandoll.spring_web_captor.storage.support.TestNetworkLog;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PendingExchangesTest {
+
+    private final List<INetworkLog> expired = new CopyOnWriteArrayList<>();
+
+    @Test
+    void completedRequestIsTakenAndNeverExpires() throws InterruptedException {
+        try (PendingExchanges<INetworkLog> pending = new PendingExchanges<>(10, Duration.ofMillis(20), Duration.ofMillis(20), Duration.ofMillis(5), expired::add)) {
+            INetworkLog log = row("a");
+            assertThat(pending.hold("a", log)).isTrue();
+
+            assertThat(pending.complete("a")).isSameAs(log);
+            assertThat(pending.complete("a")).isNull();
+
+            awaitEmpty(pending);
+            assertThat(expired).isEmpty();
+        }
+    }
+
+    @Test
+    void unmatchedRequestExpiresThroughTheCallback() throws InterruptedException {
+        try (PendingExchanges<INetworkLog> pending = new PendingExchanges<>(10, Duration.ofMillis(20), Duration.ofMillis(20), Duration.ofMillis(5), expired::add)) {
+            INetworkLog log = row("a");
+            pending.hold("a", log);
+
+            awaitEmpty(pending);
+            assertThat(expired).containsExactly(log);
+        }
+    }
+
+    @Test
+    void requestAfterItsResponseIsDropped() throws InterruptedException {
+        try (PendingExchanges<INetworkLog> pending = new PendingExchanges<>(10, Duration.ofMillis(20), Duration.ofMillis(20), Duration.ofMillis(5), expired::add)) {
+            assertThat(pending.complete("a")).isNull();
+            assertThat(pending.hold("a", row("a"))).isTrue();
+
+            awaitEmpty(pending);
+            assertThat(expired).isEmpty();
+        }
+    }
+
+    @Test
+    void refusesRequestsBeyondItsBound() {
+        try (PendingExchanges<INetworkLog> pending = new PendingExchanges<>(1, Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofMillis(100), expired::add)) {
+            assertThat(pending.hold("a", row("a"))).isTrue();
+            assertThat(pending.hold("b", row("b"))).isFalse();
+        }
+        // closing hands over what was still held
+        assertThat(expired).extracting(INetworkLog::getRequestId).containsExactly("a");
+    }
+
+    @Test
+    void markersDoNotTakeTheRoomOfHeldRequests() {
+        try (PendingExchanges<INetworkLog> pending = new PendingExchanges<>(1, Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofMillis(100), expired::add)) {
+            assertThat(pending.hold("a", row("a"))).isTrue();
+            assertThat(pending.complete("a")).isNotNull();
+
+            assertThat(pending.hold("b", row("b"))).isTrue();
+            assertThat(pending.heldCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void markersBeyondTheirBoundAreNotLeft() {
+        try (PendingExchanges<INetworkLog> pending = new PendingExchanges<>(1, Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofMillis(100), expired::add)) {
+            pending.complete("a");
+            pending.complete("b");
+
+            assertThat(pending.size()).isEqualTo(1);
+            // no marker was left for b, so its late request is held again
+            assertThat(pending.hold("b", row("b"))).isTrue();
+            assertThat(pending.heldCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void markersExpireBeforeHeldRequests() throws InterruptedException {
+        try (PendingExchanges<INetworkLog> pending = new PendingExchanges<>(10, Duration.ofMinutes(1), Duration.ofMillis(20), Duration.ofMillis(5), expired::add)) {
+            pending.complete("a");
+
+            awaitEmpty(pending);
+            assertThat(expired).isEmpty();
+        }
+    }
+
+    private static INetworkLog row(String requestId) {
+        return new TestNetworkLog().setRequestId(requestId);
+    }
+
+    private static void awaitEmpty(PendingExchanges<?> pending) throws InterruptedException {
+        Instant deadline = Instant.now().plus(Duration.ofSeconds(5));
+        while (pending.size() > 0 && Instant.now().isBefore(deadline)) {
+            Thread.sleep(10);
+        }
+        assertThat(pending.size()).isZero();
+    }
+}
@@ -0,0 +1,126 @@
+package com.davidrandoll.spring_web_captor.storage;
+
+import com.davidrandoll.spring_web_captor.event.BodyPayload;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RedactionPlanTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void headersAreMatchedIgnoringCase() {
+        RedactionPlan plan = plan(List.of("X-Api-Key"), List.of());
+        Map<String, Object> headers = new HashMap<>(Map.of("x-api-key", "secret", "Accept", "*/*"));
+
+        plan.redactHeaders(headers);
+
+        assertThat(headers).containsEntry("x-api-key", "[REDACTED]").containsEntry("Accept", "*/*");
+    }
+
+    @Test
+    void mapsAreCopiedOnlyAlongThePathToARedactedKey() {
+        RedactionPlan plan = plan(List.of(), List.of("password"));
+        Map<String, Object> untouched = Map.of("name", "david");
+        Map<String, Object> nested = Map.of("password", "deep");
+        Map<String, Object> data = new HashMap<>(Map.of("user", untouched, "auth", nested,
+                "list", List.of(Map.of("password", "in-list"))));
+
+        Map<String, Object> redacted = plan.redactMap(data);
+
+        assertThat(redacted).isNotSameAs(data);
+        assertThat(redacted.get("user")).isSameAs(untouched);
+        assertThat(redacted.get("auth")).isEqualTo(Map.of("password", "[REDACTED]"));
+        assertThat(redacted.get("list")).isEqualTo(List.of(Map.of("password", "[REDACTED]")));
+        assertThat(nested).containsEntry("password", "deep");
+        assertThat(plan.redactMap(Map.of("name", "david"))).isEqualTo(Map.of("name", "david"));
+    }
+
+    @Test
+    void objectsAreSearchedThroughTheirProperties() {
+        RedactionPlan plan = plan(List.of(), List.of("password"));
+
+        Map<String, Object> redacted = plan.redactMap(Map.of("login", new Login("david", "p@ss")));
+
+        assertThat(redacted.get("login")).isEqualTo(Map.of("username", "david", "password", "[REDACTED]"));
+    }
+
+    @Test
+    void unreadJsonBodyIsParsedIntoItsRedactedForm() {
+        RedactionPlan plan = plan(List.of(), List.of("password"));
+        byte[] raw = "{\"user\":\"david\",\"password\":{\"v\":[1,2]},\"items\":[{\"password\":\"x\",\"n\":1.5}]}"
+                .getBytes(StandardCharsets.UTF_8);
+        BodyPayload payload = BodyPayload.lazy(raw, "application/json", () -> {
+            throw new AssertionError("the payload should not be parsed");
+        });
+
+        assertThat(plan.canStream(payload)).isTrue();
+        JsonNode body = plan.parseRedacted(payload);
+
+        assertThat(body.toString())
+                .isEqualTo("{\"user\":\"david\",\"password\":\"[REDACTED]\",\"items\":[{\"password\":\"[REDACTED]\",\"n\":1.5}]}");
+        assertThat(payload.isParsed()).isFalse();
+    }
+
+    @Test
+    void invalidOrNonJsonBodiesAreLeftToTheTreeWalk() {
+        RedactionPlan plan = plan(List.of(), List.of("password"));
+
+        BodyPayload broken = BodyPayload.lazy("{\"password\":".getBytes(StandardCharsets.UTF_8), "application/json", () -> null);
+        assertThat(plan.parseRedacted(broken)).isNull();
+
+        BodyPayload text = BodyPayload.lazy("password".getBytes(StandardCharsets.UTF_8), "text/plain", () -> null);
+        assertThat(plan.canStream(text)).isFalse();
+    }
+
+    @Test
+    void bodiesOfSeveralJsonValuesAreLeftToTheTreeWalk() {
+        RedactionPlan plan = plan(List.of(), List.of("password"));
+        BodyPayload ndjson = BodyPayload.lazy("{\"n\":1}\n{\"password\":\"x\"}".getBytes(StandardCharsets.UTF_8),
+                "application/x-ndjson+json", () -> null);
+
+        assertThat(plan.parseRedacted(ndjson)).isNull();
+    }
+
+    @Test
+    void treesInAdditionalDataAreCopiedNotRedactedInPlace() throws Exception {
+        RedactionPlan plan = plan(List.of(), List.of("password"));
+        JsonNode shared = objectMapper.readTree("{\"user\":{\"password\":\"x\"},\"items\":[{\"n\":1}]}");
+        JsonNode clean = objectMapper.readTree("{\"n\":1}");
+
+        Map<String, Object> redacted = plan.redactMap(Map.of("body", shared, "clean", clean));
+
+        assertThat(redacted.get("body").toString())
+                .isEqualTo("{\"user\":{\"password\":\"[REDACTED]\"},\"items\":[{\"n\":1}]}");
+        assertThat(shared.get("user").get("password").asText()).isEqualTo("x");
+        assertThat(redacted.get("clean")).isSameAs(clean);
+    }
+
+    @Test
+    void planIsTiedToTheListsItWasCompiledFrom() {
+        NetworkLogProperties properties = new NetworkLogProperties();
+        RedactionPlan plan = RedactionPlan.compile(properties, objectMapper);
+        assertThat(plan.isFor(properties)).isTrue();
+
+        properties.setRedactFields(List.of("password"));
+        assertThat(plan.isFor(properties)).isFalse();
+    }
+
+    private RedactionPlan plan(List<String> headers, List<String> fields) {
+        NetworkLogProperties properties = new NetworkLogProperties();
+        properties.setRedactHeaders(headers);
+        properties.setRedactFields(fields);
+        return RedactionPlan.compile(properties, objectMapper);
+    }
+
+    record Login(String username, String password) {
+    }
+}
@@ -0,0 +1,170 @@
+package com.davidrandoll.spring_web_captor.storage;
+
+import com.davidrandoll.spring_web_captor.storage.support.InMemoryNetworkLogStore;
+import com.davidrandoll.spring_web_captor.storage.support.TestNetworkLog;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WriteBehindBufferTest {
+
+    private final List<Integer> batches = new CopyOnWriteArrayList<>();
+    private final InMemoryNetworkLogStore store = new InMemoryNetworkLogStore() {
+        @Override
+        public void saveAll(List<INetworkLog> logs) {
+            batches.add(logs.size());
+            super.saveAll(logs);
+        }
+    };
+
+    @Test
+    void fullBatchIsWrittenWithoutWaitingForTheInterval() throws InterruptedException {
+        try (WriteBehindBuffer buffer = new WriteBehindBuffer(store, 3, Duration.ofMinutes(1), 100)) {
+            for (String id : List.of("a", "b", "c")) {
+                buffer.add(row(id));
+            }
+            awaitRows(3);
+            assertThat(batches).containsExactly(3);
+        }
+    }
+
+    @Test
+    void partialBatchIsWrittenOnceItsOldestRowIsDue() throws InterruptedException {
+        try (WriteBehindBuffer buffer = new WriteBehindBuffer(store, 500, Duration.ofMillis(20), 100)) {
+            buffer.add(row("a"));
+            buffer.add(row("b"));
+            awaitRows(2);
+            assertThat(batches).containsExactly(2);
+        }
+    }
+
+    @Test
+    void rowOfTheSameRequestReplacesTheWaitingOne() {
+        WriteBehindBuffer buffer = new WriteBehindBuffer(store, 500, Duration.ofMinutes(1), 100);
+        buffer.add(row("a"));
+        INetworkLog response = row("a").setResponseStatus(200);
+        buffer.add(response);
+
+        buffer.close();
+
+        assertThat(batches).containsExactly(1);
+        assertThat(store.findByRequestId("a")).containsSame(response);
+    }
+
+    @Test
+    void refusesRowsBeyondItsCapacityAndAfterClose() {
+        WriteBehindBuffer buffer = new WriteBehindBuffer(store, 500, Duration.ofMinutes(1), 1);
+        assertThat(buffer.add(row("a"))).isTrue();
+        assertThat(buffer.add(row("b"))).isFalse();
+        assertThat(buffer.remove("a")).isNotNull();
+
+        buffer.close();
+
+        assertThat(buffer.add(row("c"))).isFalse();
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void saveAllFallsBackToSavingEachRow() {
+        InMemoryNetworkLogStore plain = new InMemoryNetworkLogStore();
+        plain.saveAll(List.of(row("a"), row("b")));
+        assertThat(plain.size()).isEqualTo(2);
+    }
+
+    @Test
+    void removeWaitsForARowBeingWritten() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        InMemoryNetworkLogStore slow = new InMemoryNetworkLogStore() {
+            @Override
+            public void saveAll(List<INetworkLog> logs) {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.saveAll(logs);
+            }
+        };
+        try (WriteBehindBuffer buffer = new WriteBehindBuffer(slow, 1, Duration.ofMinutes(1), 100)) {
+            buffer.add(row("a"));
+            assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+            AtomicReference<Optional<INetworkLog>> found = new AtomicReference<>();
+            Thread response = new Thread(() -> {
+                assertThat(buffer.remove("a")).isNull();
+                found.set(slow.findByRequestId("a"));
+            });
+            response.start();
+            response.join(100);
+            assertThat(response.isAlive()).isTrue();
+
+            release.countDown();
+            response.join(5_000);
+            assertThat(found.get()).isPresent();
+        }
+    }
+
+    @Test
+    void failedBatchIsSavedRowByRow() {
+        InMemoryNetworkLogStore failing = new InMemoryNetworkLogStore() {
+            @Override
+            public void saveAll(List<INetworkLog> logs) {
+                throw new IllegalStateException("batch rolled back");
+            }
+
+            @Override
+            public void save(INetworkLog log) {
+                if ("b".equals(log.getRequestId())) throw new IllegalStateException("bad row");
+                super.save(log);
+            }
+        };
+        WriteBehindBuffer buffer = new WriteBehindBuffer(failing, 500, Duration.ofMinutes(1), 100);
+        for (String id : List.of("a", "b", "c")) {
+            buffer.add(row(id));
+        }
+
+        buffer.close();
+
+        assertThat(failing.findByRequestId("a")).isPresent();
+        assertThat(failing.findByRequestId("c")).isPresent();
+        assertThat(failing.size()).isEqualTo(2);
+    }
+
+    @Test
+    void defaultSaveAllKeepsGoingPastAFailingRow() {
+        InMemoryNetworkLogStore plain = new InMemoryNetworkLogStore() {
+            @Override
+            public void save(INetworkLog log) {
+                if ("a".equals(log.getRequestId())) throw new IllegalStateException("bad row");
+                super.save(log);
+            }
+        };
+
+        plain.saveAll(List.of(row("a"), row("b")));
+
+        assertThat(plain.findByRequestId("b")).isPresent();
+    }
+
+    private static INetworkLog row(String requestId) {
+        return new TestNetworkLog().setRequestId(requestId);
+    }
+
+    private void awaitRows(int expected) throws InterruptedException {
+        Instant deadline = Instant.now().plus(Duration.ofSeconds(5));
+        while (store.size() < expected && Instant.now().isBefore(deadline)) {
+            Thread.sleep(10);
+        }
+        assertThat(store.size()).isEqualTo(expected);
+    }
+}
@@ -17,9 +17,12 @@ class NetworkLogStorageRuntimeHintsTest {
     }
 
     @Test
-    @DisplayName("registers binding hints for NetworkLogProperties and its nested CaptureRule")
+    @DisplayName("registers binding hints for NetworkLogProperties and its nested types")
     void registersConfigurationProperties() {
         assertThat(RuntimeHintsPredicates.reflection().onType(NetworkLogProperties.class)).accepts(hints);
         assertThat(RuntimeHintsPredicates.reflection().onType(NetworkLogProperties.CaptureRule.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(NetworkLogProperties.TailCapture.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(NetworkLogProperties.WriteBehind.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(NetworkLogProperties.Workers.class)).accepts(hints);
     }
 }
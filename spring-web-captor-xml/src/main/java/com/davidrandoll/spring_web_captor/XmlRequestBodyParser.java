@@ -1,5 +1,6 @@
 package com.davidrandoll.spring_web_captor;
 
+import com.davidrandoll.spring_web_captor.body_parser.IRawBodyParser;
 import com.davidrandoll.spring_web_captor.body_parser.IRequestBodyParser;
 import com.davidrandoll.spring_web_captor.event.BodyPayload;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -14,7 +15,7 @@ import java.io.IOException;
 
 @RequiredArgsConstructor
 @Order(1)
-public class XmlRequestBodyParser implements IRequestBodyParser {
+public class XmlRequestBodyParser implements IRequestBodyParser, IRawBodyParser {
     private final ObjectMapper xmlMapper;
 
     @Override
@@ -24,10 +25,14 @@ public class XmlRequestBodyParser implements IRequestBodyParser {
 
     @Override
     public BodyPayload parse(ServletRequest request, byte[] body) throws IOException {
+        return new BodyPayload(parseBody(body, request.getContentType()));
+    }
+
+    @Override
+    public JsonNode parseBody(byte[] body, String contentType) throws IOException {
         if (ObjectUtils.isEmpty(body)) {
-            return new BodyPayload(JsonNodeFactory.instance.nullNode());
+            return JsonNodeFactory.instance.nullNode();
         }
-        JsonNode node = xmlMapper.readTree(body);
-        return new BodyPayload(node);
+        return xmlMapper.readTree(body);
     }
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.davidrandoll.spring_web_captor;
 
+import com.davidrandoll.spring_web_captor.body_parser.IRawBodyParser;
 import com.davidrandoll.spring_web_captor.body_parser.IResponseBodyParser;
 import com.davidrandoll.spring_web_captor.event.BodyPayload;
+import com.davidrandoll.spring_web_captor.publisher.response.ResponseBodyBuffer;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
@@ -14,7 +16,7 @@ import java.io.IOException;
 
 @RequiredArgsConstructor
 @Order(1)
-public class XmlResponseBodyParser implements IResponseBodyParser {
+public class XmlResponseBodyParser implements IResponseBodyParser, IRawBodyParser {
     private final ObjectMapper xmlMapper;
 
     @Override
@@ -24,10 +26,27 @@ public class XmlResponseBodyParser implements IResponseBodyParser {
 
     @Override
     public BodyPayload parse(HttpServletResponse response, byte[] body) throws IOException {
+        return new BodyPayload(parseBody(body, response.getContentType()));
+    }
+
+    @Override
+    public JsonNode parseBody(byte[] body, String contentType) throws IOException {
         if (ObjectUtils.isEmpty(body)) {
-            return new BodyPayload(JsonNodeFactory.instance.nullNode());
+            return JsonNodeFactory.instance.nullNode();
+        }
+        return xmlMapper.readTree(body);
+    }
+
+    @Override
+    public BodyPayload parse(HttpServletResponse response, ResponseBodyBuffer body) throws IOException {
+        return new BodyPayload(parseBody(body, response.getContentType()));
+    }
+
+    @Override
+    public JsonNode parseBody(ResponseBodyBuffer body, String contentType) throws IOException {
+        if (body.isEmpty()) {
+            return JsonNodeFactory.instance.nullNode();
         }
-        JsonNode node = xmlMapper.readTree(body);
-        return new BodyPayload(node);
+        return xmlMapper.readTree(body.toInputStream());
     }
 }
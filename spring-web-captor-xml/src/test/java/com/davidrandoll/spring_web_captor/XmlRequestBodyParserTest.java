@@ -0,0 +1,60 @@
+package com.davidrandoll.spring_web_captor;
+
+import com.davidrandoll.spring_web_captor.body_parser.registry.DefaultBodyParserRegistry;
+import com.davidrandoll.spring_web_captor.event.BodyPayload;
+import com.davidrandoll.spring_web_captor.properties.WebCaptorProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class XmlRequestBodyParserTest {
+    private static final byte[] BODY = "<user><name>David</name></user>".getBytes(StandardCharsets.UTF_8);
+
+    private final XmlRequestBodyParser parser = new XmlRequestBodyParser(new XmlMapper());
+
+    @Test
+    void parsesTheRequestBody() throws IOException {
+        var payload = parser.parse(xmlRequest(), BODY);
+
+        assertThat(payload.getBody().get("name").asText()).isEqualTo("David");
+    }
+
+    @Test
+    void emptyBodyIsANullBody() throws IOException {
+        assertThat(parser.parseBody(new byte[0], "application/xml").isNull()).isTrue();
+    }
+
+    @Test
+    void registryDefersTheParseUntilTheBodyIsRead() {
+        var registry = new DefaultBodyParserRegistry(new ObjectMapper(), new WebCaptorProperties.EventDetails());
+        registry.register(parser);
+
+        BodyPayload payload = registry.parseRequest(xmlRequest(), BODY);
+
+        assertThat(payload.isParsed()).isFalse();
+        assertThat(payload.getBody().get("name").asText()).isEqualTo("David");
+        assertThat(payload.isParsed()).isTrue();
+    }
+
+    @Test
+    void invalidXmlFallsBackToText() {
+        var registry = new DefaultBodyParserRegistry(new ObjectMapper(), new WebCaptorProperties.EventDetails());
+        registry.register(parser);
+
+        BodyPayload payload = registry.parseRequest(xmlRequest(), "<user>".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(payload.getBody().asText()).isEqualTo("<user>");
+    }
+
+    private static MockHttpServletRequest xmlRequest() {
+        var request = new MockHttpServletRequest();
+        request.setContentType("application/xml");
+        return request;
+    }
+}
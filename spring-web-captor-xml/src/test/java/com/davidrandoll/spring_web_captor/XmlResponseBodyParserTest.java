@@ -0,0 +1,70 @@
+package com.davidrandoll.spring_web_captor;
+
+import com.davidrandoll.spring_web_captor.body_parser.registry.DefaultBodyParserRegistry;
+import com.davidrandoll.spring_web_captor.event.BodyPayload;
+import com.davidrandoll.spring_web_captor.properties.WebCaptorProperties;
+import com.davidrandoll.spring_web_captor.publisher.response.ByteChunkPool;
+import com.davidrandoll.spring_web_captor.publisher.response.ResponseBodyBuffer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class XmlResponseBodyParserTest {
+    private final XmlResponseBodyParser parser = new XmlResponseBodyParser(new XmlMapper());
+
+    @Test
+    void parsesABufferSpanningSeveralChunks() throws IOException {
+        var buffer = new ResponseBodyBuffer(new ByteChunkPool(8, 4));
+        buffer.write("<response><message>Hello</message><count>3</count></response>".getBytes(StandardCharsets.UTF_8));
+
+        var payload = parser.parse(xmlResponse(), buffer);
+
+        assertThat(payload.getBody().get("message").asText()).isEqualTo("Hello");
+        assertThat(payload.getBody().get("count").asText()).isEqualTo("3");
+    }
+
+    @Test
+    void emptyBufferIsANullBody() throws IOException {
+        var buffer = new ResponseBodyBuffer(new ByteChunkPool(8, 4));
+
+        var payload = parser.parse(xmlResponse(), buffer);
+
+        assertThat(payload.getBody().isNull()).isTrue();
+    }
+
+    @Test
+    void parsesTheResponseBytes() throws IOException {
+        var payload = parser.parse(xmlResponse(), "<response><message>Hello</message></response>".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(payload.getBody().get("message").asText()).isEqualTo("Hello");
+    }
+
+    @Test
+    void registryParsesTheBufferChunksOnFirstRead() throws IOException {
+        var registry = new DefaultBodyParserRegistry(new ObjectMapper(), new WebCaptorProperties.EventDetails());
+        registry.register(parser);
+        var pool = new ByteChunkPool(8, 16);
+        var buffer = new ResponseBodyBuffer(pool);
+        buffer.write("<response><message>Hello</message></response>".getBytes(StandardCharsets.UTF_8));
+
+        BodyPayload payload = registry.parseResponse(xmlResponse(), buffer);
+        buffer.release();
+        buffer.write("<overwritten/>".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(payload.isParsed()).isFalse();
+        assertThat(payload.getBody().get("message").asText()).isEqualTo("Hello");
+        assertThat(pool.getPooledChunks()).isEqualTo(6);
+    }
+
+    private static MockHttpServletResponse xmlResponse() {
+        var response = new MockHttpServletResponse();
+        response.setContentType("application/xml");
+        return response;
+    }
+}
@@ -0,0 +1,127 @@
+package com.davidrandoll.spring_web_captor.benchmark;
+
+import com.davidrandoll.spring_web_captor.publisher.request.CachedBodyServletInputStream;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares re-reading a cached request body through {@link CachedBodyServletInputStream} against the
+ * previous stream, which only overrode the single-byte {@code read()}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CachedBodyInputStreamBenchmark {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Param({"1024", "65536", "8388608"})
+    private int bodySize;
+
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        body = jsonBody(bodySize);
+    }
+
+    @Benchmark
+    public byte[] readAllBytesSingleByte() throws IOException {
+        return new SingleByteServletInputStream(body).readAllBytes();
+    }
+
+    @Benchmark
+    public byte[] readAllBytesBulk() throws IOException {
+        return new CachedBodyServletInputStream(body).readAllBytes();
+    }
+
+    @Benchmark
+    public long transferToSingleByte() throws IOException {
+        return new SingleByteServletInputStream(body).transferTo(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public long transferToBulk() throws IOException {
+        return new CachedBodyServletInputStream(body).transferTo(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public JsonNode jacksonSingleByte() throws IOException {
+        return MAPPER.readTree(new SingleByteServletInputStream(body));
+    }
+
+    @Benchmark
+    public JsonNode jacksonBulk() throws IOException {
+        return MAPPER.readTree(new CachedBodyServletInputStream(body));
+    }
+
+    /**
+     * A JSON array of small objects, padded to exactly {@code size} bytes.
+     */
+    private static byte[] jsonBody(int size) {
+        var json = new StringBuilder(size).append('[');
+        String item = "{\"id\":1,\"name\":\"captor\"}";
+        while (json.length() + item.length() + 2 < size) {
+            if (json.length() > 1) json.append(',');
+            json.append(item);
+        }
+        json.append(']');
+        while (json.length() < size) json.append(' ');
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The stream as it was before the bulk read path: every read goes through {@code read()}.
+     */
+    private static class SingleByteServletInputStream extends ServletInputStream {
+        private final InputStream cachedBodyInputStream;
+
+        SingleByteServletInputStream(byte[] cachedBody) {
+            this.cachedBodyInputStream = new ByteArrayInputStream(cachedBody);
+        }
+
+        @Override
+        public int read() throws IOException {
+            return cachedBodyInputStream.read();
+        }
+
+        @Override
+        public boolean isFinished() {
+            try {
+                return cachedBodyInputStream.available() == 0;
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CachedBodyInputStreamBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
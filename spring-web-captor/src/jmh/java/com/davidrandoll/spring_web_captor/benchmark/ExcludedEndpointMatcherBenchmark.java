@@ -0,0 +1,100 @@
+package com.davidrandoll.spring_web_captor.benchmark;
+
+import com.davidrandoll.spring_web_captor.event.HttpMethodEnum;
+import com.davidrandoll.spring_web_captor.properties.WebCaptorProperties;
+import com.davidrandoll.spring_web_captor.publish_conditions.ExcludedEndpointMatcher;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deciding whether a request is excluded with 80 rules: the compiled matcher, with and without its
+ * decision cache, against matching every rule with {@link AntPathMatcher} and re-parsing its
+ * methods on each call, as the condition did before.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExcludedEndpointMatcherBenchmark {
+    private static final int RULES = 80;
+
+    private final String[] paths = {
+            "/api/v3/orders/1234/items", "/api/v1/service7/status", "/actuator/health", "/public/docs/index.html"
+    };
+
+    private List<WebCaptorProperties.ExcludedRequest> rules;
+    private ExcludedEndpointMatcher cached;
+    private ExcludedEndpointMatcher uncached;
+    private AntPathMatcher antMatcher;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        rules = new ArrayList<>();
+        for (int i = 0; i < RULES; i++) {
+            rules.add(rule(i % 3 == 0 ? "GET, POST" : "*", switch (i % 4) {
+                case 0 -> "/api/v1/service" + i + "/**";
+                case 1 -> "/internal/job" + i + "/*";
+                case 2 -> "/static/bundle" + i + "/*.js";
+                default -> "/api/v2/legacy" + i + "/{id}";
+            }));
+        }
+        rules.add(rule("*", "/actuator/**"));
+        antMatcher = new AntPathMatcher();
+        cached = new ExcludedEndpointMatcher(rules, antMatcher, 1024);
+        uncached = new ExcludedEndpointMatcher(rules, antMatcher, 0);
+    }
+
+    @Benchmark
+    public boolean compiledCached() {
+        return cached.isExcluded("GET", nextPath());
+    }
+
+    @Benchmark
+    public boolean compiledUncached() {
+        return uncached.isExcluded("GET", nextPath());
+    }
+
+    @Benchmark
+    public boolean antPerRule() {
+        String path = nextPath();
+        HttpMethodEnum method = HttpMethodEnum.fromValue("GET");
+        return rules.stream().anyMatch(rule -> toMethods(rule.getMethod()).contains(method) && antMatcher.match(rule.getPath(), path));
+    }
+
+    private String nextPath() {
+        return paths[next++ & (paths.length - 1)];
+    }
+
+    private static List<HttpMethodEnum> toMethods(String method) {
+        String cleaned = method.replaceAll("\\s*", "").replaceAll("^,|,$", "").trim();
+        if ("*".equals(cleaned)) return List.of(HttpMethodEnum.values());
+        List<HttpMethodEnum> methods = new ArrayList<>();
+        for (String part : cleaned.split(",")) {
+            methods.add(HttpMethodEnum.fromValue(part));
+        }
+        return methods;
+    }
+
+    private static WebCaptorProperties.ExcludedRequest rule(String method, String path) {
+        var rule = new WebCaptorProperties.ExcludedRequest();
+        rule.setMethod(method);
+        rule.setPath(path);
+        return rule;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ExcludedEndpointMatcherBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,124 @@
+package com.davidrandoll.spring_web_captor.benchmark;
+
+import com.davidrandoll.spring_web_captor.event.HttpRequestEvent;
+import com.davidrandoll.spring_web_captor.event.HttpResponseEvent;
+import com.davidrandoll.spring_web_captor.field_captor.IRequestFieldCaptor;
+import com.davidrandoll.spring_web_captor.field_captor.IResponseFieldCaptor;
+import com.davidrandoll.spring_web_captor.field_captor.registry.AbstractFieldCaptorRegistry;
+import com.davidrandoll.spring_web_captor.field_captor.registry.IFieldCaptorRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.core.annotation.Order;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request-capture throughput of the registry with the compiled captor array against the previous
+ * registry, which sorted the captors by {@code @Order} on every exchange. Runs with several threads
+ * so the two are compared under contention.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class FieldCaptorRegistryBenchmark {
+    private static final int CAPTORS_PER_TYPE = 3;
+
+    private IFieldCaptorRegistry compiled;
+    private IFieldCaptorRegistry sortedPerCall;
+    private HttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        compiled = new AbstractFieldCaptorRegistry() {
+        };
+        sortedPerCall = new SortingRegistry();
+        // the default registry holds eight request captors with a mix of @Order values
+        for (int i = 0; i < CAPTORS_PER_TYPE; i++) {
+            for (IFieldCaptorRegistry registry : List.of(compiled, sortedPerCall)) {
+                registry.register(new EarlyCaptor());
+                registry.register(new LateCaptor());
+                registry.register((IRequestFieldCaptor) (req, builder) -> builder.endpointCalled(true));
+            }
+        }
+        request = new MockHttpServletRequest("GET", "/users/42");
+    }
+
+    @Benchmark
+    public Object compiledSnapshot() {
+        return compiled.capture(request, HttpRequestEvent.builder());
+    }
+
+    @Benchmark
+    public Object sortedPerCall() {
+        return sortedPerCall.capture(request, HttpRequestEvent.builder());
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    static class EarlyCaptor implements IRequestFieldCaptor {
+        @Override
+        public void capture(HttpServletRequest request, HttpRequestEvent.HttpRequestEventBuilder<?, ?> builder) {
+            builder.path(request.getRequestURI());
+        }
+    }
+
+    @Order(100)
+    static class LateCaptor implements IRequestFieldCaptor {
+        @Override
+        public void capture(HttpServletRequest request, HttpRequestEvent.HttpRequestEventBuilder<?, ?> builder) {
+            builder.fullUrl(request.getRequestURI());
+        }
+    }
+
+    /**
+     * The registry as it was before captors were compiled at registration time.
+     */
+    static class SortingRegistry implements IFieldCaptorRegistry {
+        private final List<IRequestFieldCaptor> requestCaptors = new ArrayList<>();
+        private final List<IResponseFieldCaptor> responseCaptors = new ArrayList<>();
+
+        @Override
+        public void register(IRequestFieldCaptor captor) {
+            requestCaptors.add(captor);
+        }
+
+        @Override
+        public void register(IResponseFieldCaptor captor) {
+            responseCaptors.add(captor);
+        }
+
+        @Override
+        public HttpRequestEvent.HttpRequestEventBuilder<?, ?> capture(HttpServletRequest request, HttpRequestEvent.HttpRequestEventBuilder<?, ?> builder) {
+            for (IRequestFieldCaptor captor : requestCaptors.stream().sorted(AnnotationAwareOrderComparator.INSTANCE).toList()) {
+                captor.capture(request, builder);
+            }
+            return builder;
+        }
+
+        @Override
+        public HttpResponseEvent.HttpResponseEventBuilder<?, ?> capture(HttpServletResponse response, HttpResponseEvent.HttpResponseEventBuilder<?, ?> builder) {
+            for (IResponseFieldCaptor captor : responseCaptors.stream().sorted(AnnotationAwareOrderComparator.INSTANCE).toList()) {
+                captor.capture(response, builder);
+            }
+            return builder;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FieldCaptorRegistryBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
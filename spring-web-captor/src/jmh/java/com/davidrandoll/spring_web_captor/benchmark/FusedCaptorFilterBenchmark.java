@@ -0,0 +1,104 @@
+package com.davidrandoll.spring_web_captor.benchmark;
+
+import com.davidrandoll.spring_web_captor.extensions.HttpDurationFilterExtension;
+import com.davidrandoll.spring_web_captor.properties.WebCaptorProperties;
+import com.davidrandoll.spring_web_captor.publisher.IHttpEventPublisher;
+import com.davidrandoll.spring_web_captor.publisher.response.FusedCaptorFilter;
+import com.davidrandoll.spring_web_captor.publisher.response.HttpResponseEventPublisher;
+import com.davidrandoll.spring_web_captor.publisher.response.ResponseCaptureSettings;
+import com.davidrandoll.spring_web_captor.publisher.response.UnhandledExceptionResponseFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.Filter;
+import jakarta.servlet.Servlet;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.autoconfigure.web.ErrorProperties;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the captor's filters around a handler writing a small body: the duration,
+ * publisher and unhandled-exception filters chained as registered by default, against the fused
+ * filter. Events are captured but not published, so only the filters are measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FusedCaptorFilterBenchmark {
+    private Servlet servlet;
+    private Filter[] separate;
+    private Filter[] fused;
+
+    @Setup
+    public void setUp() throws ServletException {
+        var eventDetails = new WebCaptorProperties.EventDetails();
+        var publisher = new HttpResponseEventPublisher(new NoOpEventPublisher(), eventDetails, ResponseCaptureSettings.from(eventDetails));
+        var safetyNet = new UnhandledExceptionResponseFilter(new ObjectMapper(), new ErrorProperties(), List.of());
+        servlet = new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.setContentType("application/json");
+                resp.getOutputStream().write("{\"status\":\"ok\"}".getBytes());
+            }
+        };
+        separate = new Filter[]{new HttpDurationFilterExtension(), publisher, safetyNet};
+        fused = new Filter[]{new FusedCaptorFilter(publisher, safetyNet, true)};
+    }
+
+    @Benchmark
+    public int separateFilters() throws ServletException, IOException {
+        return run(separate);
+    }
+
+    @Benchmark
+    public int fusedFilter() throws ServletException, IOException {
+        return run(fused);
+    }
+
+    private int run(Filter[] filters) throws ServletException, IOException {
+        var request = new MockHttpServletRequest("GET", "/api/orders/42");
+        var response = new MockHttpServletResponse();
+        new MockFilterChain(servlet, filters).doFilter(request, response);
+        return response.getContentLength() + response.getStatus();
+    }
+
+    private static class NoOpEventPublisher implements IHttpEventPublisher {
+        @Override
+        public void publishRequestEvent(HttpServletRequest request, HttpServletResponse response) {
+        }
+
+        @Override
+        public void publishResponseEvent(HttpServletRequest request, HttpServletResponse response) {
+        }
+
+        @Override
+        public boolean shouldPublishRequestEvent(HttpServletRequest request, HttpServletResponse response) {
+            return true;
+        }
+
+        @Override
+        public boolean shouldPublishResponseEvent(HttpServletRequest request, HttpServletResponse response) {
+            return true;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FusedCaptorFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,122 @@
+package com.davidrandoll.spring_web_captor.benchmark;
+
+import com.davidrandoll.spring_web_captor.publisher.response.TeeHttpServletResponseWrapper;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares capturing a text response written through {@code getWriter()} with the tee writer against
+ * the output-stream path, where the caller encodes each chunk itself, and against buffering the
+ * writer output as a {@code String}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseWriterCaptureBenchmark {
+    private static final int CHUNK_CHARS = 512;
+
+    @Param({"1024", "65536", "1048576"})
+    private int bodyChars;
+
+    private String[] chunks;
+
+    @Setup
+    public void setUp() {
+        String item = "{\"name\":\"captör ✓\",\"id\":12345},";
+        String text = item.repeat(bodyChars / item.length() + 1).substring(0, bodyChars);
+        int count = (text.length() + CHUNK_CHARS - 1) / CHUNK_CHARS;
+        chunks = new String[count];
+        for (int i = 0; i < count; i++) {
+            chunks[i] = text.substring(i * CHUNK_CHARS, Math.min(text.length(), (i + 1) * CHUNK_CHARS));
+        }
+    }
+
+    @Benchmark
+    public int teeWriter() throws IOException {
+        var response = new TeeHttpServletResponseWrapper(discardingResponse());
+        PrintWriter writer = response.getWriter();
+        for (String chunk : chunks) {
+            writer.write(chunk);
+        }
+        return response.getCapturedResponseBuffer().size();
+    }
+
+    @Benchmark
+    public int teeOutputStream() throws IOException {
+        var response = new TeeHttpServletResponseWrapper(discardingResponse());
+        ServletOutputStream out = response.getOutputStream();
+        for (String chunk : chunks) {
+            out.write(chunk.getBytes(StandardCharsets.UTF_8));
+        }
+        return response.getCapturedResponseBuffer().size();
+    }
+
+    @Benchmark
+    public int stringBufferedWriter() {
+        var buffer = new StringWriter();
+        var writer = new PrintWriter(buffer);
+        for (String chunk : chunks) {
+            writer.write(chunk);
+        }
+        return buffer.toString().getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * A response whose stream and writer drop everything, so only the capture cost is measured.
+     */
+    private static HttpServletResponse discardingResponse() {
+        var response = new MockHttpServletResponse();
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        return new HttpServletResponseWrapper(response) {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return new ServletOutputStream() {
+                    @Override
+                    public void write(int b) {
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) {
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                    }
+                };
+            }
+
+            @Override
+            public PrintWriter getWriter() {
+                return new PrintWriter(Writer.nullWriter());
+            }
+        };
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ResponseWriterCaptureBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
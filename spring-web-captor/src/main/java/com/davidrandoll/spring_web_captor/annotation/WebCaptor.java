@@ -0,0 +1,47 @@
+package com.davidrandoll.spring_web_captor.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Narrows what is captured for the endpoints of a controller ({@code @WebCaptor} on the class) or
+ * a single handler method. An annotation on the method replaces the one on the class. Each
+ * attribute overrides the matching {@code web-captor.event-details} setting for that endpoint;
+ * a body that is disabled globally cannot be enabled here.
+ *
+ * <pre>{@code
+ * @WebCaptor(responseBody = false, sampleRate = 0.05)
+ * @GetMapping("/reports/{id}")
+ * public Report report(@PathVariable String id) { ... }
+ * }</pre>
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface WebCaptor {
+    /**
+     * Capture the request body. When {@code false} the body is passed to the handler as is,
+     * without being buffered.
+     */
+    boolean requestBody() default true;
+
+    /**
+     * Capture the response body. When {@code false} nothing the handler writes is copied.
+     */
+    boolean responseBody() default true;
+
+    /**
+     * Fraction of exchanges, from {@code 0.0} to {@code 1.0}, that publish events. The request and
+     * response events of an exchange are kept or dropped together. Negative keeps the configured
+     * rate; {@code 1.0} publishes every exchange even when a lower rate is configured.
+     */
+    double sampleRate() default -1;
+
+    /**
+     * Cap on the captured request and response body bytes; negative keeps the configured caps.
+     */
+    long maxBodyBytes() default -1;
+}
@@ -0,0 +1,24 @@
+package com.davidrandoll.spring_web_captor.body_parser;
+
+import com.davidrandoll.spring_web_captor.publisher.response.ResponseBodyBuffer;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+
+/**
+ * A body parser whose result depends only on the captured bytes and the content type, not on the
+ * request or response they came from. The registry defers such parsers until the event's body is
+ * first read, which may be long after the exchange is over and on another thread. A deferred
+ * response keeps its capture chunks until then and is parsed from them in place.
+ */
+public interface IRawBodyParser {
+    JsonNode parseBody(byte[] body, String contentType) throws IOException;
+
+    /**
+     * Parses the body straight from the capture buffer. The default copies it into an array;
+     * parsers that can consume a stream should override this to avoid the copy.
+     */
+    default JsonNode parseBody(ResponseBodyBuffer body, String contentType) throws IOException {
+        return parseBody(body.toByteArray(), contentType);
+    }
+}
@@ -1,6 +1,7 @@
 package com.davidrandoll.spring_web_captor.body_parser;
 
 import com.davidrandoll.spring_web_captor.event.BodyPayload;
+import com.davidrandoll.spring_web_captor.publisher.response.ResponseBodyBuffer;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
@@ -9,4 +10,12 @@ public interface IResponseBodyParser {
     boolean supports(String contentType);
 
     BodyPayload parse(HttpServletResponse response, byte[] body) throws IOException;
+
+    /**
+     * Parses the body straight from the capture buffer. The default copies it into an array;
+     * parsers that can consume a stream should override this to avoid the copy.
+     */
+    default BodyPayload parse(HttpServletResponse response, ResponseBodyBuffer body) throws IOException {
+        return parse(response, body.toByteArray());
+    }
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.davidrandoll.spring_web_captor.body_parser.parsers;
 
+import com.davidrandoll.spring_web_captor.body_parser.IRawBodyParser;
 import com.davidrandoll.spring_web_captor.body_parser.IRequestBodyParser;
 import com.davidrandoll.spring_web_captor.event.BodyPayload;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import jakarta.servlet.ServletRequest;
@@ -13,7 +15,7 @@ import java.io.IOException;
 
 @RequiredArgsConstructor
 @Order(1)
-public class JsonRequestBodyParser implements IRequestBodyParser {
+public class JsonRequestBodyParser implements IRequestBodyParser, IRawBodyParser {
     private final ObjectMapper objectMapper;
 
     @Override
@@ -23,9 +25,14 @@ public class JsonRequestBodyParser implements IRequestBodyParser {
 
     @Override
     public BodyPayload parse(ServletRequest request, byte[] body) throws IOException {
+        return new BodyPayload(parseBody(body, request.getContentType()));
+    }
+
+    @Override
+    public JsonNode parseBody(byte[] body, String contentType) throws IOException {
         if (ObjectUtils.isEmpty(body)) {
-            return new BodyPayload(JsonNodeFactory.instance.nullNode());
+            return JsonNodeFactory.instance.nullNode();
         }
-        return new BodyPayload(objectMapper.readTree(body));
+        return objectMapper.readTree(body);
     }
 }
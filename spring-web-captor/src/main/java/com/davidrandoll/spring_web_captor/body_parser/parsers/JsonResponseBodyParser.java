@@ -1,7 +1,10 @@
 package com.davidrandoll.spring_web_captor.body_parser.parsers;
 
+import com.davidrandoll.spring_web_captor.body_parser.IRawBodyParser;
 import com.davidrandoll.spring_web_captor.body_parser.IResponseBodyParser;
 import com.davidrandoll.spring_web_captor.event.BodyPayload;
+import com.davidrandoll.spring_web_captor.publisher.response.ResponseBodyBuffer;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import jakarta.servlet.http.HttpServletResponse;
@@ -13,7 +16,7 @@ import java.io.IOException;
 
 @RequiredArgsConstructor
 @Order(1)
-public class JsonResponseBodyParser implements IResponseBodyParser {
+public class JsonResponseBodyParser implements IResponseBodyParser, IRawBodyParser {
     private final ObjectMapper objectMapper;
 
     @Override
@@ -23,9 +26,27 @@ public class JsonResponseBodyParser implements IResponseBodyParser {
 
     @Override
     public BodyPayload parse(HttpServletResponse response, byte[] body) throws IOException {
+        return new BodyPayload(parseBody(body, response.getContentType()));
+    }
+
+    @Override
+    public JsonNode parseBody(byte[] body, String contentType) throws IOException {
         if (ObjectUtils.isEmpty(body)) {
-            return new BodyPayload(JsonNodeFactory.instance.nullNode());
+            return JsonNodeFactory.instance.nullNode();
+        }
+        return objectMapper.readTree(body);
+    }
+
+    @Override
+    public BodyPayload parse(HttpServletResponse response, ResponseBodyBuffer body) throws IOException {
+        return new BodyPayload(parseBody(body, response.getContentType()));
+    }
+
+    @Override
+    public JsonNode parseBody(ResponseBodyBuffer body, String contentType) throws IOException {
+        if (body.isEmpty()) {
+            return JsonNodeFactory.instance.nullNode();
         }
-        return new BodyPayload(objectMapper.readTree(body));
+        return objectMapper.readTree(body.toInputStream());
     }
 }
\ No newline at end of file
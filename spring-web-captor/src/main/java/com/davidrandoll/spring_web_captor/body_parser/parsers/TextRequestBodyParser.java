@@ -1,7 +1,9 @@
 package com.davidrandoll.spring_web_captor.body_parser.parsers;
 
+import com.davidrandoll.spring_web_captor.body_parser.IRawBodyParser;
 import com.davidrandoll.spring_web_captor.body_parser.IRequestBodyParser;
 import com.davidrandoll.spring_web_captor.event.BodyPayload;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import jakarta.servlet.ServletRequest;
 import org.springframework.core.Ordered;
@@ -14,7 +16,7 @@ import java.nio.charset.Charset;
 import static com.davidrandoll.spring_web_captor.utils.HttpServletUtils.getCharset;
 
 @Order(Ordered.LOWEST_PRECEDENCE)
-public class TextRequestBodyParser implements IRequestBodyParser {
+public class TextRequestBodyParser implements IRequestBodyParser, IRawBodyParser {
     @Override
     public boolean supports(String contentType) {
         return true; // fallback if no other parser supports it
@@ -23,11 +25,15 @@ public class TextRequestBodyParser implements IRequestBodyParser {
 
     @Override
     public BodyPayload parse(ServletRequest request, byte[] body) throws IOException {
+        return new BodyPayload(parseBody(body, request.getContentType()));
+    }
+
+    @Override
+    public JsonNode parseBody(byte[] body, String contentType) {
         if (ObjectUtils.isEmpty(body))
-            return new BodyPayload(JsonNodeFactory.instance.nullNode());
+            return JsonNodeFactory.instance.nullNode();
 
-        Charset charset = getCharset(request.getContentType());
-        String text = new String(body, charset);
-        return new BodyPayload(JsonNodeFactory.instance.textNode(text));
+        Charset charset = getCharset(contentType);
+        return JsonNodeFactory.instance.textNode(new String(body, charset));
     }
 }
@@ -1,7 +1,9 @@
 package com.davidrandoll.spring_web_captor.body_parser.parsers;
 
+import com.davidrandoll.spring_web_captor.body_parser.IRawBodyParser;
 import com.davidrandoll.spring_web_captor.body_parser.IResponseBodyParser;
 import com.davidrandoll.spring_web_captor.event.BodyPayload;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.core.Ordered;
@@ -14,7 +16,7 @@ import java.nio.charset.Charset;
 import static com.davidrandoll.spring_web_captor.utils.HttpServletUtils.getCharset;
 
 @Order(Ordered.LOWEST_PRECEDENCE)
-public class TextResponseBodyParser implements IResponseBodyParser {
+public class TextResponseBodyParser implements IResponseBodyParser, IRawBodyParser {
     @Override
     public boolean supports(String contentType) {
         return true; // fallback if no other parser supports it
@@ -22,11 +24,15 @@ public class TextResponseBodyParser implements IResponseBodyParser {
 
     @Override
     public BodyPayload parse(HttpServletResponse response, byte[] body) throws IOException {
+        return new BodyPayload(parseBody(body, response.getContentType()));
+    }
+
+    @Override
+    public JsonNode parseBody(byte[] body, String contentType) {
         if (ObjectUtils.isEmpty(body))
-            return new BodyPayload(JsonNodeFactory.instance.nullNode());
+            return JsonNodeFactory.instance.nullNode();
 
-        Charset charset = getCharset(response.getContentType());
-        String text = new String(body, charset);
-        return new BodyPayload(JsonNodeFactory.instance.textNode(text));
+        Charset charset = getCharset(contentType);
+        return JsonNodeFactory.instance.textNode(new String(body, charset));
     }
 }
\ No newline at end of file
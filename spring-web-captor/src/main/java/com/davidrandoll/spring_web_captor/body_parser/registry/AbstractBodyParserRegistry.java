@@ -1,55 +1,81 @@
 package com.davidrandoll.spring_web_captor.body_parser.registry;
 
+import com.davidrandoll.spring_web_captor.body_parser.IRawBodyParser;
 import com.davidrandoll.spring_web_captor.body_parser.IRequestBodyParser;
 import com.davidrandoll.spring_web_captor.body_parser.IResponseBodyParser;
 import com.davidrandoll.spring_web_captor.event.BodyPayload;
+import com.davidrandoll.spring_web_captor.publisher.response.ResponseBodyBuffer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import jakarta.servlet.ServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.util.ConcurrentLruCache;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.BiPredicate;
 
+/**
+ * Resolves the parsers for a {@code Content-Type} once and caches the result, so each exchange
+ * costs a map lookup instead of sorting every parser and asking each one whether it supports the
+ * type. Registering a parser builds a new index and swaps it in; lookups already running finish on
+ * the previous one.
+ */
 @Slf4j
 public abstract class AbstractBodyParserRegistry implements IBodyParserRegistry {
+    /**
+     * Distinct content types cached per index. Clients choose the header, so the cache is bounded to
+     * the most recently used ones.
+     */
+    private static final int MAX_CACHED_CONTENT_TYPES = 256;
+    /**
+     * Cache key for requests and responses without a content type.
+     */
+    private static final String NO_CONTENT_TYPE = "";
+
+    /**
+     * Registration order; only read and written under the registry's lock. Add parsers through
+     * {@code register} so that the index is rebuilt.
+     */
     protected final List<IRequestBodyParser> requestBodyParsers = new ArrayList<>();
     protected final List<IResponseBodyParser> responseBodyParsers = new ArrayList<>();
 
+    private volatile ParserIndex index = new ParserIndex(List.of(), List.of());
+
     @Override
-    public void register(IRequestBodyParser parser) {
+    public synchronized void register(IRequestBodyParser parser) {
         this.requestBodyParsers.add(parser);
+        this.index = new ParserIndex(this.requestBodyParsers, this.responseBodyParsers);
     }
 
     @Override
-    public void register(IResponseBodyParser parser) {
+    public synchronized void register(IResponseBodyParser parser) {
         this.responseBodyParsers.add(parser);
+        this.index = new ParserIndex(this.requestBodyParsers, this.responseBodyParsers);
     }
 
     protected List<IRequestBodyParser> getRequestParsers() {
-        return requestBodyParsers.stream()
-                .sorted(AnnotationAwareOrderComparator.INSTANCE)
-                .toList();
+        return index.requestParsers;
     }
 
     protected List<IResponseBodyParser> getResponseBodyParsers() {
-        return responseBodyParsers.stream()
-                .sorted(AnnotationAwareOrderComparator.INSTANCE)
-                .toList();
+        return index.responseParsers;
     }
 
     @Override
     public BodyPayload parseRequest(ServletRequest request, byte[] body) {
         String contentType = request.getContentType();
-        for (IRequestBodyParser parser : this.getRequestParsers()) {
-            if (parser.supports(contentType)) {
-                try {
-                    return parser.parse(request, body);
-                } catch (IOException e) {
-                    log.error("Error parsing body with parser: {}", parser.getClass().getName(), e);
-                    // ignore parsing errors, let the default parser handle it
-                }
+        Resolution<IRequestBodyParser> resolution = index.forRequest(contentType);
+        if (resolution.isDeferrable()) return lazyPayload(body, contentType, resolution.rawParsers());
+        for (IRequestBodyParser parser : resolution.parsers()) {
+            try {
+                return parser.parse(request, body);
+            } catch (IOException e) {
+                log.error("Error parsing body with parser: {}", parser.getClass().getName(), e);
+                // ignore parsing errors, let the default parser handle it
             }
         }
         throw new IllegalStateException("No parser found for content type: " + contentType);
@@ -58,16 +84,128 @@ public abstract class AbstractBodyParserRegistry implements IBodyParserRegistry
     @Override
     public BodyPayload parseResponse(HttpServletResponse response, byte[] body) {
         String contentType = response.getContentType();
-        for (IResponseBodyParser parser : this.getResponseBodyParsers()) {
-            if (parser.supports(contentType)) {
-                try {
-                    return parser.parse(response, body);
-                } catch (IOException e) {
-                    log.error("Error parsing response body with parser: {}", parser.getClass().getName(), e);
-                    // ignore parsing errors, let the default parser handle it
-                }
+        Resolution<IResponseBodyParser> resolution = index.forResponse(contentType);
+        if (resolution.isDeferrable()) return lazyPayload(body, contentType, resolution.rawParsers());
+        for (IResponseBodyParser parser : resolution.parsers()) {
+            try {
+                return parser.parse(response, body);
+            } catch (IOException e) {
+                log.error("Error parsing response body with parser: {}", parser.getClass().getName(), e);
+                // ignore parsing errors, let the default parser handle it
+            }
+        }
+        throw new IllegalStateException("No parser found for content type: " + contentType);
+    }
+
+    /**
+     * A deferred parse outlives the exchange, so the payload takes the capture chunks over instead of
+     * copying them; they go back to the pool once the body is parsed, and otherwise to the GC with
+     * the payload.
+     */
+    @Override
+    public BodyPayload parseResponse(HttpServletResponse response, ResponseBodyBuffer body) {
+        String contentType = response.getContentType();
+        Resolution<IResponseBodyParser> resolution = index.forResponse(contentType);
+        if (resolution.isDeferrable()) {
+            ResponseBodyBuffer owned = body.detach();
+            List<IRawBodyParser> parsers = resolution.rawParsers();
+            return BodyPayload.lazy(owned, contentType, () -> parseRaw(parsers, parser -> parser.parseBody(owned, contentType)));
+        }
+        for (IResponseBodyParser parser : resolution.parsers()) {
+            try {
+                return parser.parse(response, body);
+            } catch (IOException e) {
+                log.error("Error parsing response body with parser: {}", parser.getClass().getName(), e);
+                // ignore parsing errors, let the default parser handle it
             }
         }
         throw new IllegalStateException("No parser found for content type: " + contentType);
     }
-}
\ No newline at end of file
+
+    private static BodyPayload lazyPayload(byte[] body, String contentType, List<IRawBodyParser> parsers) {
+        return BodyPayload.lazy(body, contentType, () -> parseRaw(parsers, parser -> parser.parseBody(body, contentType)));
+    }
+
+    private static JsonNode parseRaw(List<IRawBodyParser> parsers, RawParse parse) {
+        for (IRawBodyParser parser : parsers) {
+            try {
+                return parse.apply(parser);
+            } catch (IOException e) {
+                log.error("Error parsing body with parser: {}", parser.getClass().getName(), e);
+                // ignore parsing errors, let the next parser handle it
+            }
+        }
+        return JsonNodeFactory.instance.nullNode();
+    }
+
+    @FunctionalInterface
+    private interface RawParse {
+        JsonNode apply(IRawBodyParser parser) throws IOException;
+    }
+
+    /**
+     * The parsers that support a content type, in the order they are tried.
+     *
+     * @param rawParsers the same parsers when all of them work from the bytes alone, so parsing can
+     *                   wait for the first read; {@code null} otherwise
+     */
+    private record Resolution<P>(List<P> parsers, List<IRawBodyParser> rawParsers) {
+        static <P> Resolution<P> of(List<P> parsers, BiPredicate<P, String> supports, String contentType) {
+            List<P> supporting = new ArrayList<>();
+            List<IRawBodyParser> raw = new ArrayList<>();
+            for (P parser : parsers) {
+                if (!supports.test(parser, contentType)) continue;
+                supporting.add(parser);
+                if (raw != null && parser instanceof IRawBodyParser rawParser) {
+                    raw.add(rawParser);
+                } else {
+                    raw = null;
+                }
+            }
+            boolean deferrable = raw != null && !raw.isEmpty();
+            return new Resolution<>(List.copyOf(supporting), deferrable ? List.copyOf(raw) : null);
+        }
+
+        boolean isDeferrable() {
+            return rawParsers != null;
+        }
+    }
+
+    /**
+     * Parsers sorted by {@code @Order}, plus the resolutions computed from them for the content
+     * types seen lately. Immutable apart from the caches.
+     */
+    private static final class ParserIndex {
+        private final List<IRequestBodyParser> requestParsers;
+        private final List<IResponseBodyParser> responseParsers;
+        private final ConcurrentLruCache<String, Resolution<IRequestBodyParser>> requestResolutions;
+        private final ConcurrentLruCache<String, Resolution<IResponseBodyParser>> responseResolutions;
+
+        ParserIndex(List<IRequestBodyParser> requestParsers, List<IResponseBodyParser> responseParsers) {
+            this.requestParsers = sorted(requestParsers);
+            this.responseParsers = sorted(responseParsers);
+            this.requestResolutions = new ConcurrentLruCache<>(MAX_CACHED_CONTENT_TYPES,
+                    key -> Resolution.of(this.requestParsers, IRequestBodyParser::supports, contentTypeOf(key)));
+            this.responseResolutions = new ConcurrentLruCache<>(MAX_CACHED_CONTENT_TYPES,
+                    key -> Resolution.of(this.responseParsers, IResponseBodyParser::supports, contentTypeOf(key)));
+        }
+
+        Resolution<IRequestBodyParser> forRequest(String contentType) {
+            return requestResolutions.get(contentType == null ? NO_CONTENT_TYPE : contentType);
+        }
+
+        Resolution<IResponseBodyParser> forResponse(String contentType) {
+            return responseResolutions.get(contentType == null ? NO_CONTENT_TYPE : contentType);
+        }
+
+        private static String contentTypeOf(String key) {
+            return NO_CONTENT_TYPE.equals(key) ? null : key;
+        }
+
+        private static <P> List<P> sorted(List<P> parsers) {
+            List<P> copy = new ArrayList<>(parsers);
+            AnnotationAwareOrderComparator.sort(copy);
+            return List.copyOf(copy);
+        }
+    }
+}
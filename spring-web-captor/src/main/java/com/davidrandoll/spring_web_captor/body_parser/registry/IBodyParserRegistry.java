@@ -3,12 +3,31 @@ package com.davidrandoll.spring_web_captor.body_parser.registry;
 import com.davidrandoll.spring_web_captor.body_parser.IRequestBodyParser;
 import com.davidrandoll.spring_web_captor.body_parser.IResponseBodyParser;
 import com.davidrandoll.spring_web_captor.event.BodyPayload;
+import com.davidrandoll.spring_web_captor.publisher.response.ResponseBodyBuffer;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import jakarta.servlet.ServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.util.ObjectUtils;
+
+import static com.davidrandoll.spring_web_captor.utils.HttpServletUtils.getCharset;
 
 public interface IBodyParserRegistry {
     void register(IRequestBodyParser parser);
     void register(IResponseBodyParser parser);
     BodyPayload parseRequest(ServletRequest request, byte[] body);
     BodyPayload parseResponse(HttpServletResponse response, byte[] body);
-}
\ No newline at end of file
+
+    default BodyPayload parseResponse(HttpServletResponse response, ResponseBodyBuffer body) {
+        return parseResponse(response, body.toByteArray());
+    }
+
+    /**
+     * A body cut off at the capture cap is only a prefix, which structured parsers would reject, so
+     * it is kept as text without trying them.
+     */
+    default BodyPayload parseTruncated(String contentType, byte[] body) {
+        if (ObjectUtils.isEmpty(body))
+            return new BodyPayload(JsonNodeFactory.instance.nullNode());
+        return new BodyPayload(JsonNodeFactory.instance.textNode(new String(body, getCharset(contentType))));
+    }
+}
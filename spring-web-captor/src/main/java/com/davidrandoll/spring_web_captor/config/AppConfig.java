@@ -12,15 +12,21 @@ import com.davidrandoll.spring_web_captor.properties.*;
 import com.davidrandoll.spring_web_captor.publish_conditions.ExcludedPathPublishCondition;
 import com.davidrandoll.spring_web_captor.publish_conditions.IHttpRequestPublishCondition;
 import com.davidrandoll.spring_web_captor.publish_conditions.IHttpResponsePublishCondition;
+import com.davidrandoll.spring_web_captor.publish_conditions.SamplingPublishCondition;
 import com.davidrandoll.spring_web_captor.publisher.DefaultHttpEventPublisher;
 import com.davidrandoll.spring_web_captor.publisher.DefaultWebCaptorEventPublisher;
 import com.davidrandoll.spring_web_captor.publisher.IHttpEventPublisher;
 import com.davidrandoll.spring_web_captor.publisher.IWebCaptorEventPublisher;
+import com.davidrandoll.spring_web_captor.publisher.pipeline.AsyncWebCaptorEventPublisher;
 import com.davidrandoll.spring_web_captor.publisher.request.HttpRequestEventPublisher;
+import com.davidrandoll.spring_web_captor.publisher.response.FusedCaptorFilter;
 import com.davidrandoll.spring_web_captor.publisher.response.HttpResponseEventPublisher;
+import com.davidrandoll.spring_web_captor.publisher.response.ResponseCaptureSettings;
 import com.davidrandoll.spring_web_captor.publisher.response.UnhandledExceptionResponseFilter;
+import com.davidrandoll.spring_web_captor.route.EndpointCapturePolicies;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.web.ErrorProperties;
@@ -47,8 +53,13 @@ public class AppConfig {
     @Bean
     @ConditionalOnMissingBean
     @Conditional(IsWebCaptorEnabled.class)
-    public IWebCaptorEventPublisher webCaptorEventPublisher(ApplicationEventPublisher publisher) {
-        return new DefaultWebCaptorEventPublisher(publisher);
+    public IWebCaptorEventPublisher webCaptorEventPublisher(ApplicationEventPublisher publisher, WebCaptorProperties properties) {
+        var defaultPublisher = new DefaultWebCaptorEventPublisher(publisher);
+        WebCaptorProperties.EventPipeline pipeline = properties.getEventPipeline();
+        if (pipeline.getMode() == WebCaptorProperties.EventPipelineMode.ASYNC) {
+            return new AsyncWebCaptorEventPublisher(defaultPublisher, pipeline);
+        }
+        return defaultPublisher;
     }
 
     @Bean
@@ -58,6 +69,13 @@ public class AppConfig {
         return new DefaultBodyParserRegistry(objectMapper, properties.getEventDetails());
     }
 
+    @Bean
+    @ConditionalOnMissingBean
+    @Conditional(IsWebCaptorEnabled.class)
+    public EndpointCapturePolicies endpointCapturePolicies() {
+        return new EndpointCapturePolicies();
+    }
+
     @Bean
     @ConditionalOnMissingBean
     @Conditional(IsWebCaptorEnabled.class)
@@ -77,11 +95,11 @@ public class AppConfig {
     public IFieldCaptorRegistry fieldCaptorRegistry(
             IBodyParserRegistry bodyParserRegistry, WebCaptorProperties properties,
             @Lazy @Qualifier("handlerExceptionResolver") HandlerExceptionResolver resolver,
-            DefaultErrorAttributes errorAttributes
+            DefaultErrorAttributes errorAttributes, EndpointCapturePolicies policies
     ) {
         return new DefaultFieldCaptorRegistry(
                 bodyParserRegistry, properties.getEventDetails(),
-                resolver, errorAttributes
+                resolver, errorAttributes, policies
         );
     }
 
@@ -110,8 +128,9 @@ public class AppConfig {
     @Bean("httpResponseEventPublisher")
     @ConditionalOnMissingBean(name = "httpResponseEventPublisher", ignored = HttpResponseEventPublisher.class)
     @Conditional(IsWebCaptorEnabled.class)
-    public HttpResponseEventPublisher httpResponseEventPublisher(IHttpEventPublisher publisher) {
-        return new HttpResponseEventPublisher(publisher);
+    public HttpResponseEventPublisher httpResponseEventPublisher(IHttpEventPublisher publisher, WebCaptorProperties properties) {
+        WebCaptorProperties.EventDetails eventDetails = properties.getEventDetails();
+        return new HttpResponseEventPublisher(publisher, eventDetails, ResponseCaptureSettings.from(eventDetails));
     }
 
     /**
@@ -122,19 +141,56 @@ public class AppConfig {
      */
     @Bean("httpResponseEventPublisherRegistration")
     @Conditional(IsWebCaptorEnabled.class)
-    public FilterRegistrationBean<HttpResponseEventPublisher> httpResponseEventPublisherRegistration(HttpResponseEventPublisher filter) {
+    public FilterRegistrationBean<HttpResponseEventPublisher> httpResponseEventPublisherRegistration(HttpResponseEventPublisher filter, WebCaptorProperties properties) {
         FilterRegistrationBean<HttpResponseEventPublisher> reg = new FilterRegistrationBean<>(filter);
         reg.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
         reg.setDispatcherTypes(EnumSet.of(DispatcherType.REQUEST, DispatcherType.ERROR, DispatcherType.ASYNC));
         reg.addUrlPatterns("/*");
+        // the fused filter runs it instead
+        reg.setEnabled(!properties.isFusedFilter());
+        return reg;
+    }
+
+    /**
+     * With {@code web-captor.fused-filter=true}, one filter in the publisher's place does the work of
+     * the duration, publisher and unhandled-exception filters; their own registrations are disabled.
+     */
+    @Bean("fusedCaptorFilterRegistration")
+    @Conditional({IsWebCaptorEnabled.class, IsFusedFilterEnabled.class})
+    public FilterRegistrationBean<FusedCaptorFilter> fusedCaptorFilterRegistration(HttpResponseEventPublisher responsePublisher,
+                                                                                   UnhandledExceptionResponseFilter unhandledExceptionResponseFilter,
+                                                                                   ObjectProvider<HttpDurationFilterExtension> durationExtension) {
+        var filter = new FusedCaptorFilter(responsePublisher, unhandledExceptionResponseFilter, durationExtension.getIfAvailable() != null);
+        FilterRegistrationBean<FusedCaptorFilter> reg = new FilterRegistrationBean<>(filter);
+        reg.setName("fusedCaptorFilter");
+        reg.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        reg.setDispatcherTypes(EnumSet.of(DispatcherType.REQUEST, DispatcherType.ERROR, DispatcherType.ASYNC));
+        reg.addUrlPatterns("/*");
+        return reg;
+    }
+
+    @Bean("httpDurationFilterExtensionRegistration")
+    @Conditional({IsWebCaptorEnabled.class, IsDurationEnabled.class, IsFusedFilterEnabled.class})
+    public FilterRegistrationBean<HttpDurationFilterExtension> httpDurationFilterExtensionRegistration(
+            @Qualifier("httpDurationFilterExtension") HttpDurationFilterExtension filter) {
+        FilterRegistrationBean<HttpDurationFilterExtension> reg = new FilterRegistrationBean<>(filter);
+        reg.setEnabled(false);
+        return reg;
+    }
+
+    @Bean("unhandledExceptionResponseFilterRegistration")
+    @Conditional({IsWebCaptorEnabled.class, IsFusedFilterEnabled.class})
+    public FilterRegistrationBean<UnhandledExceptionResponseFilter> unhandledExceptionResponseFilterRegistration(UnhandledExceptionResponseFilter filter) {
+        FilterRegistrationBean<UnhandledExceptionResponseFilter> reg = new FilterRegistrationBean<>(filter);
+        reg.setEnabled(false);
         return reg;
     }
 
     @Bean("httpRequestEventPublisher")
     @ConditionalOnMissingBean(name = "httpRequestEventPublisher", ignored = HttpRequestEventPublisher.class)
     @Conditional(IsWebCaptorEnabled.class)
-    public HttpRequestEventPublisher httpRequestEventPublisher(IHttpEventPublisher publisher) {
-        return new HttpRequestEventPublisher(publisher);
+    public HttpRequestEventPublisher httpRequestEventPublisher(IHttpEventPublisher publisher, EndpointCapturePolicies policies) {
+        return new HttpRequestEventPublisher(publisher, policies);
     }
 
     @Bean
@@ -158,4 +214,11 @@ public class AppConfig {
     public ExcludedPathPublishCondition excludedPathPublishCondition(WebCaptorProperties properties) {
         return new ExcludedPathPublishCondition(properties, new AntPathMatcher());
     }
+
+    @Bean("samplingPublishCondition")
+    @ConditionalOnMissingBean(name = "samplingPublishCondition", ignored = SamplingPublishCondition.class)
+    @Conditional(IsWebCaptorEnabled.class)
+    public SamplingPublishCondition samplingPublishCondition(WebCaptorProperties properties, EndpointCapturePolicies policies) {
+        return new SamplingPublishCondition(properties.getSampling(), policies);
+    }
 }
\ No newline at end of file
@@ -3,30 +3,179 @@ package com.davidrandoll.spring_web_captor.event;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.JsonNode;
-import lombok.Data;
+import lombok.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.InputStream;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @Slf4j
 @Data
 public class BodyPayload {
-    private JsonNode body;
+    private volatile JsonNode body;
 
     @JsonIgnore
     private MultiValueMap<String, MultipartFile> files;
 
     private Map<String, List<SerializedFile>> serializedFiles;
 
+    /**
+     * True when only a prefix of the body was captured because it exceeded the configured byte cap.
+     */
+    private boolean truncated;
+
+    /**
+     * Length of the body as sent by the client when {@link #truncated}; {@code -1} if the client did
+     * not declare it (chunked transfer). {@code null} for bodies captured in full.
+     */
+    private Long originalLength;
+
+    /**
+     * The captured bytes, kept when the body is parsed on first access; {@code null} when it was
+     * parsed up front, or when the bytes are read in place from {@link #rawSource}. Use
+     * {@link #openRawBody()} to read either.
+     */
+    @JsonIgnore
+    private byte[] rawBody;
+
+    /**
+     * Captured bytes the payload owns and reads in place, released once the body is parsed and no
+     * stream from {@link #openRawBody()} is open.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private IRawBody rawSource;
+
+    /**
+     * Streams open on {@link #rawSource}; guarded by {@code this}.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private int openReaders;
+
+    @JsonIgnore
+    private String contentType;
+
+    /**
+     * Builds {@link #body} from {@link #rawBody}; cleared once it has run.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private volatile Supplier<JsonNode> parser;
+
     public BodyPayload(JsonNode body) {
         this.body = body;
     }
 
+    /**
+     * A payload whose body is parsed from {@code rawBody} the first time {@link #getBody()} is
+     * called, so exchanges whose body nobody reads never pay for the parse.
+     */
+    public static BodyPayload lazy(byte[] rawBody, String contentType, Supplier<JsonNode> parser) {
+        BodyPayload payload = new BodyPayload((JsonNode) null);
+        payload.rawBody = rawBody;
+        payload.contentType = contentType;
+        payload.parser = parser;
+        return payload;
+    }
+
+    /**
+     * A payload whose body is parsed from {@code rawSource} the first time {@link #getBody()} is
+     * called. The payload owns the bytes and releases them once they are parsed; a body nobody reads
+     * keeps them until the payload itself is collected.
+     */
+    public static BodyPayload lazy(IRawBody rawSource, String contentType, Supplier<JsonNode> parser) {
+        BodyPayload payload = new BodyPayload((JsonNode) null);
+        payload.rawSource = rawSource;
+        payload.contentType = contentType;
+        payload.parser = parser;
+        return payload;
+    }
+
+    public JsonNode getBody() {
+        JsonNode result = this.body;
+        if (result != null || this.parser == null) return result;
+        synchronized (this) {
+            Supplier<JsonNode> pending = this.parser;
+            if (pending != null) {
+                this.body = pending.get();
+                this.parser = null;
+                releaseRawSourceIfIdle();
+            }
+            return this.body;
+        }
+    }
+
+    public void setBody(JsonNode body) {
+        this.body = body;
+        this.parser = null;
+        if (this.rawSource != null) {
+            synchronized (this) {
+                releaseRawSourceIfIdle();
+            }
+        }
+    }
+
+    /**
+     * Length of the captured bytes of a lazy payload; {@code 0} once they are gone.
+     */
+    @JsonIgnore
+    public synchronized int getRawLength() {
+        if (rawBody != null) return rawBody.length;
+        return rawSource != null ? rawSource.size() : 0;
+    }
+
+    /**
+     * A stream over the captured bytes of a lazy payload, or {@code null} when there are none any
+     * more. Bytes read in place are kept until the stream is closed.
+     */
+    public synchronized InputStream openRawBody() {
+        if (rawBody != null) return new ByteArrayInputStream(rawBody);
+        if (rawSource == null) return null;
+        openReaders++;
+        return new FilterInputStream(rawSource.toInputStream()) {
+            private boolean closed;
+
+            @Override
+            public void close() {
+                synchronized (BodyPayload.this) {
+                    if (closed) return;
+                    closed = true;
+                    openReaders--;
+                    releaseRawSourceIfIdle();
+                }
+            }
+        };
+    }
+
+    private void releaseRawSourceIfIdle() {
+        if (rawSource == null || parser != null || openReaders > 0) return;
+        rawSource.release();
+        rawSource = null;
+    }
+
+    /**
+     * False while the body of a lazy payload has not been read yet.
+     */
+    @JsonIgnore
+    public boolean isParsed() {
+        return this.parser == null;
+    }
+
     public BodyPayload(JsonNode body, MultiValueMap<String, MultipartFile> files) {
         this.body = body;
         this.files = files;
@@ -35,6 +184,11 @@ public class BodyPayload {
         this.serializedFiles = serializeFiles(files);
     }
 
+    public void markTruncated(long originalLength) {
+        this.truncated = true;
+        this.originalLength = originalLength;
+    }
+
     @JsonProperty("files")
     public Map<String, List<SerializedFile>> getSerializedFiles() {
         if (serializedFiles != null) return serializedFiles;
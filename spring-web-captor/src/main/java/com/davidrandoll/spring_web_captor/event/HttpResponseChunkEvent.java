@@ -0,0 +1,34 @@
+package com.davidrandoll.spring_web_captor.event;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.*;
+import lombok.experimental.FieldNameConstants;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Part of a streaming response, published while the stream is still open when
+ * {@code streaming-response-capture-mode} is {@code TAIL} and a chunk interval is set. The final
+ * {@link HttpResponseEvent} follows once the stream completes.
+ */
+@Data
+@FieldNameConstants
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder(toBuilder = true)
+@EqualsAndHashCode(callSuper = true)
+public class HttpResponseChunkEvent extends BaseHttpEvent {
+    /**
+     * Position of this chunk among the chunk events of the response, starting at 0.
+     */
+    private int sequence;
+    /**
+     * Offset of the first byte of {@link #chunk} within the streamed body. Bytes that were written and
+     * then overwritten in the ring before a chunk was taken show up as a gap between offsets.
+     */
+    private long offset;
+    private JsonNode chunk;
+
+    public HttpResponseChunkEvent(HttpRequestEvent requestEvent) {
+        super(requestEvent.toBuilder());
+    }
+}
@@ -1,5 +1,6 @@
 package com.davidrandoll.spring_web_captor.event;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import lombok.*;
@@ -19,8 +20,23 @@ import java.util.Map;
 @EqualsAndHashCode(callSuper = true)
 public class HttpResponseEvent extends BaseHttpEvent {
     private JsonNode responseBody;
+    /**
+     * Captured response body, parsed on first access. {@link #getResponseBody()} falls back to it
+     * when no body was set directly.
+     */
+    @JsonIgnore
+    private BodyPayload responseBodyPayload;
     private HttpStatus responseStatus;
     private HttpHeaders responseHeaders;
+    /**
+     * True when only part of the response body, or none of it, was captured: it exceeded
+     * {@code max-response-body-bytes} or matched a skip rule.
+     */
+    private boolean responseBodyTruncated;
+    /**
+     * Length of the response body as sent to the client when {@link #responseBodyTruncated}.
+     */
+    private Long responseBodyOriginalLength;
     @Setter(AccessLevel.NONE)
     private Map<String, Object> errorDetail;
 
@@ -28,6 +44,11 @@ public class HttpResponseEvent extends BaseHttpEvent {
         super(requestEvent.toBuilder());
     }
 
+    public JsonNode getResponseBody() {
+        if (responseBody != null || responseBodyPayload == null) return responseBody;
+        return responseBodyPayload.getBody();
+    }
+
     public void addErrorDetail(@NonNull Map<String, Object> errorDetail) {
         this.errorDetail = errorDetail;
         var message = errorDetail.getOrDefault("message", "").toString();
@@ -0,0 +1,18 @@
+package com.davidrandoll.spring_web_captor.event;
+
+import java.io.InputStream;
+
+/**
+ * Captured bytes that a lazy {@link BodyPayload} reads in place instead of holding a copy of them.
+ * The payload owns them and releases them once the body is parsed and nothing reads them any more.
+ */
+public interface IRawBody {
+    int size();
+
+    /**
+     * A stream over the bytes; only valid until {@link #release()}.
+     */
+    InputStream toInputStream();
+
+    void release();
+}
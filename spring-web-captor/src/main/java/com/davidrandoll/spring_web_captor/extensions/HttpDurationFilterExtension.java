@@ -2,12 +2,14 @@ package com.davidrandoll.spring_web_captor.extensions;
 
 import com.davidrandoll.spring_web_captor.event.HttpRequestEvent;
 import com.davidrandoll.spring_web_captor.event.HttpResponseEvent;
+import com.davidrandoll.spring_web_captor.publisher.WebCaptorExchange;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
@@ -22,14 +24,21 @@ public class HttpDurationFilterExtension extends OncePerRequestFilter implements
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
-        request.setAttribute(START_TIME_KEY, System.currentTimeMillis());
+        recordStartTime(request);
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * What this filter does before the chain; for filters that take its place.
+     */
+    public static void recordStartTime(HttpServletRequest request) {
+        request.setAttribute(START_TIME_KEY, System.currentTimeMillis());
+    }
+
     @Override
     public Map<String, Object> enrichResponseEvent(HttpServletRequest req, HttpServletResponse res, HttpRequestEvent reqEvent, HttpResponseEvent resEvent) {
-        Object startTimeObj = req.getAttribute(START_TIME_KEY);
-        if (!(startTimeObj instanceof Long startTime)) return Map.of();
+        Long startTime = startTime(req);
+        if (startTime == null) return Map.of();
         var endTime = System.currentTimeMillis();
 
         Duration duration = Duration.ofMillis(endTime - startTime);
@@ -39,4 +48,14 @@ public class HttpDurationFilterExtension extends OncePerRequestFilter implements
                 END_TIME_KEY, endTime
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * When this filter did not run for the request, the exchange still knows when the captor first saw it.
+     */
+    @Nullable
+    private static Long startTime(HttpServletRequest req) {
+        if (req.getAttribute(START_TIME_KEY) instanceof Long startTime) return startTime;
+        WebCaptorExchange exchange = WebCaptorExchange.find(req);
+        return exchange != null ? exchange.getStartTimeMillis() : null;
+    }
+}
@@ -3,12 +3,13 @@ package com.davidrandoll.spring_web_captor.extensions;
 
 import com.davidrandoll.spring_web_captor.event.HttpRequestEvent;
 import com.davidrandoll.spring_web_captor.event.HttpResponseEvent;
+import com.davidrandoll.spring_web_captor.route.IRouteScoped;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.util.Map;
 
-public interface IHttpEventExtension {
+public interface IHttpEventExtension extends IRouteScoped {
     /**
      * This method is called before the {@link HttpRequestEvent} is published.
      * It can be used to add additional data ({@link HttpRequestEvent#setAdditionalData}) to the request event.
@@ -1,8 +1,9 @@
 package com.davidrandoll.spring_web_captor.field_captor;
 
 import com.davidrandoll.spring_web_captor.event.HttpRequestEvent;
+import com.davidrandoll.spring_web_captor.route.IRouteScoped;
 import jakarta.servlet.http.HttpServletRequest;
 
-public interface IRequestFieldCaptor {
+public interface IRequestFieldCaptor extends IRouteScoped {
     void capture(HttpServletRequest request, HttpRequestEvent.HttpRequestEventBuilder<?, ?> builder);
 }
\ No newline at end of file
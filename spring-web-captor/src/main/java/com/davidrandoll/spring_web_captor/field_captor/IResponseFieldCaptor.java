@@ -1,8 +1,9 @@
 package com.davidrandoll.spring_web_captor.field_captor;
 
 import com.davidrandoll.spring_web_captor.event.HttpResponseEvent;
+import com.davidrandoll.spring_web_captor.route.IRouteScoped;
 import jakarta.servlet.http.HttpServletResponse;
 
-public interface IResponseFieldCaptor {
+public interface IResponseFieldCaptor extends IRouteScoped {
     void capture(HttpServletResponse response, HttpResponseEvent.HttpResponseEventBuilder<?, ?> builder);
 }
\ No newline at end of file
@@ -5,6 +5,8 @@ import com.davidrandoll.spring_web_captor.event.BodyPayload;
 import com.davidrandoll.spring_web_captor.event.HttpRequestEvent;
 import com.davidrandoll.spring_web_captor.field_captor.IRequestFieldCaptor;
 import com.davidrandoll.spring_web_captor.publisher.request.CachedBodyHttpServletRequest;
+import com.davidrandoll.spring_web_captor.route.CaptureRoute;
+import com.davidrandoll.spring_web_captor.route.EndpointCapturePolicies;
 import com.davidrandoll.spring_web_captor.utils.HttpServletUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
@@ -12,6 +14,15 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class RequestBodyCaptor implements IRequestFieldCaptor {
     private final IBodyParserRegistry bodyParserRegistry;
+    private final EndpointCapturePolicies policies;
+
+    /**
+     * Endpoints annotated with {@code @WebCaptor(requestBody = false)} are left out.
+     */
+    @Override
+    public boolean appliesTo(CaptureRoute route) {
+        return policies.of(route).isRequestBody();
+    }
 
     @Override
     public void capture(HttpServletRequest request, HttpRequestEvent.HttpRequestEventBuilder<?, ?> builder) {
@@ -22,6 +33,10 @@ public class RequestBodyCaptor implements IRequestFieldCaptor {
 
     public BodyPayload getBody(CachedBodyHttpServletRequest request) {
         byte[] cachedBody = request.getCachedBody();
-        return bodyParserRegistry.parseRequest(request.getRequest(), cachedBody);
+        if (!request.isBodyTruncated())
+            return bodyParserRegistry.parseRequest(request.getRequest(), cachedBody);
+        BodyPayload payload = bodyParserRegistry.parseTruncated(request.getContentType(), cachedBody);
+        payload.markTruncated(request.getOriginalBodyLength());
+        return payload;
     }
 }
\ No newline at end of file
@@ -5,6 +5,8 @@ import com.davidrandoll.spring_web_captor.event.BodyPayload;
 import com.davidrandoll.spring_web_captor.event.HttpResponseEvent;
 import com.davidrandoll.spring_web_captor.field_captor.IResponseFieldCaptor;
 import com.davidrandoll.spring_web_captor.publisher.response.CachedBodyHttpServletResponse;
+import com.davidrandoll.spring_web_captor.route.CaptureRoute;
+import com.davidrandoll.spring_web_captor.route.EndpointCapturePolicies;
 import com.davidrandoll.spring_web_captor.utils.HttpServletUtils;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -17,6 +19,15 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class ResponseBodyCaptor implements IResponseFieldCaptor {
     private final IBodyParserRegistry bodyParserRegistry;
+    private final EndpointCapturePolicies policies;
+
+    /**
+     * Endpoints annotated with {@code @WebCaptor(responseBody = false)} are left out.
+     */
+    @Override
+    public boolean appliesTo(CaptureRoute route) {
+        return policies.of(route).isResponseBody();
+    }
 
     @Override
     public void capture(HttpServletResponse response, HttpResponseEvent.HttpResponseEventBuilder<?, ?> builder) {
@@ -26,10 +37,14 @@ public class ResponseBodyCaptor implements IResponseFieldCaptor {
             if (responseStatus.is2xxSuccessful()) {
                 responseWrapper.getResponseBody()
                         .thenAccept(body -> {
-                            BodyPayload payload = this.bodyParserRegistry.parseResponse(
-                                    responseWrapper, body
-                            );
-                            builder.responseBody(payload.getBody());
+                            if (!responseWrapper.isResponseBodyTruncated()) {
+                                builder.responseBodyPayload(this.bodyParserRegistry.parseResponse(responseWrapper, body));
+                                return;
+                            }
+                            builder.responseBodyPayload(this.bodyParserRegistry.parseTruncated(
+                                            responseWrapper.getContentType(), body.toByteArray()))
+                                    .responseBodyTruncated(true)
+                                    .responseBodyOriginalLength(responseWrapper.getResponseBodyLength());
                         });
             }
         } catch (IOException e) {
@@ -4,6 +4,10 @@ import com.davidrandoll.spring_web_captor.event.HttpRequestEvent;
 import com.davidrandoll.spring_web_captor.event.HttpResponseEvent;
 import com.davidrandoll.spring_web_captor.field_captor.IRequestFieldCaptor;
 import com.davidrandoll.spring_web_captor.field_captor.IResponseFieldCaptor;
+import com.davidrandoll.spring_web_captor.publisher.WebCaptorExchange;
+import com.davidrandoll.spring_web_captor.publisher.response.CachedBodyHttpServletResponse;
+import com.davidrandoll.spring_web_captor.route.CaptureRoute;
+import com.davidrandoll.spring_web_captor.route.RouteComponents;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
@@ -12,36 +16,53 @@ import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Captors are sorted by {@code @Order} once, when they are registered, into an array that every
+ * exchange iterates as is. Registering at runtime builds and publishes a new array, so requests in
+ * flight keep the snapshot they started with and never see a half-updated list.
+ *
+ * <p>Once a request has matched a handler, only the captors that apply to its route run; see
+ * {@link RouteComponents}.</p>
+ */
 @Slf4j
 public abstract class AbstractFieldCaptorRegistry implements IFieldCaptorRegistry {
+    /**
+     * Registration order; only read and written under the registry's lock. Add captors through
+     * {@code register} so that the compiled snapshot is rebuilt.
+     */
     protected final List<IRequestFieldCaptor> requestCaptors = new ArrayList<>();
     protected final List<IResponseFieldCaptor> responseCaptors = new ArrayList<>();
 
+    private volatile RouteComponents<IRequestFieldCaptor> compiledRequestCaptors = new RouteComponents<>(new IRequestFieldCaptor[0]);
+    private volatile RouteComponents<IResponseFieldCaptor> compiledResponseCaptors = new RouteComponents<>(new IResponseFieldCaptor[0]);
+
     @Override
-    public void register(IRequestFieldCaptor captor) {
+    public synchronized void register(IRequestFieldCaptor captor) {
         requestCaptors.add(captor);
+        IRequestFieldCaptor[] compiled = requestCaptors.toArray(IRequestFieldCaptor[]::new);
+        AnnotationAwareOrderComparator.sort(compiled);
+        this.compiledRequestCaptors = new RouteComponents<>(compiled);
     }
 
     @Override
-    public void register(IResponseFieldCaptor captor) {
+    public synchronized void register(IResponseFieldCaptor captor) {
         responseCaptors.add(captor);
+        IResponseFieldCaptor[] compiled = responseCaptors.toArray(IResponseFieldCaptor[]::new);
+        AnnotationAwareOrderComparator.sort(compiled);
+        this.compiledResponseCaptors = new RouteComponents<>(compiled);
     }
 
     protected List<IRequestFieldCaptor> getRequestCaptors() {
-        return requestCaptors.stream()
-                .sorted(AnnotationAwareOrderComparator.INSTANCE)
-                .toList();
+        return List.of(compiledRequestCaptors.getAll());
     }
 
     protected List<IResponseFieldCaptor> getResponseCaptors() {
-        return responseCaptors.stream()
-                .sorted(AnnotationAwareOrderComparator.INSTANCE)
-                .toList();
+        return List.of(compiledResponseCaptors.getAll());
     }
 
     @Override
     public HttpRequestEvent.HttpRequestEventBuilder<?, ?> capture(HttpServletRequest request, HttpRequestEvent.HttpRequestEventBuilder<?, ?> builder) {
-        for (IRequestFieldCaptor captor : this.getRequestCaptors()) {
+        for (IRequestFieldCaptor captor : this.compiledRequestCaptors.forRoute(WebCaptorExchange.routeOf(request))) {
             try {
                 captor.capture(request, builder);
             } catch (Exception e) {
@@ -53,7 +74,8 @@ public abstract class AbstractFieldCaptorRegistry implements IFieldCaptorRegistr
 
     @Override
     public HttpResponseEvent.HttpResponseEventBuilder<?, ?> capture(HttpServletResponse response, HttpResponseEvent.HttpResponseEventBuilder<?, ?> builder) {
-        for (IResponseFieldCaptor captor : this.getResponseCaptors()) {
+        CaptureRoute route = response instanceof CachedBodyHttpServletResponse wrapper ? WebCaptorExchange.routeOf(wrapper.getRequest()) : null;
+        for (IResponseFieldCaptor captor : this.compiledResponseCaptors.forRoute(route)) {
             try {
                 captor.capture(response, builder);
             } catch (Exception e) {
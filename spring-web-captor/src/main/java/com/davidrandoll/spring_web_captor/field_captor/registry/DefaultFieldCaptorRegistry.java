@@ -3,13 +3,15 @@ package com.davidrandoll.spring_web_captor.field_captor.registry;
 import com.davidrandoll.spring_web_captor.body_parser.registry.IBodyParserRegistry;
 import com.davidrandoll.spring_web_captor.field_captor.captors.*;
 import com.davidrandoll.spring_web_captor.properties.WebCaptorProperties;
+import com.davidrandoll.spring_web_captor.route.EndpointCapturePolicies;
 import org.springframework.boot.web.servlet.error.DefaultErrorAttributes;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 
 public class DefaultFieldCaptorRegistry extends AbstractFieldCaptorRegistry {
     public DefaultFieldCaptorRegistry(
             IBodyParserRegistry bodyParserRegistry, WebCaptorProperties.EventDetails properties,
-            HandlerExceptionResolver resolver, DefaultErrorAttributes errorAttributes
+            HandlerExceptionResolver resolver, DefaultErrorAttributes errorAttributes,
+            EndpointCapturePolicies policies
     ) {
         if (properties.isIncludeEndpointCalled())
             this.register(new RequestEndpointCalledCaptor());
@@ -26,13 +28,13 @@ public class DefaultFieldCaptorRegistry extends AbstractFieldCaptorRegistry {
         if (properties.isIncludePathParams())
             this.register(new RequestPathParamsCaptor());
         if (properties.isIncludeRequestBody())
-            this.register(new RequestBodyCaptor(bodyParserRegistry));
+            this.register(new RequestBodyCaptor(bodyParserRegistry, policies));
         if (properties.isIncludeResponseStatus())
             this.register(new ResponseStatusCaptor());
         if (properties.isIncludeResponseHeaders())
             this.register(new ResponseHeadersCaptor());
         if (properties.isIncludeResponseBody())
-            this.register(new ResponseBodyCaptor(bodyParserRegistry));
+            this.register(new ResponseBodyCaptor(bodyParserRegistry, policies));
         if (properties.isIncludeErrorDetails())
             this.register(new ResponseErrorCaptor(resolver, errorAttributes));
     }
@@ -5,8 +5,11 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 
 @Data
@@ -21,7 +24,22 @@ public class WebCaptorProperties {
     @NestedConfigurationProperty
     private AdditionalDetails additionalDetails = new AdditionalDetails();
 
+    @NestedConfigurationProperty
+    private EventPipeline eventPipeline = new EventPipeline();
+
+    @NestedConfigurationProperty
+    private Sampling sampling = new Sampling();
+
     private List<ExcludedRequest> excludedEndpoints = new ArrayList<>();
+    /**
+     * Request paths whose exclusion outcome is cached; the least recently used are evicted.
+     */
+    private int excludedEndpointsCacheSize = 1024;
+
+    /**
+     * Run the duration, capture and unhandled-exception filters as one filter instead of three.
+     */
+    private boolean fusedFilter = false;
 
     /**
      * Package-name prefixes whose exceptions should be re-thrown from
@@ -69,6 +87,164 @@ public class WebCaptorProperties {
         private boolean includeResponseBody = true;
         private boolean includeResponseStatus = true;
         private boolean includeErrorDetails = true;
+
+        /**
+         * Upper bound on the number of request-body bytes kept for the event. Bytes past the cap are
+         * still handed to the controller untouched but are not buffered; the event's
+         * {@code BodyPayload} is then marked truncated. A negative value (the default) keeps the
+         * whole body.
+         */
+        private long maxRequestBodyBytes = -1;
+
+        /**
+         * How the request body is captured. {@code EAGER} reads the whole body before the handler
+         * runs; {@code STREAMING} lets the handler read the live stream while a tee copies the bytes,
+         * and publishes the request event once the handler is done with the body.
+         */
+        private RequestBodyCaptureMode requestBodyCaptureMode = RequestBodyCaptureMode.EAGER;
+
+        /**
+         * Size in bytes of the chunks the response body is captured into. The capture buffer grows
+         * a chunk at a time, so nothing already written is copied again.
+         */
+        private int responseBufferChunkSize = 8 * 1024;
+
+        /**
+         * Maximum number of free chunks kept for reuse across responses. Chunks returned beyond
+         * this are left to the GC; {@code 0} disables pooling.
+         */
+        private int responseBufferPoolSize = 512;
+
+        /**
+         * Upper bound on the number of response-body bytes kept for the event. The client still
+         * receives the whole body; the event is marked {@code responseBodyTruncated}. A negative
+         * value (the default) keeps the whole body.
+         */
+        private long maxResponseBodyBytes = -1;
+
+        /**
+         * Responses that declare a {@code Content-Length} above this are not copied at all. A
+         * negative value (the default) disables the check.
+         */
+        private long skipResponseBodyOverBytes = -1;
+
+        /**
+         * Media types (wildcards allowed, e.g. {@code video/*}) whose response body is never copied,
+         * such as file downloads and exports.
+         */
+        private List<String> skipResponseBodyContentTypes = new ArrayList<>();
+
+        /**
+         * How streaming responses ({@code text/event-stream}, {@code StreamingResponseBody},
+         * {@code ResponseBodyEmitter}) are captured. {@code FULL} keeps the whole stream like any other
+         * response; {@code TAIL} keeps only the last {@link #streamingResponseTailBytes} in a fixed
+         * ring buffer for the life of the connection.
+         */
+        private StreamingResponseCaptureMode streamingResponseCaptureMode = StreamingResponseCaptureMode.FULL;
+
+        /**
+         * Size of the ring buffer used in {@code TAIL} mode.
+         */
+        private int streamingResponseTailBytes = 64 * 1024;
+
+        /**
+         * In {@code TAIL} mode, publish an {@code HttpResponseChunkEvent} with the bytes streamed since
+         * the previous one at this interval. Unset (the default) publishes no chunk events.
+         */
+        private Duration streamingResponseChunkInterval;
+    }
+
+    /**
+     * How captured events reach the application's listeners. In {@code SYNC} mode (the default) they
+     * are published on the request thread, so every listener adds to the request's latency. In
+     * {@code ASYNC} mode they are handed to a bounded queue and published by consumer threads.
+     *
+     * <p>Listeners run outside the request in {@code ASYNC} mode: {@code RequestContextHolder} and
+     * other thread-bound request state are not available to them, and with more than one consumer
+     * thread the events of one exchange can reach listeners out of order.</p>
+     */
+    @Data
+    public static class EventPipeline {
+        private EventPipelineMode mode = EventPipelineMode.SYNC;
+
+        /**
+         * Number of events the queue holds, rounded up to a power of two.
+         */
+        private int queueCapacity = 8192;
+
+        private int consumerThreads = 1;
+
+        /**
+         * Run the consumers on virtual threads, which suits listeners that mostly wait on I/O.
+         */
+        private boolean virtualThreads = false;
+
+        /**
+         * What happens to an event published while the queue is full.
+         */
+        private BackpressurePolicy backpressurePolicy = BackpressurePolicy.BLOCK;
+
+        /**
+         * How long shutdown waits for the consumers to deliver the events still queued.
+         */
+        private Duration shutdownTimeout = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class Sampling {
+        /**
+         * Share of exchanges whose events are published, from 0 to 1.
+         */
+        private double rate = 1.0;
+
+        /**
+         * Rates of particular routes, keyed by the pattern they are mapped to, such as
+         * {@code /users/{id}}. {@code @WebCaptor(sampleRate = ...)} on the handler takes precedence.
+         */
+        private Map<String, Double> routes = new LinkedHashMap<>();
+
+        /**
+         * Header whose value decides whether an exchange is sampled, so that every node keeps the same
+         * exchanges of a trace. For {@code traceparent} only its trace id is used. Exchanges without
+         * the header are sampled at random.
+         */
+        private String keyHeader;
+    }
+
+    public enum EventPipelineMode {
+        SYNC,
+        ASYNC
+    }
+
+    public enum BackpressurePolicy {
+        /**
+         * The publishing thread waits for room in the queue.
+         */
+        BLOCK,
+        /**
+         * The event being published is dropped.
+         */
+        DROP_NEWEST,
+        /**
+         * The oldest queued event is dropped to make room.
+         */
+        DROP_OLDEST,
+        /**
+         * Successful responses and other events are dropped; error responses and request events
+         * wait for room, so failed exchanges are still recorded in full under load. A request event
+         * waits because whether its exchange fails is not known yet.
+         */
+        DROP_SUCCESS_ONLY
+    }
+
+    public enum RequestBodyCaptureMode {
+        EAGER,
+        STREAMING
+    }
+
+    public enum StreamingResponseCaptureMode {
+        FULL,
+        TAIL
     }
 
     @Data
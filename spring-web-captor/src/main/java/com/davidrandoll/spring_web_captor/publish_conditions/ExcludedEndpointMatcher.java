@@ -0,0 +1,177 @@
+package com.davidrandoll.spring_web_captor.publish_conditions;
+
+import com.davidrandoll.spring_web_captor.event.HttpMethodEnum;
+import com.davidrandoll.spring_web_captor.properties.WebCaptorProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.Nullable;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import org.springframework.web.util.pattern.PatternParseException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The excluded-endpoint rules, compiled once. Each rule's methods become a bitmask and its path a
+ * {@link PathPattern}; patterns {@code PathPattern} does not accept, such as {@code /**} in the
+ * middle of a path, keep the {@link AntPathMatcher}. Rules are filed in a trie under the literal
+ * segments their pattern starts with, so a path is only matched against the rules whose prefix it
+ * shares.
+ *
+ * <p>The outcome for a path is the mask of the methods it is excluded for, kept in a bounded LRU
+ * cache; the method of a request is then one bit test.</p>
+ */
+@Slf4j
+public final class ExcludedEndpointMatcher {
+    private static final int ALL_METHODS = (1 << HttpMethodEnum.values().length) - 1;
+
+    private final AntPathMatcher antMatcher;
+    private final Node root = new Node();
+    private final boolean empty;
+    @Nullable
+    private final ConcurrentLruCache<String, Integer> cache;
+
+    public ExcludedEndpointMatcher(List<WebCaptorProperties.ExcludedRequest> rules, AntPathMatcher antMatcher, int cacheSize) {
+        this.antMatcher = antMatcher;
+        int compiled = 0;
+        for (WebCaptorProperties.ExcludedRequest rule : rules) {
+            if (rule.getPath() == null) continue;
+            int methods = toMethods(rule.getMethod());
+            if (methods == 0) continue;
+            root.add(rule.getPath(), new Rule(methods, rule.getPath(), parse(rule.getPath())));
+            compiled++;
+        }
+        root.freeze();
+        this.empty = compiled == 0;
+        this.cache = empty || cacheSize <= 0 ? null : new ConcurrentLruCache<>(cacheSize, this::excludedMethods);
+    }
+
+    public boolean isExcluded(String method, String path) {
+        if (empty) return false;
+        int methods = cache != null ? cache.get(path) : excludedMethods(path);
+        return (methods & bit(HttpMethodEnum.fromValue(method))) != 0;
+    }
+
+    /**
+     * The methods {@code path} is excluded for: the union of the methods of every rule matching it.
+     */
+    private int excludedMethods(String path) {
+        var candidate = new MatchContext(path);
+        int methods = candidate.match(root.rules);
+        Node node = root;
+        int start = 0;
+        while (start < path.length() && methods != ALL_METHODS) {
+            int end = path.indexOf('/', start);
+            if (end < 0) end = path.length();
+            if (end > start) {
+                node = node.children.get(path.substring(start, end));
+                if (node == null) break;
+                methods |= candidate.match(node.rules);
+            }
+            start = end + 1;
+        }
+        return methods;
+    }
+
+    @Nullable
+    private static PathPattern parse(String pattern) {
+        try {
+            return PathPatternParser.defaultInstance.parse(pattern);
+        } catch (PatternParseException e) {
+            log.debug("Excluded endpoint '{}' is matched with AntPathMatcher: {}", pattern, e.getMessage());
+            return null;
+        }
+    }
+
+    private static int bit(HttpMethodEnum method) {
+        return 1 << method.ordinal();
+    }
+
+    private static int toMethods(String method) {
+        String cleaned = method == null ? "*" : method
+                .replaceAll("\\s*", "")
+                .replaceAll("^,|,$", "")
+                .trim();
+
+        if ("*".equalsIgnoreCase(cleaned)) return ALL_METHODS;
+
+        int methods = 0;
+        for (String part : cleaned.split(",")) {
+            HttpMethodEnum parsed = HttpMethodEnum.fromValue(part);
+            if (parsed == HttpMethodEnum.UNKNOWN && !HttpMethodEnum.UNKNOWN.name().equalsIgnoreCase(part)) {
+                log.warn("Invalid HTTP method '{}' in excluded request configuration. Skipping.", part);
+                continue;
+            }
+            methods |= bit(parsed);
+        }
+        return methods;
+    }
+
+    /**
+     * @param pattern {@code null} when the path needs the {@link AntPathMatcher}
+     */
+    private record Rule(int methods, String path, @Nullable PathPattern pattern) {
+    }
+
+    /**
+     * Matches one path against candidate rules, parsing it into a {@link PathContainer} only if a
+     * {@link PathPattern} needs it.
+     */
+    private final class MatchContext {
+        private final String path;
+        private PathContainer container;
+
+        MatchContext(String path) {
+            this.path = path;
+        }
+
+        int match(Rule[] rules) {
+            int methods = 0;
+            for (Rule rule : rules) {
+                if ((methods & rule.methods) == rule.methods) continue;
+                if (matches(rule)) methods |= rule.methods;
+            }
+            return methods;
+        }
+
+        private boolean matches(Rule rule) {
+            if (rule.pattern == null) return antMatcher.match(rule.path, path);
+            if (container == null) container = PathContainer.parsePath(path);
+            return rule.pattern.matches(container);
+        }
+    }
+
+    /**
+     * A literal path segment; holds the rules whose pattern's literal prefix ends here.
+     */
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private final List<Rule> pending = new ArrayList<>();
+        private Rule[] rules;
+
+        void add(String pattern, Rule rule) {
+            Node node = this;
+            for (String segment : pattern.split("/")) {
+                if (segment.isEmpty()) continue;
+                if (isWildcard(segment)) break;
+                node = node.children.computeIfAbsent(segment, key -> new Node());
+            }
+            node.pending.add(rule);
+        }
+
+        void freeze() {
+            rules = pending.toArray(Rule[]::new);
+            pending.clear();
+            children.values().forEach(Node::freeze);
+        }
+
+        private static boolean isWildcard(String segment) {
+            return segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0 || segment.indexOf('{') >= 0;
+        }
+    }
+}
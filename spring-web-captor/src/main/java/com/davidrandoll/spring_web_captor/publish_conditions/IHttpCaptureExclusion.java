@@ -0,0 +1,18 @@
+package com.davidrandoll.spring_web_captor.publish_conditions;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * A publish condition that can tell from the bare request, before anything is wrapped, that an
+ * exchange publishes neither its request nor its response event. Such exchanges go down the filter
+ * chain untouched: no wrappers, no body caching, no events.
+ *
+ * <p>Only looked at on conditions that are also registered as {@link IHttpRequestPublishCondition}
+ * or {@link IHttpResponsePublishCondition} beans.</p>
+ */
+public interface IHttpCaptureExclusion {
+    /**
+     * Whether the exchange is left out; there is no route yet, and the body has not been read.
+     */
+    boolean isExcluded(HttpServletRequest request);
+}
@@ -1,9 +1,10 @@
 package com.davidrandoll.spring_web_captor.publish_conditions;
 
+import com.davidrandoll.spring_web_captor.route.IRouteScoped;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
-public interface IHttpRequestPublishCondition {
+public interface IHttpRequestPublishCondition extends IRouteScoped {
     /**
      * Determines whether the request event should be published.
      */
@@ -1,9 +1,10 @@
 package com.davidrandoll.spring_web_captor.publish_conditions;
 
+import com.davidrandoll.spring_web_captor.route.IRouteScoped;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
-public interface IHttpResponsePublishCondition {
+public interface IHttpResponsePublishCondition extends IRouteScoped {
     /**
      * Determines whether the response event should be published.
      */
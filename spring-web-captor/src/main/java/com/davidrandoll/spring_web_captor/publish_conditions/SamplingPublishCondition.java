@@ -0,0 +1,116 @@
+package com.davidrandoll.spring_web_captor.publish_conditions;
+
+import com.davidrandoll.spring_web_captor.properties.WebCaptorProperties;
+import com.davidrandoll.spring_web_captor.publisher.WebCaptorExchange;
+import com.davidrandoll.spring_web_captor.route.CaptureRoute;
+import com.davidrandoll.spring_web_captor.route.EndpointCapturePolicies;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Publishes only a fraction of the exchanges. The rate of an exchange is, in order of precedence,
+ * the one of its handler's {@code @WebCaptor(sampleRate = ...)}, the one configured for its route
+ * under {@code web-captor.sampling.routes}, or {@code web-captor.sampling.rate}. Routes whose rate
+ * is 1 never reach this condition.
+ *
+ * <p>With {@code web-captor.sampling.key-header} set, an exchange carrying that header is sampled
+ * by a hash of its value rather than at random, so every node and every service keeps the same
+ * traces without coordinating; a service with a lower rate keeps a subset of what one with a
+ * higher rate keeps. The decision is made once per exchange and kept on the request, so its request
+ * and response events are published or dropped together.</p>
+ */
+public class SamplingPublishCondition implements IHttpRequestPublishCondition, IHttpResponsePublishCondition {
+    public static final String SAMPLED_ATTRIBUTE = SamplingPublishCondition.class.getName() + ".SAMPLED";
+    private static final String TRACEPARENT = "traceparent";
+
+    private final double rate;
+    private final Map<String, Double> routeRates = new HashMap<>();
+    @Nullable
+    private final String keyHeader;
+    private final boolean traceparentKey;
+    private final EndpointCapturePolicies policies;
+
+    public SamplingPublishCondition(WebCaptorProperties.Sampling sampling, EndpointCapturePolicies policies) {
+        this.rate = clamp(sampling.getRate());
+        sampling.getRoutes().forEach((pattern, routeRate) -> {
+            if (routeRate != null) routeRates.put(pattern, clamp(routeRate));
+        });
+        this.keyHeader = StringUtils.hasText(sampling.getKeyHeader()) ? sampling.getKeyHeader().trim() : null;
+        this.traceparentKey = TRACEPARENT.equalsIgnoreCase(keyHeader);
+        this.policies = policies;
+    }
+
+    @Override
+    public boolean appliesTo(CaptureRoute route) {
+        return rateFor(route) < 1.0;
+    }
+
+    @Override
+    public boolean shouldPublishRequest(HttpServletRequest request, HttpServletResponse response) {
+        return isSampled(request);
+    }
+
+    @Override
+    public boolean shouldPublishResponse(HttpServletRequest request, HttpServletResponse response) {
+        return isSampled(request);
+    }
+
+    private boolean isSampled(HttpServletRequest request) {
+        if (request.getAttribute(SAMPLED_ATTRIBUTE) instanceof Boolean sampled) return sampled;
+        CaptureRoute route = WebCaptorExchange.routeOf(request);
+        double sampleRate = rateFor(route);
+        // only the global rate applies without a route; with none set, leave the decision for later
+        if (route == null && sampleRate >= 1.0) return true;
+
+        boolean sampled = sampleRate >= 1.0 || sample(request) < sampleRate;
+        request.setAttribute(SAMPLED_ATTRIBUTE, sampled);
+        return sampled;
+    }
+
+    private double rateFor(@Nullable CaptureRoute route) {
+        if (route == null) return rate;
+        double handlerRate = policies.of(route).getSampleRate();
+        if (handlerRate >= 0) return handlerRate;
+        Double routeRate = routeRates.get(route.getPattern());
+        return routeRate != null ? routeRate : rate;
+    }
+
+    /**
+     * A number in [0, 1) that decides the exchange: derived from the key header when it is present.
+     */
+    private double sample(HttpServletRequest request) {
+        String key = keyHeader != null ? request.getHeader(keyHeader) : null;
+        if (key == null || key.isEmpty()) return ThreadLocalRandom.current().nextDouble();
+        // version-traceid-parentid-flags: the parent id differs on every hop
+        if (traceparentKey && key.length() >= 35 && key.charAt(2) == '-') return hash(key, 3, 35);
+        return hash(key, 0, key.length());
+    }
+
+    /**
+     * FNV-1a over the characters of {@code key} in [start, end), spread with the MurmurHash3
+     * finalizer and scaled to [0, 1). Stable across JVMs, and allocation-free.
+     */
+    static double hash(String key, int start, int end) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = start; i < end; i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return (hash >>> 11) * 0x1.0p-53;
+    }
+
+    private static double clamp(double rate) {
+        return Math.max(0.0, Math.min(1.0, rate));
+    }
+}
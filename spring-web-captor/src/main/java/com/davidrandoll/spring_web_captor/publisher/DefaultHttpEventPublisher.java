@@ -1,31 +1,74 @@
 package com.davidrandoll.spring_web_captor.publisher;
 
 import com.davidrandoll.spring_web_captor.event.HttpRequestEvent;
+import com.davidrandoll.spring_web_captor.event.HttpResponseChunkEvent;
 import com.davidrandoll.spring_web_captor.event.HttpResponseEvent;
 import com.davidrandoll.spring_web_captor.extensions.IHttpEventExtension;
 import com.davidrandoll.spring_web_captor.field_captor.registry.IFieldCaptorRegistry;
+import com.davidrandoll.spring_web_captor.publish_conditions.IHttpCaptureExclusion;
 import com.davidrandoll.spring_web_captor.publish_conditions.IHttpRequestPublishCondition;
 import com.davidrandoll.spring_web_captor.publish_conditions.IHttpResponsePublishCondition;
 import com.davidrandoll.spring_web_captor.publisher.request.CachedBodyHttpServletRequest;
 import com.davidrandoll.spring_web_captor.publisher.response.CachedBodyHttpServletResponse;
+import com.davidrandoll.spring_web_captor.route.CaptureRoute;
+import com.davidrandoll.spring_web_captor.route.RouteComponents;
 import com.davidrandoll.spring_web_captor.utils.HttpServletUtils;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.util.ObjectUtils;
+import org.springframework.lang.Nullable;
 
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
 
+/**
+ * Extensions and publish conditions run per route: each exchange that matched a handler only runs
+ * the ones that apply to its route, resolved once per route by {@link RouteComponents}.
+ *
+ * <p>The route and the publish decisions are kept on the {@link WebCaptorExchange}, so the
+ * conditions are asked once per exchange and route, however many steps want to know. Conditions
+ * that are also {@link IHttpCaptureExclusion}s are asked first, before the exchange is wrapped.</p>
+ */
 @Slf4j
-@RequiredArgsConstructor
 public class DefaultHttpEventPublisher implements IHttpEventPublisher {
     private final IWebCaptorEventPublisher publisher;
-    private final List<IHttpEventExtension> httpEventExtensions;
+    private final RouteComponents<IHttpEventExtension> httpEventExtensions;
     private final IFieldCaptorRegistry registry;
-    private final List<IHttpRequestPublishCondition> requestPublishConditions;
-    private final List<IHttpResponsePublishCondition> responsePublishConditions;
+    private final RouteComponents<IHttpRequestPublishCondition> requestPublishConditions;
+    private final RouteComponents<IHttpResponsePublishCondition> responsePublishConditions;
+    private final IHttpCaptureExclusion[] captureExclusions;
+
+    public DefaultHttpEventPublisher(IWebCaptorEventPublisher publisher, @Nullable List<IHttpEventExtension> httpEventExtensions,
+                                     IFieldCaptorRegistry registry,
+                                     @Nullable List<IHttpRequestPublishCondition> requestPublishConditions,
+                                     @Nullable List<IHttpResponsePublishCondition> responsePublishConditions) {
+        this.publisher = publisher;
+        this.registry = registry;
+        this.httpEventExtensions = new RouteComponents<>(toArray(httpEventExtensions, IHttpEventExtension[]::new));
+        this.requestPublishConditions = new RouteComponents<>(toArray(requestPublishConditions, IHttpRequestPublishCondition[]::new));
+        this.responsePublishConditions = new RouteComponents<>(toArray(responsePublishConditions, IHttpResponsePublishCondition[]::new));
+        this.captureExclusions = captureExclusions(this.requestPublishConditions.getAll(), this.responsePublishConditions.getAll());
+    }
+
+    private static IHttpCaptureExclusion[] captureExclusions(Object[]... conditions) {
+        Set<IHttpCaptureExclusion> exclusions = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Object[] group : conditions) {
+            for (Object condition : group) {
+                if (condition instanceof IHttpCaptureExclusion exclusion) exclusions.add(exclusion);
+            }
+        }
+        return exclusions.toArray(IHttpCaptureExclusion[]::new);
+    }
+
+    private static <T> T[] toArray(@Nullable List<T> components, IntFunction<T[]> generator) {
+        return components == null ? generator.apply(0) : components.toArray(generator);
+    }
 
     @Override
     public void publishRequestEvent(HttpServletRequest request, HttpServletResponse response) {
@@ -33,7 +76,7 @@ public class DefaultHttpEventPublisher implements IHttpEventPublisher {
         CachedBodyHttpServletResponse responseWrapper = HttpServletUtils.toCachedBodyHttpServletResponse(response, requestWrapper);
         if (requestWrapper.isPublished()) return;
         HttpRequestEvent requestEvent = requestWrapper.toHttpRequestEvent(registry);
-        for (IHttpEventExtension extension : httpEventExtensions) {
+        for (IHttpEventExtension extension : httpEventExtensions.forRoute(WebCaptorExchange.routeOf(requestWrapper))) {
             try {
                 Map<String, Object> additionalData = extension.enrichRequestEvent(requestWrapper, responseWrapper, requestEvent);
                 requestEvent.addAdditionalData(additionalData);
@@ -55,7 +98,7 @@ public class DefaultHttpEventPublisher implements IHttpEventPublisher {
         HttpRequestEvent requestEvent = requestWrapper.toHttpRequestEvent(registry);
         HttpResponseEvent responseEvent = responseWrapper.toHttpResponseEvent(registry);
 
-        for (IHttpEventExtension extension : httpEventExtensions) {
+        for (IHttpEventExtension extension : httpEventExtensions.forRoute(WebCaptorExchange.routeOf(requestWrapper))) {
             try {
                 Map<String, Object> additionalData = extension.enrichResponseEvent(requestWrapper, responseWrapper, requestEvent, responseEvent);
                 responseEvent.addAdditionalData(additionalData);
@@ -67,17 +110,62 @@ public class DefaultHttpEventPublisher implements IHttpEventPublisher {
         responseWrapper.markAsPublished();
     }
 
+    @Override
+    public void publishResponseChunkEvent(HttpServletRequest request, HttpServletResponse response, int sequence, long offset, byte[] chunk) {
+        CachedBodyHttpServletRequest requestWrapper = HttpServletUtils.toCachedBodyHttpServletRequest(request);
+        Charset charset = HttpServletUtils.getCharset(response.getContentType());
+        HttpResponseChunkEvent chunkEvent = new HttpResponseChunkEvent(requestWrapper.toHttpRequestEvent(registry));
+        chunkEvent.setSequence(sequence);
+        chunkEvent.setOffset(offset);
+        chunkEvent.setChunk(JsonNodeFactory.instance.textNode(new String(chunk, charset)));
+        publisher.publishEvent(chunkEvent);
+    }
+
+    @Override
+    public boolean shouldCapture(HttpServletRequest request) {
+        for (IHttpCaptureExclusion exclusion : captureExclusions) {
+            try {
+                if (exclusion.isExcluded(request)) return false;
+            } catch (Exception e) {
+                log.error("Error checking capture exclusion: {}", exclusion.getClass().getName(), e);
+            }
+        }
+        return true;
+    }
+
     @Override
     public boolean shouldPublishRequestEvent(HttpServletRequest request, HttpServletResponse response) {
-        if (ObjectUtils.isEmpty(requestPublishConditions)) return true;
-        return requestPublishConditions.stream()
-                .allMatch(condition -> condition.shouldPublishRequest(request, response));
+        WebCaptorExchange exchange = WebCaptorExchange.find(request);
+        CaptureRoute route = exchange != null ? exchange.getRoute() : CaptureRoute.from(request);
+        Boolean decided = exchange != null ? exchange.getRequestDecision(route) : null;
+        if (decided != null) return decided;
+
+        boolean publish = true;
+        for (IHttpRequestPublishCondition condition : requestPublishConditions.forRoute(route)) {
+            if (!condition.shouldPublishRequest(request, response)) {
+                publish = false;
+                break;
+            }
+        }
+        if (exchange != null) exchange.setRequestDecision(route, publish);
+        return publish;
     }
 
     @Override
     public boolean shouldPublishResponseEvent(HttpServletRequest request, HttpServletResponse response) {
-        if (ObjectUtils.isEmpty(responsePublishConditions)) return true;
-        return responsePublishConditions.stream()
-                .allMatch(condition -> condition.shouldPublishResponse(request, response));
+        WebCaptorExchange exchange = WebCaptorExchange.find(request);
+        CaptureRoute route = exchange != null ? exchange.getRoute() : CaptureRoute.from(request);
+        Boolean decided = exchange != null ? exchange.getResponseDecision(route) : null;
+        if (decided != null) return decided;
+
+        boolean publish = true;
+        for (IHttpResponsePublishCondition condition : responsePublishConditions.forRoute(route)) {
+            if (!condition.shouldPublishResponse(request, response)) {
+                publish = false;
+                break;
+            }
+        }
+        if (exchange != null) exchange.setResponseDecision(route, publish);
+        return publish;
     }
 }
\ No newline at end of file
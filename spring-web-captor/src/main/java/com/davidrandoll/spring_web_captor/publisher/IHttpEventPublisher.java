@@ -8,4 +8,18 @@ public interface IHttpEventPublisher {
     void publishResponseEvent(HttpServletRequest request, HttpServletResponse response);
     boolean shouldPublishRequestEvent(HttpServletRequest request, HttpServletResponse response);
     boolean shouldPublishResponseEvent(HttpServletRequest request, HttpServletResponse response);
+
+    /**
+     * Whether the exchange is wrapped and captured at all. Asked before anything is wrapped, with the
+     * bare request; captures everything by default.
+     */
+    default boolean shouldCapture(HttpServletRequest request) {
+        return true;
+    }
+
+    /**
+     * Publishes part of a streaming response while it is still being written. No-op by default.
+     */
+    default void publishResponseChunkEvent(HttpServletRequest request, HttpServletResponse response, int sequence, long offset, byte[] chunk) {
+    }
 }
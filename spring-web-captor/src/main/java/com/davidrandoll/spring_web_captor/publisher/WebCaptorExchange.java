@@ -0,0 +1,133 @@
+package com.davidrandoll.spring_web_captor.publisher;
+
+import com.davidrandoll.spring_web_captor.publisher.request.CachedBodyHttpServletRequest;
+import com.davidrandoll.spring_web_captor.publisher.response.CachedBodyHttpServletResponse;
+import com.davidrandoll.spring_web_captor.publisher.response.HttpResponseEventPublisher;
+import com.davidrandoll.spring_web_captor.route.CaptureRoute;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * One exchange as the captor sees it: its wrappers, when it started, the route it was mapped to and
+ * the publish decisions already made for it. It is bound by {@link HttpResponseEventPublisher} when
+ * it first wraps a request and kept under {@link #ATTRIBUTE}, so the interceptor, the publisher, the
+ * captors and the conditions all read the same state instead of unwrapping the request and asking
+ * again.
+ *
+ * <p>A publish decision is remembered together with the route it was made for; before a handler has
+ * matched there is nothing to remember it by, and on the error dispatch the route is {@code /error},
+ * so the conditions are asked again there.</p>
+ */
+@Getter
+public final class WebCaptorExchange {
+    public static final String ATTRIBUTE = WebCaptorExchange.class.getName();
+    /**
+     * Set instead of {@link #ATTRIBUTE} on exchanges left out before they were wrapped.
+     */
+    public static final String EXCLUDED_ATTRIBUTE = ATTRIBUTE + ".EXCLUDED";
+
+    private final CachedBodyHttpServletRequest request;
+    private final CachedBodyHttpServletResponse response;
+    private final long startTimeMillis = System.currentTimeMillis();
+
+    // read from the threads that publish the response event too; each is replaced as a whole
+    @Getter(AccessLevel.NONE)
+    private volatile ResolvedRoute route = ResolvedRoute.NONE;
+    @Getter(AccessLevel.NONE)
+    private volatile Decision requestDecision;
+    @Getter(AccessLevel.NONE)
+    private volatile Decision responseDecision;
+
+    private WebCaptorExchange(CachedBodyHttpServletRequest request, CachedBodyHttpServletResponse response) {
+        this.request = request;
+        this.response = response;
+    }
+
+    /**
+     * The exchange of these wrappers: the one already bound to them, as on an async dispatch, or a
+     * new one replacing whatever an earlier dispatch with other wrappers left behind.
+     */
+    public static WebCaptorExchange bind(CachedBodyHttpServletRequest request, CachedBodyHttpServletResponse response) {
+        WebCaptorExchange existing = find(request);
+        if (existing != null && existing.request == request && existing.response == response) return existing;
+        WebCaptorExchange exchange = new WebCaptorExchange(request, response);
+        request.setAttribute(ATTRIBUTE, exchange);
+        return exchange;
+    }
+
+    @Nullable
+    public static WebCaptorExchange find(ServletRequest request) {
+        return request.getAttribute(ATTRIBUTE) instanceof WebCaptorExchange exchange ? exchange : null;
+    }
+
+    public static void markExcluded(ServletRequest request) {
+        request.setAttribute(EXCLUDED_ATTRIBUTE, Boolean.TRUE);
+    }
+
+    public static boolean isExcluded(ServletRequest request) {
+        return request.getAttribute(EXCLUDED_ATTRIBUTE) != null;
+    }
+
+    /**
+     * The route of {@code request}, from its exchange when it has one.
+     */
+    @Nullable
+    public static CaptureRoute routeOf(HttpServletRequest request) {
+        WebCaptorExchange exchange = find(request);
+        return exchange != null ? exchange.getRoute() : CaptureRoute.from(request);
+    }
+
+    /**
+     * The route the exchange is mapped to, resolved again only when the dispatcher has matched a
+     * different pattern since the last call.
+     */
+    @Nullable
+    public CaptureRoute getRoute() {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        ResolvedRoute resolved = this.route;
+        if (resolved.pattern != pattern) {
+            resolved = new ResolvedRoute(pattern, CaptureRoute.from(request));
+            this.route = resolved;
+        }
+        return resolved.route;
+    }
+
+    /**
+     * The request decision made earlier for {@code route}, or {@code null} if there is none yet.
+     */
+    @Nullable
+    public Boolean getRequestDecision(@Nullable CaptureRoute route) {
+        return requestDecision != null ? requestDecision.forRoute(route) : null;
+    }
+
+    public void setRequestDecision(@Nullable CaptureRoute route, boolean publish) {
+        if (route != null) this.requestDecision = new Decision(route, publish);
+    }
+
+    /**
+     * The response decision made earlier for {@code route}, or {@code null} if there is none yet.
+     */
+    @Nullable
+    public Boolean getResponseDecision(@Nullable CaptureRoute route) {
+        return responseDecision != null ? responseDecision.forRoute(route) : null;
+    }
+
+    public void setResponseDecision(@Nullable CaptureRoute route, boolean publish) {
+        if (route != null) this.responseDecision = new Decision(route, publish);
+    }
+
+    private record ResolvedRoute(@Nullable Object pattern, @Nullable CaptureRoute route) {
+        static final ResolvedRoute NONE = new ResolvedRoute(null, null);
+    }
+
+    private record Decision(CaptureRoute route, boolean publish) {
+        @Nullable
+        Boolean forRoute(@Nullable CaptureRoute route) {
+            return this.route == route ? publish : null;
+        }
+    }
+}
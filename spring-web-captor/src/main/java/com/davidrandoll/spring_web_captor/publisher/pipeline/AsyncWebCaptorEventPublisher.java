@@ -0,0 +1,223 @@
+package com.davidrandoll.spring_web_captor.publisher.pipeline;
+
+import com.davidrandoll.spring_web_captor.event.HttpRequestEvent;
+import com.davidrandoll.spring_web_captor.event.HttpResponseEvent;
+import com.davidrandoll.spring_web_captor.properties.WebCaptorProperties;
+import com.davidrandoll.spring_web_captor.publisher.IWebCaptorEventPublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Takes event publishing off the request thread: events go into an {@link EventRingBuffer} and
+ * consumer threads hand them to the delegate, so slow listeners no longer add to request latency.
+ * When the queue is full the configured {@link WebCaptorProperties.BackpressurePolicy} decides
+ * whether the request thread waits or an event is dropped.
+ *
+ * <p>The counters are cumulative since startup and are meant to be exported to whatever metrics
+ * system the application uses.</p>
+ */
+@Slf4j
+public class AsyncWebCaptorEventPublisher implements IWebCaptorEventPublisher, DisposableBean {
+    private static final long MAX_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    /**
+     * Longest a consumer parks on an empty queue. Offers wake it straight away; the timeout only
+     * bounds how long a missed wake-up could hold an event back.
+     */
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int SPIN_ATTEMPTS = 128;
+
+    private final IWebCaptorEventPublisher delegate;
+    private final WebCaptorProperties.EventPipeline settings;
+    private final EventRingBuffer<Object> queue;
+    private final List<Thread> consumers = new ArrayList<>();
+    /**
+     * Consumers parked on an empty queue, for the next offer to wake.
+     */
+    private final Queue<Thread> parkedConsumers = new ConcurrentLinkedQueue<>();
+    private volatile boolean running = true;
+
+    private final LongAdder enqueuedCount = new LongAdder();
+    private final LongAdder deliveredCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+
+    public AsyncWebCaptorEventPublisher(IWebCaptorEventPublisher delegate, WebCaptorProperties.EventPipeline settings) {
+        this.delegate = delegate;
+        this.settings = settings;
+        this.queue = new EventRingBuffer<>(settings.getQueueCapacity());
+
+        Thread.Builder builder = settings.isVirtualThreads()
+                ? Thread.ofVirtual().name("web-captor-events-", 0)
+                : Thread.ofPlatform().daemon().name("web-captor-events-", 0);
+        for (int i = 0; i < Math.max(1, settings.getConsumerThreads()); i++) {
+            consumers.add(builder.start(this::consume));
+        }
+    }
+
+    @Override
+    public void publishEvent(Object event) {
+        if (!running) {
+            // shutting down: nobody is left to drain the queue
+            deliver(event);
+            return;
+        }
+        if (queue.offer(event)) {
+            enqueued();
+            return;
+        }
+        switch (settings.getBackpressurePolicy()) {
+            case BLOCK -> awaitOffer(event);
+            case DROP_NEWEST -> drop(event);
+            case DROP_OLDEST -> replaceOldest(event);
+            case DROP_SUCCESS_ONLY -> {
+                // a request event does not know yet whether its exchange will fail
+                if (event instanceof HttpRequestEvent || isErrorResponse(event)) awaitOffer(event);
+                else drop(event);
+            }
+        }
+    }
+
+    private void awaitOffer(Object event) {
+        for (int attempt = 0; !queue.offer(event); attempt++) {
+            if (!running) {
+                deliver(event);
+                return;
+            }
+            idle(attempt);
+        }
+        enqueued();
+    }
+
+    private void replaceOldest(Object event) {
+        do {
+            Object oldest = queue.poll();
+            if (oldest != null) drop(oldest);
+        } while (!queue.offer(event));
+        enqueued();
+    }
+
+    private void enqueued() {
+        enqueuedCount.increment();
+        Thread parked = parkedConsumers.poll();
+        if (parked != null) LockSupport.unpark(parked);
+    }
+
+    private void drop(Object event) {
+        droppedCount.increment();
+        log.debug("Event queue full, dropping {}", event.getClass().getSimpleName());
+    }
+
+    private static boolean isErrorResponse(Object event) {
+        return event instanceof HttpResponseEvent responseEvent && responseEvent.isErrorResponse();
+    }
+
+    private void consume() {
+        int attempt = 0;
+        while (running || !queue.isEmpty()) {
+            Object event = queue.poll();
+            if (event == null) {
+                if (attempt < SPIN_ATTEMPTS) idle(attempt++);
+                else park();
+            } else {
+                attempt = 0;
+                deliver(event);
+            }
+        }
+    }
+
+    private void deliver(Object event) {
+        try {
+            delegate.publishEvent(event);
+            deliveredCount.increment();
+        } catch (RuntimeException e) {
+            failedCount.increment();
+            log.error("Error delivering {} to listeners", event.getClass().getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Parks the consumer until the next offer wakes it. It registers before looking at the queue
+     * once more, so an event offered in between is either seen here or finds it to wake.
+     */
+    private void park() {
+        Thread self = Thread.currentThread();
+        parkedConsumers.add(self);
+        if (running && queue.isEmpty()) LockSupport.parkNanos(this, MAX_PARK_NANOS);
+        parkedConsumers.remove(self);
+    }
+
+    /**
+     * Spins, then yields, then parks for increasing periods up to {@link #MAX_IDLE_NANOS}, so a
+     * producer waiting for room reacts within microseconds once a consumer frees a slot.
+     */
+    private static void idle(int attempt) {
+        if (attempt < 64) {
+            Thread.onSpinWait();
+        } else if (attempt < SPIN_ATTEMPTS) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(Math.min(MAX_IDLE_NANOS, 1000L << Math.min(20, attempt - SPIN_ATTEMPTS)));
+        }
+    }
+
+    /**
+     * Stops accepting events, lets the consumers drain the queue within the shutdown timeout and
+     * delivers anything left on the calling thread.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        for (Thread consumer : consumers) {
+            LockSupport.unpark(consumer);
+        }
+        long deadline = System.nanoTime() + settings.getShutdownTimeout().toNanos();
+        for (Thread consumer : consumers) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining > 0) TimeUnit.NANOSECONDS.timedJoin(consumer, remaining);
+        }
+        for (Thread consumer : consumers) {
+            if (consumer.isAlive()) {
+                log.warn("Event consumer {} did not finish within {}", consumer.getName(), settings.getShutdownTimeout());
+                consumer.interrupt();
+            }
+        }
+        for (Object event = queue.poll(); event != null; event = queue.poll()) {
+            deliver(event);
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getQueueCapacity() {
+        return queue.capacity();
+    }
+
+    public long getEnqueuedCount() {
+        return enqueuedCount.sum();
+    }
+
+    public long getDeliveredCount() {
+        return deliveredCount.sum();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * Events whose delivery threw; the exception is logged and the consumer carries on.
+     */
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+}
@@ -0,0 +1,102 @@
+package com.davidrandoll.spring_web_captor.publisher.pipeline;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue over a power-of-two ring. Each slot carries a sequence number that tells
+ * producers and consumers whose turn it is, so {@link #offer} and {@link #poll} claim a slot with a
+ * single CAS and never block. Any thread may call either method: request threads offer events,
+ * consumer threads poll them, and a request thread polls the oldest event to make room under
+ * {@code DROP_OLDEST}.
+ */
+public class EventRingBuffer<E> {
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    /**
+     * For slot {@code i}: equal to the producer position when the slot is free for it, and to that
+     * position + 1 once the element is written and free for a consumer.
+     */
+    private final AtomicLongArray sequences;
+    private final AtomicLong producerPosition = new AtomicLong();
+    private final AtomicLong consumerPosition = new AtomicLong();
+
+    public EventRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds the element if there is room.
+     *
+     * @return false when the queue is full
+     */
+    public boolean offer(E element) {
+        Objects.requireNonNull(element);
+        long position = producerPosition.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long available = sequences.get(index) - position;
+            if (available == 0) {
+                if (producerPosition.compareAndSet(position, position + 1)) {
+                    slots.set(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = producerPosition.get();
+            } else if (available < 0) {
+                // the slot still holds the element from one lap ago
+                return false;
+            } else {
+                position = producerPosition.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest element, or returns {@code null} when the queue is empty.
+     */
+    public E poll() {
+        long position = consumerPosition.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long available = sequences.get(index) - (position + 1);
+            if (available == 0) {
+                if (consumerPosition.compareAndSet(position, position + 1)) {
+                    E element = slots.get(index);
+                    slots.set(index, null);
+                    sequences.set(index, position + mask + 1);
+                    return element;
+                }
+                position = consumerPosition.get();
+            } else if (available < 0) {
+                return null;
+            } else {
+                position = consumerPosition.get();
+            }
+        }
+    }
+
+    /**
+     * Approximate number of queued elements; exact when no thread is offering or polling.
+     */
+    public int size() {
+        long size = producerPosition.get() - consumerPosition.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -2,23 +2,72 @@ package com.davidrandoll.spring_web_captor.publisher.request;
 
 import com.davidrandoll.spring_web_captor.event.HttpRequestEvent;
 import com.davidrandoll.spring_web_captor.field_captor.registry.IFieldCaptorRegistry;
+import com.davidrandoll.spring_web_captor.properties.WebCaptorProperties.RequestBodyCaptureMode;
 import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.lang.NonNull;
-import org.springframework.util.StreamUtils;
-import org.springframework.web.util.ContentCachingRequestWrapper;
+import org.springframework.util.FastByteArrayOutputStream;
+import org.springframework.web.util.WebUtils;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.Map;
 
 import static java.util.Objects.nonNull;
 
+/**
+ * Request wrapper that keeps the body in a single backing array. The same array backs every
+ * re-read through {@link #getInputStream()}, is handed to the body parsers and ends up on the event;
+ * nothing is copied after the body has been read.
+ *
+ * <p>Form posts are handled like Spring's {@code ContentCachingRequestWrapper}: if the parameters
+ * are read before the body, the container consumes the stream, so the body is rebuilt from the
+ * parameter map instead.</p>
+ */
 @Slf4j
-public class CachedBodyHttpServletRequest extends ContentCachingRequestWrapper {
+public class CachedBodyHttpServletRequest extends HttpServletRequestWrapper {
+    private static final int READ_CHUNK_SIZE = 8192;
+    private static final byte[] NO_BODY = new byte[0];
+
     private byte[] cachedBody;
+    /**
+     * Upper bound on the bytes kept in {@link #cachedBody}; negative means unbounded.
+     */
+    private long maxBodyBytes;
+    /**
+     * False when the endpoint opted out of body capture; the body then goes to the handler unbuffered.
+     */
+    private boolean bodyCaptureEnabled = true;
+    private final RequestBodyCaptureMode captureMode;
+    /**
+     * True when the body exceeded {@link #maxBodyBytes} and only its prefix was kept.
+     */
+    @Getter
+    private boolean bodyTruncated;
+    /**
+     * Stream over the kept prefix followed by the not-yet-read remainder of the live body. Handed
+     * out once, to the first reader after capture, so the controller still sees every byte.
+     */
+    private ServletInputStream truncatedBodyStream;
+    /**
+     * Live stream handed to the handler in {@link RequestBodyCaptureMode#STREAMING} mode.
+     */
+    private TeeServletInputStream teeStream;
+    private BufferedReader reader;
     @Getter
     @Setter
     private boolean endpointCalled;
@@ -28,39 +77,222 @@ public class CachedBodyHttpServletRequest extends ContentCachingRequestWrapper {
     private HttpRequestEvent httpRequestEvent;
 
     public CachedBodyHttpServletRequest(HttpServletRequest request) {
+        this(request, -1, RequestBodyCaptureMode.EAGER);
+    }
+
+    public CachedBodyHttpServletRequest(HttpServletRequest request, long maxBodyBytes, RequestBodyCaptureMode captureMode) {
         super(request);
+        this.maxBodyBytes = maxBodyBytes;
+        this.captureMode = captureMode;
     }
 
     public boolean isErrorController(){
         return this.getRequestURI().equalsIgnoreCase("/error");
     }
 
+    /**
+     * True when the body is captured as the handler reads it, so the request event has to wait until
+     * the handler is done with the body. Requests that carry no body are never deferred.
+     */
+    public boolean isStreamingBodyCapture() {
+        if (!bodyCaptureEnabled) return false;
+        if (captureMode != RequestBodyCaptureMode.STREAMING || this.cachedBody != null) return false;
+        return getContentLengthLong() > 0 || getHeader(HttpHeaders.TRANSFER_ENCODING) != null;
+    }
+
+    /**
+     * Applies the capture settings of the endpoint the request was mapped to. Only takes effect
+     * while nothing has read the body yet, which is the case before the handler runs.
+     *
+     * @param maxBodyBytes cap for this endpoint; negative keeps the configured one
+     */
+    public void applyBodyCapturePolicy(boolean captureBody, long maxBodyBytes) {
+        if (this.cachedBody != null || this.teeStream != null) return;
+        this.bodyCaptureEnabled = captureBody;
+        if (maxBodyBytes >= 0) this.maxBodyBytes = maxBodyBytes;
+    }
+
     @Override
     @NonNull
     public ServletInputStream getInputStream() throws IOException {
-        if (this.cachedBody != null) {
-            return new CachedBodyServletInputStream(this.cachedBody);
+        if (!bodyCaptureEnabled && this.cachedBody == null) {
+            return getRequest().getInputStream();
         }
-
-        var cached = super.getContentAsByteArray();
-        if (cached.length > 0) {
-            this.cachedBody = cached;
-        } else {
-            var inputStream = super.getInputStream();
-            this.cachedBody = StreamUtils.copyToByteArray(inputStream);
+        if (this.cachedBody == null && captureMode == RequestBodyCaptureMode.STREAMING) {
+            return teeStream();
+        }
+        if (this.cachedBody == null) {
+            cacheBody();
+        }
+        if (this.truncatedBodyStream != null) {
+            var stream = this.truncatedBodyStream;
+            this.truncatedBodyStream = null;
+            return stream;
         }
         return new CachedBodyServletInputStream(this.cachedBody);
     }
 
+    @Override
+    public String getCharacterEncoding() {
+        String encoding = super.getCharacterEncoding();
+        return encoding != null ? encoding : WebUtils.DEFAULT_CHARACTER_ENCODING;
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        if (this.reader == null) {
+            this.reader = new BufferedReader(new InputStreamReader(getInputStream(), getCharacterEncoding()));
+        }
+        return this.reader;
+    }
+
+    @Override
+    public String getParameter(String name) {
+        cacheFormParametersIfUnread();
+        return super.getParameter(name);
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        cacheFormParametersIfUnread();
+        return super.getParameterMap();
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        cacheFormParametersIfUnread();
+        return super.getParameterNames();
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        cacheFormParametersIfUnread();
+        return super.getParameterValues(name);
+    }
+
+    private TeeServletInputStream teeStream() throws IOException {
+        if (this.teeStream == null) {
+            long contentLength = getContentLengthLong();
+            long expected = maxBodyBytes < 0 ? contentLength : Math.min(contentLength, maxBodyBytes);
+            this.teeStream = new TeeServletInputStream(getRequest().getInputStream(), maxBodyBytes, (int) Math.min(expected, 1 << 20));
+        }
+        return this.teeStream;
+    }
+
+    private void cacheBody() throws IOException {
+        if (captureMode == RequestBodyCaptureMode.STREAMING) {
+            var stream = teeStream();
+            stream.drain();
+            this.cachedBody = stream.getCapturedBody();
+            this.bodyTruncated = stream.isTruncated();
+            return;
+        }
+
+        var inputStream = getRequest().getInputStream();
+        long limit = maxBodyBytes < 0 ? Integer.MAX_VALUE - 8 : Math.min(maxBodyBytes, Integer.MAX_VALUE - 8);
+        this.cachedBody = readBody(inputStream, getContentLengthLong(), (int) limit);
+        if (maxBodyBytes < 0 || this.cachedBody.length < limit) return;
+
+        int next = inputStream.read();
+        if (next != -1) {
+            this.bodyTruncated = true;
+            this.truncatedBodyStream = new PrefixedServletInputStream(this.cachedBody, next, inputStream);
+        }
+    }
+
+    /**
+     * Reads at most {@code limit} bytes. A declared length only sizes the array up to one chunk,
+     * since the client chooses the header; the array grows as bytes actually arrive, up to the
+     * declared length. Without one the chunks are joined once at the end.
+     */
+    private static byte[] readBody(ServletInputStream inputStream, long contentLength, int limit) throws IOException {
+        if (contentLength >= 0) {
+            int expected = (int) Math.min(contentLength, limit);
+            byte[] body = new byte[Math.min(expected, READ_CHUNK_SIZE)];
+            int length = 0;
+            while (true) {
+                length += inputStream.readNBytes(body, length, body.length - length);
+                if (length < body.length || length == expected) break;
+                body = Arrays.copyOf(body, (int) Math.min((long) body.length * 2, expected));
+            }
+            return length == body.length ? body : Arrays.copyOf(body, length);
+        }
+
+        var out = new FastByteArrayOutputStream();
+        byte[] chunk = new byte[READ_CHUNK_SIZE];
+        int remaining = limit;
+        int read;
+        while (remaining > 0 && (read = inputStream.read(chunk, 0, Math.min(chunk.length, remaining))) != -1) {
+            out.write(chunk, 0, read);
+            remaining -= read;
+        }
+        return out.toByteArrayUnsafe();
+    }
+
+    /**
+     * Reading the parameters of a form post makes the container consume the body, so rebuild the
+     * body from the parameter map while it is still unread. An empty map leaves the body alone: the
+     * container did not parse it (as under native images) and the stream is still readable.
+     */
+    private void cacheFormParametersIfUnread() {
+        if (!bodyCaptureEnabled || this.cachedBody != null || this.teeStream != null || !isFormPost()) return;
+
+        try {
+            Charset charset = Charset.forName(getCharacterEncoding());
+            Map<String, String[]> form = super.getParameterMap();
+            if (form.isEmpty()) return;
+            var out = new FastByteArrayOutputStream();
+            for (Iterator<String> nameIterator = form.keySet().iterator(); nameIterator.hasNext(); ) {
+                String name = nameIterator.next();
+                String[] values = form.get(name);
+                for (int i = 0; i < values.length; i++) {
+                    out.write(URLEncoder.encode(name, charset).getBytes(charset));
+                    if (values[i] != null) {
+                        out.write('=');
+                        out.write(URLEncoder.encode(values[i], charset).getBytes(charset));
+                        if (i < values.length - 1) out.write('&');
+                    }
+                }
+                if (nameIterator.hasNext()) out.write('&');
+            }
+            this.cachedBody = out.toByteArrayUnsafe();
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to write request parameters to cached content", ex);
+        }
+    }
+
+    private boolean isFormPost() {
+        String contentType = getContentType();
+        return contentType != null && contentType.contains(MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+                && HttpMethod.POST.matches(getMethod());
+    }
+
+    /**
+     * Returns the captured body. In {@link RequestBodyCaptureMode#STREAMING} mode this finishes the
+     * capture, reading whatever the handler left unread, so call it once the handler is done.
+     * The returned array is the wrapper's own buffer and must not be modified. Empty when the
+     * endpoint opted out of body capture.
+     */
     @SneakyThrows
     public byte[] getCachedBody() {
+        if (!bodyCaptureEnabled && this.cachedBody == null) return NO_BODY;
         if (this.cachedBody == null) {
-            getInputStream();
+            cacheBody();
         }
 
         return this.cachedBody;
     }
 
+    /**
+     * Length of the body as sent by the client. Exact once a streaming capture has finished;
+     * otherwise the declared {@code Content-Length}, which is {@code -1} for chunked bodies.
+     */
+    public long getOriginalBodyLength() {
+        if (this.teeStream != null && this.teeStream.isEof()) return this.teeStream.getBytesRead();
+        if (!this.bodyTruncated && this.cachedBody != null) return this.cachedBody.length;
+        return getContentLengthLong();
+    }
+
     public HttpRequestEvent toHttpRequestEvent(IFieldCaptorRegistry registry) {
         if (nonNull(this.httpRequestEvent)) return this.httpRequestEvent;
 
@@ -74,4 +306,4 @@ public class CachedBodyHttpServletRequest extends ContentCachingRequestWrapper {
     public void markAsPublished() {
         this.isPublished = true;
     }
-}
\ No newline at end of file
+}
@@ -4,29 +4,109 @@ package com.davidrandoll.spring_web_captor.publisher.request;
 import jakarta.servlet.ReadListener;
 import jakarta.servlet.ServletInputStream;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Objects;
 
+/**
+ * Re-readable view over the cached request body. Reads straight from the shared array, so bulk
+ * readers (Jackson, {@code readAllBytes}, {@code transferTo}) copy in one step instead of pulling
+ * the body a byte at a time.
+ *
+ * <p>The whole body is in memory, so the stream is always ready. A {@link ReadListener} is driven
+ * immediately: {@code onDataAvailable} while there is unread data and the listener keeps reading,
+ * then {@code onAllDataRead} once the end is reached.</p>
+ */
 public class CachedBodyServletInputStream extends ServletInputStream {
-    private final InputStream cachedBodyInputStream;
+    private final byte[] buffer;
+    private final int end;
+    private int position;
+    private ReadListener readListener;
+    private boolean allDataReadNotified;
+    /**
+     * True while {@code onDataAvailable} runs; {@code onAllDataRead} is held back until it returns.
+     */
+    private boolean dispatching;
 
     public CachedBodyServletInputStream(byte[] cachedBody) {
-        this.cachedBodyInputStream = new ByteArrayInputStream(cachedBody);
+        this.buffer = cachedBody;
+        this.end = cachedBody.length;
     }
 
     @Override
     public int read() throws IOException {
-        return cachedBodyInputStream.read();
+        if (position >= end) {
+            notifyAllDataRead();
+            return -1;
+        }
+        int b = buffer[position++] & 0xFF;
+        if (position == end) notifyAllDataRead();
+        return b;
     }
 
     @Override
-    public boolean isFinished() {
-        try {
-            return cachedBodyInputStream.available() == 0;
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+    public int read(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        if (len == 0) return 0;
+        if (position >= end) {
+            notifyAllDataRead();
+            return -1;
         }
+        int count = Math.min(len, end - position);
+        System.arraycopy(buffer, position, b, off, count);
+        position += count;
+        if (position == end) notifyAllDataRead();
+        return count;
+    }
+
+    @Override
+    public int readNBytes(byte[] b, int off, int len) throws IOException {
+        int count = read(b, off, len);
+        return count == -1 ? 0 : count;
+    }
+
+    @Override
+    public byte[] readNBytes(int len) throws IOException {
+        if (len < 0) throw new IllegalArgumentException("len < 0");
+        int count = Math.min(len, end - position);
+        byte[] result = Arrays.copyOfRange(buffer, position, position + count);
+        position += count;
+        if (position == end) notifyAllDataRead();
+        return result;
+    }
+
+    @Override
+    public byte[] readAllBytes() throws IOException {
+        return readNBytes(end - position);
+    }
+
+    @Override
+    public long transferTo(OutputStream out) throws IOException {
+        Objects.requireNonNull(out, "out");
+        int count = end - position;
+        out.write(buffer, position, count);
+        position = end;
+        notifyAllDataRead();
+        return count;
+    }
+
+    @Override
+    public long skip(long n) {
+        if (n <= 0) return 0;
+        int count = (int) Math.min(n, end - position);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return end - position;
+    }
+
+    @Override
+    public boolean isFinished() {
+        return position >= end;
     }
 
     @Override
@@ -36,6 +116,32 @@ public class CachedBodyServletInputStream extends ServletInputStream {
 
     @Override
     public void setReadListener(ReadListener readListener) {
+        Objects.requireNonNull(readListener, "readListener");
+        if (this.readListener != null) {
+            throw new IllegalStateException("ReadListener has already been set");
+        }
+        this.readListener = readListener;
+
+        try {
+            // Keep offering data while the listener makes progress; a listener that stops reading
+            // is not called again until it reads, as a container would wait for the next read.
+            int before = -1;
+            while (position < end && position != before) {
+                before = position;
+                dispatching = true;
+                readListener.onDataAvailable();
+                dispatching = false;
+            }
+            if (position >= end) notifyAllDataRead();
+        } catch (Throwable t) {
+            dispatching = false;
+            readListener.onError(t);
+        }
+    }
 
+    private void notifyAllDataRead() throws IOException {
+        if (readListener == null || allDataReadNotified || dispatching) return;
+        allDataReadNotified = true;
+        readListener.onAllDataRead();
     }
 }
@@ -1,25 +1,38 @@
 package com.davidrandoll.spring_web_captor.publisher.request;
 
 import com.davidrandoll.spring_web_captor.publisher.IHttpEventPublisher;
+import com.davidrandoll.spring_web_captor.publisher.WebCaptorExchange;
 import com.davidrandoll.spring_web_captor.publisher.response.CachedBodyHttpServletResponse;
+import com.davidrandoll.spring_web_captor.route.EndpointCapturePolicies;
+import com.davidrandoll.spring_web_captor.route.EndpointCapturePolicy;
 import com.davidrandoll.spring_web_captor.utils.HttpServletUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 import org.springframework.web.servlet.HandlerInterceptor;
 
 @Slf4j
 @RequiredArgsConstructor
 public class HttpRequestEventPublisher implements HandlerInterceptor {
     private final IHttpEventPublisher publisher;
+    private final EndpointCapturePolicies policies;
 
     @Override
     public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) throws Exception {
+        if (WebCaptorExchange.isExcluded(request)) return true;
         CachedBodyHttpServletRequest requestWrapper = HttpServletUtils.toCachedBodyHttpServletRequest(request);
         CachedBodyHttpServletResponse responseWrapper = HttpServletUtils.toCachedBodyHttpServletResponse(response, requestWrapper);
         requestWrapper.setEndpointCalled(true);
+        EndpointCapturePolicy policy = policies.forHandler(handler);
+        if (policy.isStreamingResponse()) responseWrapper.setStreamingResponse(true);
+        requestWrapper.applyBodyCapturePolicy(policy.isRequestBody(), policy.getMaxBodyBytes());
+        responseWrapper.applyBodyCapturePolicy(policy.isResponseBody(), policy.getMaxBodyBytes());
+
+        // With streaming body capture the handler has not read the body yet; publish in afterCompletion.
+        if (requestWrapper.isStreamingBodyCapture()) return true;
 
         boolean shouldPublishRequest = publisher.shouldPublishRequestEvent(requestWrapper, responseWrapper);
         if (!requestWrapper.isErrorController() && shouldPublishRequest) {
@@ -28,4 +41,17 @@ public class HttpRequestEventPublisher implements HandlerInterceptor {
 
         return true;
     }
-}
\ No newline at end of file
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler, @Nullable Exception ex) {
+        if (WebCaptorExchange.isExcluded(request)) return;
+        CachedBodyHttpServletRequest requestWrapper = HttpServletUtils.toCachedBodyHttpServletRequest(request);
+        if (requestWrapper.isPublished() || !requestWrapper.isStreamingBodyCapture()) return;
+
+        CachedBodyHttpServletResponse responseWrapper = HttpServletUtils.toCachedBodyHttpServletResponse(response, requestWrapper);
+        boolean shouldPublishRequest = publisher.shouldPublishRequestEvent(requestWrapper, responseWrapper);
+        if (!requestWrapper.isErrorController() && shouldPublishRequest) {
+            publisher.publishRequestEvent(requestWrapper, responseWrapper);
+        }
+    }
+}
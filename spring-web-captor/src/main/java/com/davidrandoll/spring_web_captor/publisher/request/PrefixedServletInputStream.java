@@ -0,0 +1,73 @@
+package com.davidrandoll.spring_web_captor.publisher.request;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+
+import java.io.IOException;
+
+/**
+ * Replays the captured prefix of a request body and then continues on the live container stream.
+ * Used when the body is larger than {@code web-captor.event-details.max-request-body-bytes}: only
+ * the prefix is kept in memory, the remainder flows straight from the container to the reader.
+ */
+public class PrefixedServletInputStream extends ServletInputStream {
+    private final byte[] prefix;
+    private final ServletInputStream live;
+    private int position;
+    /**
+     * The byte read from the live stream to detect that the body exceeds the cap; replayed right
+     * after the prefix. {@code -1} once consumed.
+     */
+    private int pending;
+
+    public PrefixedServletInputStream(byte[] prefix, int pending, ServletInputStream live) {
+        this.prefix = prefix;
+        this.pending = pending;
+        this.live = live;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (position < prefix.length) {
+            return prefix[position++] & 0xFF;
+        }
+        if (pending >= 0) {
+            int b = pending;
+            pending = -1;
+            return b;
+        }
+        return live.read();
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) return 0;
+        if (position < prefix.length) {
+            int count = Math.min(len, prefix.length - position);
+            System.arraycopy(prefix, position, b, off, count);
+            position += count;
+            return count;
+        }
+        if (pending >= 0) {
+            b[off] = (byte) pending;
+            pending = -1;
+            return 1;
+        }
+        return live.read(b, off, len);
+    }
+
+    @Override
+    public boolean isFinished() {
+        return position >= prefix.length && pending < 0 && live.isFinished();
+    }
+
+    @Override
+    public boolean isReady() {
+        return position < prefix.length || pending >= 0 || live.isReady();
+    }
+
+    @Override
+    public void setReadListener(ReadListener readListener) {
+        live.setReadListener(readListener);
+    }
+}
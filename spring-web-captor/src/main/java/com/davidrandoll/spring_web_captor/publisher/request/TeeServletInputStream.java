@@ -0,0 +1,109 @@
+package com.davidrandoll.spring_web_captor.publisher.request;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.springframework.util.FastByteArrayOutputStream;
+
+import java.io.IOException;
+
+/**
+ * Request-side counterpart of {@code TeeServletOutputStream}: the handler reads the live container
+ * stream and every byte that passes through is copied into the capture buffer, up to
+ * {@code maxBytes}. Bytes past the cap are still counted so the original length is exact.
+ */
+public class TeeServletInputStream extends ServletInputStream {
+    private final ServletInputStream original;
+    private final FastByteArrayOutputStream copy;
+    /**
+     * Upper bound on the bytes copied; negative means unbounded.
+     */
+    private final long maxBytes;
+    private long bytesRead;
+    private boolean eof;
+    /**
+     * Set once the handler registers a {@link ReadListener}; reads must then wait for {@link #isReady()}.
+     */
+    private boolean nonBlocking;
+
+    public TeeServletInputStream(ServletInputStream original, long maxBytes, int initialCapacity) {
+        this.original = original;
+        this.maxBytes = maxBytes;
+        this.copy = new FastByteArrayOutputStream(Math.max(initialCapacity, 256));
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = original.read();
+        if (b == -1) {
+            eof = true;
+            return b;
+        }
+        if (maxBytes < 0 || bytesRead < maxBytes) {
+            copy.write(b);
+        }
+        bytesRead++;
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int count = original.read(b, off, len);
+        if (count == -1) {
+            eof = true;
+            return count;
+        }
+        int toCopy = maxBytes < 0 ? count : (int) Math.max(0, Math.min(count, maxBytes - bytesRead));
+        if (toCopy > 0) {
+            copy.write(b, off, toCopy);
+        }
+        bytesRead += count;
+        return count;
+    }
+
+    /**
+     * Reads what the handler left unread, up to one byte past the cap, so the capture has the
+     * prefix it would have had and knows whether the body was cut. The rest is left to the
+     * container, which swallows unread input at the end of the request anyway. A non-blocking
+     * stream is only read while it is ready, and a read that returns nothing ends the drain.
+     */
+    public void drain() throws IOException {
+        byte[] buffer = new byte[8192];
+        while (!eof && (maxBytes < 0 || bytesRead <= maxBytes)) {
+            if (nonBlocking && !original.isReady()) return;
+            int len = maxBytes < 0 ? buffer.length : (int) Math.min(buffer.length, maxBytes - bytesRead + 1);
+            if (read(buffer, 0, len) == 0) return;
+        }
+    }
+
+    public boolean isEof() {
+        return eof;
+    }
+
+    public boolean isTruncated() {
+        return maxBytes >= 0 && bytesRead > maxBytes;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public byte[] getCapturedBody() {
+        return copy.toByteArrayUnsafe();
+    }
+
+    @Override
+    public boolean isFinished() {
+        return eof || original.isFinished();
+    }
+
+    @Override
+    public boolean isReady() {
+        return original.isReady();
+    }
+
+    @Override
+    public void setReadListener(ReadListener readListener) {
+        original.setReadListener(readListener);
+        nonBlocking = true;
+    }
+}
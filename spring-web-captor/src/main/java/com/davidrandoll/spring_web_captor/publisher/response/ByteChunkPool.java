@@ -0,0 +1,54 @@
+package com.davidrandoll.spring_web_captor.publisher.response;
+
+import lombok.Getter;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool of fixed-size byte chunks backing {@link ResponseBodyBuffer}. When the pool is empty
+ * a fresh chunk is allocated; when it is full a returned chunk is simply dropped for the GC, so the
+ * pool never holds more than {@code maxPooledChunks * chunkSize} bytes.
+ */
+public class ByteChunkPool {
+    public static final int DEFAULT_CHUNK_SIZE = 8 * 1024;
+
+    @Getter
+    private final int chunkSize;
+    private final int maxPooledChunks;
+    private final ConcurrentLinkedQueue<byte[]> chunks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    public ByteChunkPool(int chunkSize, int maxPooledChunks) {
+        if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize must be positive");
+        this.chunkSize = chunkSize;
+        this.maxPooledChunks = Math.max(0, maxPooledChunks);
+    }
+
+    /**
+     * A pool that never keeps chunks; used where no configured pool is available.
+     */
+    public static ByteChunkPool unpooled() {
+        return new ByteChunkPool(DEFAULT_CHUNK_SIZE, 0);
+    }
+
+    public byte[] acquire() {
+        byte[] chunk = chunks.poll();
+        if (chunk == null) return new byte[chunkSize];
+        pooled.decrementAndGet();
+        return chunk;
+    }
+
+    public void release(byte[] chunk) {
+        if (chunk.length != chunkSize) return;
+        if (pooled.incrementAndGet() > maxPooledChunks) {
+            pooled.decrementAndGet();
+            return;
+        }
+        chunks.offer(chunk);
+    }
+
+    public int getPooledChunks() {
+        return pooled.get();
+    }
+}
@@ -34,14 +34,22 @@ public class CachedBodyHttpServletResponse extends TeeHttpServletResponseWrapper
     @Getter
     private boolean errorSent = false;
     private HttpResponseEvent httpResponseEvent;
-    private CompletableFuture<byte[]> responseBodyFuture;
+    private CompletableFuture<ResponseBodyBuffer> responseBodyFuture;
 
     public CachedBodyHttpServletResponse(HttpServletResponse response, CachedBodyHttpServletRequest request) {
-        super(response);
+        this(response, request, ResponseCaptureSettings.defaults());
+    }
+
+    public CachedBodyHttpServletResponse(HttpServletResponse response, CachedBodyHttpServletRequest request, ResponseCaptureSettings captureSettings) {
+        super(response, captureSettings);
         this.request = request;
     }
 
-    public CompletableFuture<byte[]> getResponseBody() throws IOException {
+    /**
+     * Completes with the captured body once the response is done, which for async requests is when
+     * the async context completes. The buffer is read in place; see {@link ResponseBodyBuffer#toInputStream()}.
+     */
+    public CompletableFuture<ResponseBodyBuffer> getResponseBody() throws IOException {
         if (this.responseBodyFuture != null) return this.responseBodyFuture;
 
         this.responseBodyFuture = new CompletableFuture<>();
@@ -74,8 +82,17 @@ public class CachedBodyHttpServletResponse extends TeeHttpServletResponseWrapper
         return responseBodyFuture;
     }
 
-    private void getBody(CompletableFuture<byte[]> future) throws IOException {
-        future.complete(this.getCapturedResponseBody());
+    private void getBody(CompletableFuture<ResponseBodyBuffer> future) throws IOException {
+        this.finishStreamingCapture();
+        future.complete(this.getCapturedResponseBuffer());
+    }
+
+    /**
+     * Returns the capture buffer's chunks to the pool, unless a deferred body took them over. Only
+     * call once the response event has been built, since the body is parsed from the buffer.
+     */
+    public void releaseResponseBody() {
+        this.getCapturedResponseBuffer().release();
     }
 
     public HttpStatus getResponseStatus() {
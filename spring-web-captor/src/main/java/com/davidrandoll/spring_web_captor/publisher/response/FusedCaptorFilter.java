@@ -0,0 +1,62 @@
+package com.davidrandoll.spring_web_captor.publisher.response;
+
+import com.davidrandoll.spring_web_captor.extensions.HttpDurationFilterExtension;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * The captor's three filters as one, enabled with {@code web-captor.fused-filter=true}: the start
+ * time of {@link HttpDurationFilterExtension}, the wrapping and publishing of
+ * {@link HttpResponseEventPublisher} and the safety net of {@link UnhandledExceptionResponseFilter},
+ * nested in that order as they were in the chain, behind a single "already filtered" check.
+ *
+ * <p>Each part keeps the dispatches it ran on as a separate filter: all three on the request
+ * dispatch, only the publisher on the error dispatch, none on async dispatches.</p>
+ */
+@RequiredArgsConstructor
+public class FusedCaptorFilter extends OncePerRequestFilter {
+    private final HttpResponseEventPublisher responsePublisher;
+    private final UnhandledExceptionResponseFilter safetyNet;
+    /**
+     * Whether the duration extension is registered, and so needs the start time.
+     */
+    private final boolean recordStartTime;
+
+    @Override
+    protected boolean shouldNotFilterErrorDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain) throws IOException, ServletException {
+        if (request.getDispatcherType() == DispatcherType.ERROR) {
+            responsePublisher.doFilterInternal(request, response, filterChain);
+            return;
+        }
+        if (recordStartTime) HttpDurationFilterExtension.recordStartTime(request);
+        responsePublisher.doFilterInternal(request, response, new GuardedChain(filterChain));
+    }
+
+    /**
+     * The rest of the chain, run inside the safety net.
+     */
+    @RequiredArgsConstructor
+    private class GuardedChain implements FilterChain {
+        private final FilterChain chain;
+
+        @Override
+        public void doFilter(ServletRequest request, ServletResponse response) throws IOException, ServletException {
+            safetyNet.doFilterInternal((HttpServletRequest) request, (HttpServletResponse) response, chain);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.davidrandoll.spring_web_captor.publisher.response;
 
+import com.davidrandoll.spring_web_captor.properties.WebCaptorProperties;
 import com.davidrandoll.spring_web_captor.publisher.IHttpEventPublisher;
+import com.davidrandoll.spring_web_captor.publisher.WebCaptorExchange;
 import com.davidrandoll.spring_web_captor.publisher.request.CachedBodyHttpServletRequest;
 import com.davidrandoll.spring_web_captor.publisher.request.HttpRequestEventPublisher;
 import com.davidrandoll.spring_web_captor.utils.HttpServletUtils;
@@ -15,12 +17,24 @@ import org.springframework.lang.NonNull;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 
 @Slf4j
 @RequiredArgsConstructor
 public class HttpResponseEventPublisher extends OncePerRequestFilter {
     private final IHttpEventPublisher publisher;
+    private final WebCaptorProperties.EventDetails eventDetails;
+    private final ResponseCaptureSettings captureSettings;
+    /**
+     * Publishes chunk events of open streams; created on first use.
+     */
+    private ScheduledExecutorService chunkScheduler;
 
     /**
      * Run on error dispatches too. When a handler calls {@code response.sendError(...)} (this is
@@ -39,14 +53,24 @@ public class HttpResponseEventPublisher extends OncePerRequestFilter {
      * NOTE: Cannot publish the request event here because the path params are not available here yet.
      * After the filter chain is executed, the path params are available in the requestWrapper object.
      * This is why in the {@link  HttpRequestEventPublisher#preHandle}, the event is published in the preHandle method.
+     * <p>
+     * The wrappers are bound to a {@link WebCaptorExchange} here, which every later step reads them from.
+     * Exchanges {@link IHttpEventPublisher#shouldCapture excluded} up front are not wrapped at all.
      */
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain) throws IOException, ServletException {
-        CachedBodyHttpServletRequest requestWrapper = HttpServletUtils.toCachedBodyHttpServletRequest(request);
-        CachedBodyHttpServletResponse responseWrapper = HttpServletUtils.toCachedBodyHttpServletResponse(response, requestWrapper);
+        // excluded exchanges, such as health probes, are passed on as they are
+        if (!publisher.shouldCapture(request)) {
+            WebCaptorExchange.markExcluded(request);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        CachedBodyHttpServletRequest requestWrapper = HttpServletUtils.toCachedBodyHttpServletRequest(request, eventDetails);
+        CachedBodyHttpServletResponse responseWrapper = HttpServletUtils.toCachedBodyHttpServletResponse(response, requestWrapper, captureSettings);
+        WebCaptorExchange.bind(requestWrapper, responseWrapper);
 
         boolean isErrorDispatch = request.getDispatcherType() == DispatcherType.ERROR;
-        boolean shouldPublishRequest = publisher.shouldPublishRequestEvent(requestWrapper, responseWrapper);
 
         log.debug("HttpResponseEventPublisher: dispatch={} path={}", request.getDispatcherType(), request.getRequestURI());
 
@@ -55,14 +79,21 @@ public class HttpResponseEventPublisher extends OncePerRequestFilter {
 
             // On the original dispatch, fallback-publish the request if the interceptor didn't.
             // On the error dispatch, skip — the original dispatch already published this.
-            if (!isErrorDispatch && !requestWrapper.isPublished() && shouldPublishRequest) {
+            // The conditions are asked after the chain so that route-scoped ones see the route.
+            if (!isErrorDispatch && !requestWrapper.isPublished() && publisher.shouldPublishRequestEvent(requestWrapper, responseWrapper)) {
                 publisher.publishRequestEvent(requestWrapper, responseWrapper);
             }
             if (publisher.shouldPublishResponseEvent(requestWrapper, responseWrapper)) {
                 log.debug("HttpResponseEventPublisher: publishing response on dispatch={} status={}",
                         request.getDispatcherType(), response.getStatus());
-                responseWrapper.getResponseBody()
+                CompletableFuture<ResponseBodyBuffer> responseBody = responseWrapper.getResponseBody();
+                scheduleChunkEvents(requestWrapper, responseWrapper, responseBody);
+                responseBody
                         .thenRun(() -> publisher.publishResponseEvent(requestWrapper, responseWrapper))
+                        // the event holds the parsed body; the capture chunks can go back to the pool
+                        .thenRun(() -> {
+                            if (responseWrapper.isPublished()) responseWrapper.releaseResponseBody();
+                        })
                         .exceptionally(ex -> {
                             log.error("Failed to publish response event", ex);
                             return null;
@@ -78,7 +109,7 @@ public class HttpResponseEventPublisher extends OncePerRequestFilter {
             // now would record an incorrect status that races with — and can overwrite — the
             // correct status produced by the subsequent ERROR dispatch.
             try {
-                if (!isErrorDispatch && !requestWrapper.isPublished() && shouldPublishRequest) {
+                if (!isErrorDispatch && !requestWrapper.isPublished() && publisher.shouldPublishRequestEvent(requestWrapper, responseWrapper)) {
                     publisher.publishRequestEvent(requestWrapper, responseWrapper);
                 }
             } catch (Exception publishEx) {
@@ -87,4 +118,59 @@ public class HttpResponseEventPublisher extends OncePerRequestFilter {
             throw ex;
         }
     }
+
+    /**
+     * While an async response is kept in the tail ring, publishes what was streamed since the last
+     * tick at the configured interval, until the response completes.
+     */
+    private void scheduleChunkEvents(CachedBodyHttpServletRequest requestWrapper, CachedBodyHttpServletResponse responseWrapper,
+                                     CompletableFuture<ResponseBodyBuffer> responseBody) {
+        Duration interval = eventDetails.getStreamingResponseChunkInterval();
+        if (interval == null || !captureSettings.isTailCapture() || !requestWrapper.isAsyncStarted()) return;
+
+        ChunkPublisher chunkPublisher = new ChunkPublisher(requestWrapper, responseWrapper);
+        long period = Math.max(1, interval.toMillis());
+        ScheduledFuture<?> task = getChunkScheduler().scheduleAtFixedRate(chunkPublisher, period, period, TimeUnit.MILLISECONDS);
+        responseBody.whenComplete((body, ex) -> task.cancel(false));
+    }
+
+    private synchronized ScheduledExecutorService getChunkScheduler() {
+        if (chunkScheduler == null) {
+            chunkScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "web-captor-chunk-events");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return chunkScheduler;
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (chunkScheduler != null) chunkScheduler.shutdownNow();
+    }
+
+    /**
+     * Only ever run on the scheduler thread, so its position needs no synchronization.
+     */
+    @RequiredArgsConstructor
+    private class ChunkPublisher implements Runnable {
+        private final CachedBodyHttpServletRequest requestWrapper;
+        private final CachedBodyHttpServletResponse responseWrapper;
+        private long mark;
+        private int sequence;
+
+        @Override
+        public void run() {
+            try {
+                RingBodyBuffer.Slice slice = responseWrapper.readStreamedSince(mark);
+                if (slice == null || slice.bytes().length == 0) return;
+                mark = slice.end();
+                publisher.publishResponseChunkEvent(requestWrapper, responseWrapper, sequence++, slice.offset(), slice.bytes());
+            } catch (Exception e) {
+                // never let an exception cancel the periodic task
+                log.error("Failed to publish response chunk event", e);
+            }
+        }
+    }
 }
@@ -0,0 +1,174 @@
+package com.davidrandoll.spring_web_captor.publisher.response;
+
+import com.davidrandoll.spring_web_captor.event.IRawBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Capture buffer for the response body, built from fixed-size chunks taken from a
+ * {@link ByteChunkPool}. Growing never copies what was already written, and {@link #toInputStream()}
+ * lets parsers read the body straight from the chunks. A deferred body takes the chunks over with
+ * {@link #detach()}, so it outlives the exchange without being copied.
+ *
+ * <p>Not synchronized: the servlet container writes a response from one thread at a time, and an
+ * async hand-off already orders the writes of the threads involved.</p>
+ */
+public class ResponseBodyBuffer extends OutputStream implements IRawBody {
+    private final ByteChunkPool pool;
+    private final List<byte[]> chunks = new ArrayList<>();
+    private byte[] current;
+    /**
+     * Write position within {@link #current}.
+     */
+    private int position;
+    private int size;
+
+    public ResponseBodyBuffer(ByteChunkPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public void write(int b) {
+        if (current == null || position == current.length) nextChunk();
+        current[position++] = (byte) b;
+        size++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        Objects.checkFromIndexSize(off, len, b.length);
+        while (len > 0) {
+            if (current == null || position == current.length) nextChunk();
+            int count = Math.min(len, current.length - position);
+            System.arraycopy(b, off, current, position, count);
+            position += count;
+            size += count;
+            off += count;
+            len -= count;
+        }
+    }
+
+    private void nextChunk() {
+        current = pool.acquire();
+        chunks.add(current);
+        position = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Copies the body into a single array of its exact size.
+     */
+    public byte[] toByteArray() {
+        byte[] result = new byte[size];
+        int offset = 0;
+        for (byte[] chunk : chunks) {
+            int count = Math.min(chunk.length, size - offset);
+            System.arraycopy(chunk, 0, result, offset, count);
+            offset += count;
+        }
+        return result;
+    }
+
+    /**
+     * A stream over the captured bytes that reads the chunks in place. Only valid until
+     * {@link #release()}.
+     */
+    @Override
+    public InputStream toInputStream() {
+        return new ChunkInputStream();
+    }
+
+    /**
+     * Hands the chunks back to the pool and empties the buffer. Call once nothing reads the body
+     * any more; later writes start over with fresh chunks.
+     */
+    @Override
+    public void release() {
+        for (byte[] chunk : chunks) {
+            pool.release(chunk);
+        }
+        chunks.clear();
+        current = null;
+        position = 0;
+        size = 0;
+    }
+
+    /**
+     * Moves the captured chunks into a new buffer, which owns them from then on, and empties this
+     * one; releasing this buffer afterwards leaves them alone.
+     */
+    public ResponseBodyBuffer detach() {
+        ResponseBodyBuffer detached = new ResponseBodyBuffer(pool);
+        detached.chunks.addAll(chunks);
+        detached.current = current;
+        detached.position = position;
+        detached.size = size;
+        chunks.clear();
+        current = null;
+        position = 0;
+        size = 0;
+        return detached;
+    }
+
+    private class ChunkInputStream extends InputStream {
+        private int offset;
+
+        @Override
+        public int read() {
+            if (offset >= size) return -1;
+            int chunkSize = pool.getChunkSize();
+            return chunks.get(offset / chunkSize)[offset++ % chunkSize] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            Objects.checkFromIndexSize(off, len, b.length);
+            if (len == 0) return 0;
+            if (offset >= size) return -1;
+            int chunkSize = pool.getChunkSize();
+            int count = Math.min(len, Math.min(size - offset, chunkSize - offset % chunkSize));
+            System.arraycopy(chunks.get(offset / chunkSize), offset % chunkSize, b, off, count);
+            offset += count;
+            return count;
+        }
+
+        @Override
+        public long skip(long n) {
+            if (n <= 0) return 0;
+            int count = (int) Math.min(n, size - offset);
+            offset += count;
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return size - offset;
+        }
+
+        @Override
+        public long transferTo(OutputStream out) throws IOException {
+            long transferred = 0;
+            int chunkSize = pool.getChunkSize();
+            while (offset < size) {
+                int count = Math.min(size - offset, chunkSize - offset % chunkSize);
+                out.write(chunks.get(offset / chunkSize), offset % chunkSize, count);
+                offset += count;
+                transferred += count;
+            }
+            return transferred;
+        }
+    }
+}
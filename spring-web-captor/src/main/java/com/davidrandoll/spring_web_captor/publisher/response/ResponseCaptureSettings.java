@@ -0,0 +1,71 @@
+package com.davidrandoll.spring_web_captor.publisher.response;
+
+import com.davidrandoll.spring_web_captor.properties.WebCaptorProperties;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+/**
+ * How much of a response body is copied for the event: the chunk pool the copy is built from, the
+ * byte cap, the responses whose body is not copied at all, and how streaming responses are kept.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ResponseCaptureSettings {
+    private final ByteChunkPool chunkPool;
+    /**
+     * Upper bound on the bytes copied; negative means unbounded.
+     */
+    private final long maxBodyBytes;
+    /**
+     * Responses declaring a {@code Content-Length} above this are not copied; negative disables the check.
+     */
+    private final long skipBodyOverBytes;
+    private final List<MediaType> skipContentTypes;
+    private final WebCaptorProperties.StreamingResponseCaptureMode streamingMode;
+    /**
+     * Ring buffer size for streaming responses in {@code TAIL} mode.
+     */
+    private final int streamingTailBytes;
+
+    public static ResponseCaptureSettings defaults() {
+        return new ResponseCaptureSettings(ByteChunkPool.unpooled(), -1, -1, List.of(),
+                WebCaptorProperties.StreamingResponseCaptureMode.FULL, 0);
+    }
+
+    public static ResponseCaptureSettings from(WebCaptorProperties.EventDetails eventDetails) {
+        return new ResponseCaptureSettings(
+                new ByteChunkPool(eventDetails.getResponseBufferChunkSize(), eventDetails.getResponseBufferPoolSize()),
+                eventDetails.getMaxResponseBodyBytes(),
+                eventDetails.getSkipResponseBodyOverBytes(),
+                MediaType.parseMediaTypes(eventDetails.getSkipResponseBodyContentTypes()),
+                eventDetails.getStreamingResponseCaptureMode(),
+                eventDetails.getStreamingResponseTailBytes()
+        );
+    }
+
+    public boolean isTailCapture() {
+        return streamingMode == WebCaptorProperties.StreamingResponseCaptureMode.TAIL;
+    }
+
+    /**
+     * Decided once, when the body is first written: by then the handler has set the headers that
+     * describe it.
+     */
+    public boolean shouldSkipBody(String contentType, long contentLength) {
+        if (skipBodyOverBytes >= 0 && contentLength > skipBodyOverBytes) return true;
+        if (contentType == null || skipContentTypes.isEmpty()) return false;
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            for (MediaType skipped : skipContentTypes) {
+                if (skipped.includes(mediaType)) return true;
+            }
+        } catch (InvalidMediaTypeException e) {
+            // unparseable content type: capture as usual
+        }
+        return false;
+    }
+}
@@ -0,0 +1,78 @@
+package com.davidrandoll.spring_web_captor.publisher.response;
+
+import java.io.OutputStream;
+import java.util.Objects;
+
+/**
+ * Fixed-size ring that keeps the last {@code capacity} bytes of a streaming response. Memory stays
+ * constant however long the stream runs. Synchronized because chunk events read it from the
+ * scheduler thread while the container writes to it.
+ */
+public class RingBodyBuffer extends OutputStream {
+    private final byte[] ring;
+    private long totalWritten;
+
+    public RingBodyBuffer(int capacity) {
+        this.ring = new byte[Math.max(1, capacity)];
+    }
+
+    @Override
+    public synchronized void write(int b) {
+        ring[(int) (totalWritten % ring.length)] = (byte) b;
+        totalWritten++;
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) {
+        Objects.checkFromIndexSize(off, len, b.length);
+        if (len >= ring.length) {
+            // only the last ring.length bytes survive
+            off += len - ring.length;
+            totalWritten += len - ring.length;
+            len = ring.length;
+        }
+        int start = (int) (totalWritten % ring.length);
+        int first = Math.min(len, ring.length - start);
+        System.arraycopy(b, off, ring, start, first);
+        System.arraycopy(b, off + first, ring, 0, len - first);
+        totalWritten += len;
+    }
+
+    public synchronized long getTotalWritten() {
+        return totalWritten;
+    }
+
+    public boolean isOverflowed() {
+        return getTotalWritten() > ring.length;
+    }
+
+    /**
+     * The bytes still held, oldest first.
+     */
+    public synchronized byte[] toByteArray() {
+        return copySince(0).bytes();
+    }
+
+    /**
+     * The bytes written after stream offset {@code from}, limited to what the ring still holds.
+     */
+    public synchronized Slice copySince(long from) {
+        long start = Math.max(from, totalWritten - ring.length);
+        int length = (int) Math.max(0, totalWritten - start);
+        byte[] result = new byte[length];
+        int position = (int) (start % ring.length);
+        int first = Math.min(length, ring.length - position);
+        System.arraycopy(ring, position, result, 0, first);
+        System.arraycopy(ring, 0, result, first, length - first);
+        return new Slice(start, result);
+    }
+
+    /**
+     * Bytes copied out of the ring and the stream offset of the first one.
+     */
+    public record Slice(long offset, byte[] bytes) {
+        public long end() {
+            return offset + bytes.length;
+        }
+    }
+}
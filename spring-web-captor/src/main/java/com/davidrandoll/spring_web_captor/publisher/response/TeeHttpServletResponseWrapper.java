@@ -3,28 +3,249 @@ package com.davidrandoll.spring_web_captor.publisher.response;
 import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
 
 public class TeeHttpServletResponseWrapper extends HttpServletResponseWrapper {
-    private final ByteArrayOutputStream copy = new ByteArrayOutputStream();
+    private final ResponseCaptureSettings captureSettings;
+    private final ResponseBodyBuffer copy;
+    private final CaptureOutputStream capture = new CaptureOutputStream();
     private ServletOutputStream teeStream;
+    private PrintWriter teeWriter;
+    private long declaredContentLength = -1;
+    private boolean captureDecided;
+    /**
+     * Holds the body instead of {@link #copy} while a streaming response is captured in {@code TAIL}
+     * mode. Volatile because chunk events read it from another thread.
+     */
+    private volatile RingBodyBuffer ring;
+    /**
+     * Set before the handler runs when it is known to stream its response; {@code text/event-stream}
+     * responses are recognized by their content type.
+     */
+    @Setter
+    private boolean streamingResponse;
+    /**
+     * True when the response matched a skip rule when it was first written, so no byte was copied.
+     */
+    @Getter
+    private boolean responseBodySkipped;
+    /**
+     * True when the body was not copied in full, either because it hit the byte cap or because it was skipped.
+     */
+    @Getter
+    private boolean responseBodyTruncated;
+    /**
+     * Bytes written to the response body, copied or not.
+     */
+    @Getter
+    private long responseBodyLength;
+    /**
+     * Upper bound on the bytes copied; negative means unbounded.
+     */
+    private long maxBodyBytes;
+    /**
+     * False when the endpoint opted out of body capture.
+     */
+    private boolean bodyCaptureEnabled = true;
 
     public TeeHttpServletResponseWrapper(HttpServletResponse response) {
+        this(response, ResponseCaptureSettings.defaults());
+    }
+
+    public TeeHttpServletResponseWrapper(HttpServletResponse response, ResponseCaptureSettings captureSettings) {
         super(response);
+        this.captureSettings = captureSettings;
+        this.copy = new ResponseBodyBuffer(captureSettings.getChunkPool());
+        this.maxBodyBytes = captureSettings.getMaxBodyBytes();
+    }
+
+    /**
+     * Applies the capture settings of the endpoint the request was mapped to. Only takes effect
+     * while nothing has been written, which is the case before the handler runs.
+     *
+     * @param maxBodyBytes cap for this endpoint; negative keeps the configured one
+     */
+    public void applyBodyCapturePolicy(boolean captureBody, long maxBodyBytes) {
+        if (captureDecided) return;
+        this.bodyCaptureEnabled = captureBody;
+        if (maxBodyBytes >= 0) this.maxBodyBytes = maxBodyBytes;
     }
 
     @Override
     public ServletOutputStream getOutputStream() throws IOException {
         if (teeStream == null) {
-            teeStream = new TeeServletOutputStream(super.getOutputStream(), copy);
+            teeStream = new TeeServletOutputStream(super.getOutputStream(), capture);
         }
         return teeStream;
     }
 
+    /**
+     * The character encoding is fixed once the writer is obtained, so the copy is encoded with the
+     * same charset the container uses for the client.
+     */
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (teeWriter == null) {
+            Charset charset = Charset.forName(getCharacterEncoding());
+            teeWriter = new PrintWriter(new TeeWriter(super.getWriter(), capture, charset));
+        }
+        return teeWriter;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        this.declaredContentLength = len;
+        super.setContentLength(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        this.declaredContentLength = len;
+        super.setContentLengthLong(len);
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) this.declaredContentLength = parseLength(value);
+        super.setHeader(name, value);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) this.declaredContentLength = parseLength(value);
+        super.addHeader(name, value);
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) this.declaredContentLength = value;
+        super.setIntHeader(name, value);
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) this.declaredContentLength = value;
+        super.addIntHeader(name, value);
+    }
+
+    private static long parseLength(String value) {
+        try {
+            return value == null ? -1 : Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Copies the captured body into a new array. Prefer {@link #getCapturedResponseBuffer()} to
+     * read it without copying.
+     */
     public byte[] getCapturedResponseBody() {
         return copy.toByteArray();
     }
-}
 
+    public ResponseBodyBuffer getCapturedResponseBuffer() {
+        return copy;
+    }
+
+    /**
+     * True while a streaming response is being kept in the tail ring.
+     */
+    public boolean isTailCapture() {
+        return ring != null;
+    }
+
+    /**
+     * The streamed bytes after offset {@code from} that the ring still holds, or {@code null} when no
+     * stream is being kept in the ring.
+     */
+    public RingBodyBuffer.Slice readStreamedSince(long from) {
+        RingBodyBuffer current = ring;
+        return current == null ? null : current.copySince(from);
+    }
+
+    /**
+     * Moves the tail of a streamed response into the capture buffer once the stream has completed,
+     * so the response event is built as for any other response.
+     */
+    public void finishStreamingCapture() {
+        RingBodyBuffer current = ring;
+        if (current == null) return;
+        ring = null;
+        byte[] tail = current.toByteArray();
+        copy.write(tail, 0, tail.length);
+        if (current.isOverflowed()) responseBodyTruncated = true;
+    }
+
+    private boolean isEventStream(String contentType) {
+        if (contentType == null) return false;
+        try {
+            return MediaType.TEXT_EVENT_STREAM.isCompatibleWith(MediaType.parseMediaType(contentType));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Receives every byte written to the response and copies what the capture settings allow.
+     */
+    private class CaptureOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+            decideCapture();
+            responseBodyLength++;
+            if (responseBodySkipped) return;
+            RingBodyBuffer current = ring;
+            if (current != null) {
+                current.write(b);
+            } else if (roomFor(1) > 0) {
+                copy.write(b);
+            } else {
+                responseBodyTruncated = true;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            decideCapture();
+            responseBodyLength += len;
+            if (responseBodySkipped) return;
+            RingBodyBuffer current = ring;
+            if (current != null) {
+                current.write(b, off, len);
+                return;
+            }
+            int count = roomFor(len);
+            if (count > 0) copy.write(b, off, count);
+            if (count < len) responseBodyTruncated = true;
+        }
+
+        private int roomFor(int len) {
+            long max = maxBodyBytes;
+            if (max < 0) return len;
+            return (int) Math.max(0, Math.min(len, max - copy.size()));
+        }
+
+        private void decideCapture() {
+            if (captureDecided) return;
+            captureDecided = true;
+            if (!bodyCaptureEnabled) {
+                responseBodySkipped = true;
+            } else if (captureSettings.shouldSkipBody(getContentType(), declaredContentLength)) {
+                responseBodySkipped = true;
+                responseBodyTruncated = true;
+            } else if (captureSettings.isTailCapture() && (streamingResponse || isEventStream(getContentType()))) {
+                ring = new RingBodyBuffer(captureSettings.getStreamingTailBytes());
+            }
+        }
+    }
+}
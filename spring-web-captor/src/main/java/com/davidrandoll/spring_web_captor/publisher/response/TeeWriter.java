@@ -0,0 +1,147 @@
+package com.davidrandoll.spring_web_captor.publisher.response;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Writer counterpart of {@link TeeServletOutputStream}: chars go to the response's own writer and
+ * are encoded, in the response's character encoding, straight into the capture stream. Each chunk
+ * is encoded once through a reusable byte buffer; no intermediate {@code String} is created.
+ */
+public class TeeWriter extends Writer {
+    private static final int ENCODE_BUFFER_SIZE = 1024;
+
+    private final Writer original;
+    private final OutputStream copy;
+    private final CharsetEncoder encoder;
+    private final ByteBuffer encoded = ByteBuffer.allocate(ENCODE_BUFFER_SIZE);
+    /**
+     * Strings and single chars are copied through this array so the encoder takes its array-backed
+     * fast path.
+     */
+    private final CharBuffer stringChars = CharBuffer.allocate(ENCODE_BUFFER_SIZE);
+    /**
+     * A surrogate pair split across writes, put back together.
+     */
+    private final CharBuffer pairChars = CharBuffer.allocate(2);
+    /**
+     * High surrogate left over from the previous write, waiting for its low half.
+     */
+    private char pendingHighSurrogate;
+    private boolean hasPending;
+    private boolean closed;
+
+    public TeeWriter(Writer original, OutputStream copy, Charset charset) {
+        this.original = original;
+        this.copy = copy;
+        this.encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        original.write(c);
+        stringChars.clear();
+        stringChars.put((char) c).flip();
+        encode(stringChars);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        original.write(cbuf, off, len);
+        encode(CharBuffer.wrap(cbuf, off, len));
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        original.write(str, off, len);
+        encodeString(str, off, off + len);
+    }
+
+    @Override
+    public Writer append(CharSequence csq, int start, int end) throws IOException {
+        CharSequence chars = csq == null ? "null" : csq;
+        original.append(chars, start, end);
+        if (chars instanceof String str) {
+            encodeString(str, start, end);
+        } else {
+            encode(CharBuffer.wrap(chars, start, end));
+        }
+        return this;
+    }
+
+    private void encodeString(String str, int start, int end) throws IOException {
+        char[] buffer = stringChars.array();
+        while (start < end) {
+            int count = Math.min(buffer.length, end - start);
+            str.getChars(start, start + count, buffer, 0);
+            stringChars.clear().limit(count);
+            encode(stringChars);
+            start += count;
+        }
+    }
+
+    private void encode(CharBuffer chars) throws IOException {
+        while (hasPending && chars.hasRemaining()) {
+            // complete the surrogate pair split across writes
+            hasPending = false;
+            pairChars.clear();
+            pairChars.put(pendingHighSurrogate).put(chars.get()).flip();
+            encodeChunk(pairChars, false);
+            keepPending(pairChars);
+        }
+        encodeChunk(chars, false);
+        keepPending(chars);
+    }
+
+    /**
+     * The encoder only leaves input behind when it ends on a high surrogate.
+     */
+    private void keepPending(CharBuffer chars) {
+        if (chars.hasRemaining()) {
+            pendingHighSurrogate = chars.get();
+            hasPending = true;
+        }
+    }
+
+    private void encodeChunk(CharBuffer chars, boolean endOfInput) throws IOException {
+        while (true) {
+            CoderResult result = encoder.encode(chars, encoded, endOfInput);
+            drainEncoded();
+            if (result.isUnderflow()) return;
+        }
+    }
+
+    private void drainEncoded() throws IOException {
+        if (encoded.position() == 0) return;
+        copy.write(encoded.array(), 0, encoded.position());
+        encoded.clear();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        original.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        CharBuffer rest = hasPending ? CharBuffer.wrap(new char[]{pendingHighSurrogate}) : CharBuffer.allocate(0);
+        hasPending = false;
+        encodeChunk(rest, true);
+        while (encoder.flush(encoded).isOverflow()) {
+            drainEncoded();
+        }
+        drainEncoded();
+        original.close();
+    }
+}
@@ -0,0 +1,35 @@
+package com.davidrandoll.spring_web_captor.route;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * The handler mapping an exchange was dispatched to: the HTTP method, the best matching pattern
+ * (such as {@code /users/{id}}) rather than the concrete path, and the handler method. Exchanges on
+ * the same route share one capture plan. The handler method is part of the route's identity since
+ * components look at its annotations, and handlers that differ only in params, headers, consumes
+ * or produces share a method and pattern.
+ */
+@Value
+public class CaptureRoute {
+    String method;
+    String pattern;
+    @Nullable
+    HandlerMethod handlerMethod;
+
+    /**
+     * The route of a request, or {@code null} while no handler mapping has matched it: in filters
+     * before the dispatcher runs, and for requests the dispatcher never saw.
+     */
+    @Nullable
+    public static CaptureRoute from(HttpServletRequest request) {
+        if (!(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) instanceof String pattern)) {
+            return null;
+        }
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        return new CaptureRoute(request.getMethod(), pattern, handler instanceof HandlerMethod method ? method : null);
+    }
+}
@@ -0,0 +1,25 @@
+package com.davidrandoll.spring_web_captor.route;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.Map;
+
+/**
+ * The {@link EndpointCapturePolicy} of each handler method, resolved the first time it is asked for
+ * and cached for as long as the handler is reachable. One instance is shared by the components of an
+ * application context, so the cache goes away with the context.
+ */
+public class EndpointCapturePolicies {
+    private final Map<HandlerMethod, EndpointCapturePolicy> policies = new ConcurrentReferenceHashMap<>();
+
+    public EndpointCapturePolicy of(@Nullable CaptureRoute route) {
+        return route == null ? EndpointCapturePolicy.DEFAULT : forHandler(route.getHandlerMethod());
+    }
+
+    public EndpointCapturePolicy forHandler(@Nullable Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) return EndpointCapturePolicy.DEFAULT;
+        return policies.computeIfAbsent(handlerMethod, EndpointCapturePolicy::resolve);
+    }
+}
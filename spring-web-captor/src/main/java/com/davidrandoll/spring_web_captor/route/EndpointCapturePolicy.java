@@ -0,0 +1,62 @@
+package com.davidrandoll.spring_web_captor.route;
+
+import com.davidrandoll.spring_web_captor.annotation.WebCaptor;
+import lombok.Value;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * What to capture for one handler method: the settings of its {@link WebCaptor} annotation and
+ * whether it streams its response. Resolved from the handler's annotations and return type; look
+ * policies up through {@link EndpointCapturePolicies}, which resolves each handler once.
+ */
+@Value
+public class EndpointCapturePolicy {
+    public static final EndpointCapturePolicy DEFAULT = new EndpointCapturePolicy(true, true, -1, -1, false);
+
+    boolean requestBody;
+    boolean responseBody;
+    /**
+     * Negative keeps the configured rate.
+     */
+    double sampleRate;
+    /**
+     * Negative keeps the configured caps.
+     */
+    long maxBodyBytes;
+    /**
+     * True when the handler returns a {@link StreamingResponseBody} or {@link ResponseBodyEmitter}
+     * (including {@code SseEmitter}), directly or inside a {@link ResponseEntity}.
+     */
+    boolean streamingResponse;
+
+    public static EndpointCapturePolicy resolve(HandlerMethod handlerMethod) {
+        WebCaptor annotation = handlerMethod.getMethodAnnotation(WebCaptor.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), WebCaptor.class);
+        }
+        boolean streaming = isStreamingHandler(handlerMethod);
+        if (annotation == null) {
+            return streaming ? new EndpointCapturePolicy(true, true, -1, -1, true) : DEFAULT;
+        }
+        return new EndpointCapturePolicy(annotation.requestBody(), annotation.responseBody(),
+                sampleRate(annotation.sampleRate()), annotation.maxBodyBytes(), streaming);
+    }
+
+    private static double sampleRate(double annotated) {
+        return annotated < 0 ? -1 : Math.min(1.0, annotated);
+    }
+
+    private static boolean isStreamingHandler(HandlerMethod handlerMethod) {
+        ResolvableType returnType = ResolvableType.forMethodParameter(handlerMethod.getReturnType());
+        if (ResponseEntity.class.isAssignableFrom(returnType.toClass())) {
+            returnType = returnType.as(ResponseEntity.class).getGeneric(0);
+        }
+        Class<?> type = returnType.toClass();
+        return StreamingResponseBody.class.isAssignableFrom(type) || ResponseBodyEmitter.class.isAssignableFrom(type);
+    }
+}
@@ -0,0 +1,15 @@
+package com.davidrandoll.spring_web_captor.route;
+
+/**
+ * Field captors, extensions and publish conditions can limit themselves to some routes. Each one is
+ * asked once per route and the answer is kept in that route's capture plan.
+ */
+public interface IRouteScoped {
+    /**
+     * Whether this component runs for exchanges on {@code route}. Exchanges that never matched a
+     * handler have no route and run every component.
+     */
+    default boolean appliesTo(CaptureRoute route) {
+        return true;
+    }
+}
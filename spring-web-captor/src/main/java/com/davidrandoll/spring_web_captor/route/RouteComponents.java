@@ -0,0 +1,66 @@
+package com.davidrandoll.spring_web_captor.route;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentLruCache;
+
+import java.util.Arrays;
+
+/**
+ * An ordered array of components together with the plan of each route: the components that apply
+ * to it, in the same order. A route's plan is resolved the first time the route is seen, after that
+ * an exchange costs one cache lookup. Instances are immutable apart from the plan cache; to change the
+ * components, build a new instance.
+ *
+ * <p>The returned arrays are shared between exchanges and must not be modified.</p>
+ */
+@Slf4j
+public final class RouteComponents<T extends IRouteScoped> {
+    /**
+     * Routes cached at most. A route's method is the one the client sent, and a handler mapped
+     * without a method restriction accepts any, so the cache is bounded to the most recently used
+     * routes rather than filled up by made-up methods.
+     */
+    private static final int MAX_CACHED_ROUTES = 1024;
+
+    private final T[] components;
+    private final ConcurrentLruCache<CaptureRoute, T[]> plans;
+
+    public RouteComponents(T[] components) {
+        this.components = components;
+        this.plans = new ConcurrentLruCache<>(MAX_CACHED_ROUTES, this::resolve);
+    }
+
+    /**
+     * Every component, for exchanges without a route.
+     */
+    public T[] getAll() {
+        return components;
+    }
+
+    public T[] forRoute(@Nullable CaptureRoute route) {
+        if (route == null || components.length == 0) return components;
+        return plans.get(route);
+    }
+
+    private T[] resolve(CaptureRoute route) {
+        T[] applicable = Arrays.copyOf(components, components.length);
+        int count = 0;
+        for (T component : components) {
+            if (appliesTo(component, route)) applicable[count++] = component;
+        }
+        return count == components.length ? components : Arrays.copyOf(applicable, count);
+    }
+
+    /**
+     * A component that fails to answer is kept, the same way it would run without route scoping.
+     */
+    private static boolean appliesTo(IRouteScoped component, CaptureRoute route) {
+        try {
+            return component.appliesTo(route);
+        } catch (Exception e) {
+            log.error("Error resolving route {} {} for: {}", route.getMethod(), route.getPattern(), component.getClass().getName(), e);
+            return true;
+        }
+    }
+}
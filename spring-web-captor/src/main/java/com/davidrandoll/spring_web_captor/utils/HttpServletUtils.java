@@ -1,7 +1,10 @@
 package com.davidrandoll.spring_web_captor.utils;
 
+import com.davidrandoll.spring_web_captor.properties.WebCaptorProperties;
+import com.davidrandoll.spring_web_captor.publisher.WebCaptorExchange;
 import com.davidrandoll.spring_web_captor.publisher.request.CachedBodyHttpServletRequest;
 import com.davidrandoll.spring_web_captor.publisher.response.CachedBodyHttpServletResponse;
+import com.davidrandoll.spring_web_captor.publisher.response.ResponseCaptureSettings;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.experimental.UtilityClass;
@@ -9,6 +12,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
@@ -22,6 +26,9 @@ import java.util.Optional;
 @UtilityClass
 public class HttpServletUtils {
     public static final String DEFAULT_IP = "0.0.0.0";
+    private static final int MAX_CACHED_CHARSETS = 256;
+    private static final ConcurrentLruCache<String, Charset> CHARSETS =
+            new ConcurrentLruCache<>(MAX_CACHED_CHARSETS, HttpServletUtils::parseCharset);
 
     public CachedBodyHttpServletResponse castToCachedBodyHttpServletResponse(@NonNull HttpServletResponse response) {
         if (response instanceof CachedBodyHttpServletResponse cachedBodyHttpServletResponse)
@@ -29,21 +36,52 @@ public class HttpServletUtils {
         throw new ClassCastException("Response is not an instance of CachedBodyHttpServletResponse");
     }
 
+    /**
+     * The wrapper of {@code request}: the request itself, the one its exchange was bound to, or, for
+     * requests the filter never saw, a new one.
+     */
     public CachedBodyHttpServletRequest toCachedBodyHttpServletRequest(@NonNull HttpServletRequest request) {
         if (request instanceof CachedBodyHttpServletRequest cachedBodyHttpServletRequest)
             return cachedBodyHttpServletRequest;
-        // Unwrap through decorator chain (e.g. StandardMultipartHttpServletRequest)
-        CachedBodyHttpServletRequest nested = WebUtils.getNativeRequest(request, CachedBodyHttpServletRequest.class);
-        if (nested != null) return nested;
+        WebCaptorExchange exchange = WebCaptorExchange.find(request);
+        if (exchange != null) return exchange.getRequest();
+        CachedBodyHttpServletRequest existing = findCachedBodyHttpServletRequest(request);
+        if (existing != null) return existing;
         return new CachedBodyHttpServletRequest(request);
     }
 
+    /**
+     * Used where the filter wraps a dispatch, so it ignores the exchange: an error dispatch carries the
+     * container's request, not the wrapper an earlier dispatch bound its exchange to.
+     */
+    public CachedBodyHttpServletRequest toCachedBodyHttpServletRequest(@NonNull HttpServletRequest request, @NonNull WebCaptorProperties.EventDetails eventDetails) {
+        CachedBodyHttpServletRequest existing = findCachedBodyHttpServletRequest(request);
+        if (existing != null) return existing;
+        return new CachedBodyHttpServletRequest(request, eventDetails.getMaxRequestBodyBytes(), eventDetails.getRequestBodyCaptureMode());
+    }
+
+    @Nullable
+    private CachedBodyHttpServletRequest findCachedBodyHttpServletRequest(@NonNull HttpServletRequest request) {
+        if (request instanceof CachedBodyHttpServletRequest cachedBodyHttpServletRequest)
+            return cachedBodyHttpServletRequest;
+        // Unwrap through decorator chain (e.g. StandardMultipartHttpServletRequest)
+        return WebUtils.getNativeRequest(request, CachedBodyHttpServletRequest.class);
+    }
+
     public CachedBodyHttpServletResponse toCachedBodyHttpServletResponse(@NonNull HttpServletResponse response, CachedBodyHttpServletRequest requestWrapper) {
         if (response instanceof CachedBodyHttpServletResponse cachedBodyHttpServletResponse)
             return cachedBodyHttpServletResponse;
+        WebCaptorExchange exchange = WebCaptorExchange.find(requestWrapper);
+        if (exchange != null && exchange.getRequest() == requestWrapper) return exchange.getResponse();
         return new CachedBodyHttpServletResponse(response, requestWrapper);
     }
 
+    public CachedBodyHttpServletResponse toCachedBodyHttpServletResponse(@NonNull HttpServletResponse response, CachedBodyHttpServletRequest requestWrapper, @NonNull ResponseCaptureSettings captureSettings) {
+        if (response instanceof CachedBodyHttpServletResponse cachedBodyHttpServletResponse)
+            return cachedBodyHttpServletResponse;
+        return new CachedBodyHttpServletResponse(response, requestWrapper, captureSettings);
+    }
+
     private static final String[] IP_HEADER_CANDIDATES = {
             "X-Forwarded-For",
             "Proxy-Client-IP",
@@ -92,17 +130,24 @@ public class HttpServletUtils {
         return ((ServletRequestAttributes) attributes).getRequest();
     }
 
+    /**
+     * Charset named by a {@code Content-Type}, UTF-8 when there is none. Results are cached per
+     * distinct header value; the {@link #MAX_CACHED_CHARSETS} most recently used are kept.
+     */
     public static Charset getCharset(String contentType) {
+        if (contentType == null) return StandardCharsets.UTF_8;
+        return CHARSETS.get(contentType);
+    }
+
+    private static Charset parseCharset(String contentType) {
         Charset charset = null;
-        if (contentType != null) {
-            try {
-                MediaType mediaType = MediaType.parseMediaType(contentType);
-                if (mediaType.getCharset() != null) {
-                    charset = mediaType.getCharset();
-                }
-            } catch (Exception e) {
-                // Ignore parsing errors, fallback to UTF-8
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            if (mediaType.getCharset() != null) {
+                charset = mediaType.getCharset();
             }
+        } catch (Exception e) {
+            // Ignore parsing errors, fallback to UTF-8
         }
         return Optional.ofNullable(charset)
                 .orElse(StandardCharsets.UTF_8);
@@ -0,0 +1,127 @@
+package com.davidrandoll.spring_web_captor.annotation;
+
+import com.davidrandoll.spring_web_captor.WebCaptorApplication;
+import com.davidrandoll.spring_web_captor.event.HttpRequestEvent;
+import com.davidrandoll.spring_web_captor.event.HttpResponseEvent;
+import com.davidrandoll.spring_web_captor.route.EndpointCapturePolicies;
+import com.davidrandoll.spring_web_captor.route.EndpointCapturePolicy;
+import com.davidrandoll.spring_web_captor.setup.EventCaptureListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, classes = WebCaptorApplication.class)
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class WebCaptorAnnotationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EventCaptureListener eventCaptureListener;
+
+    @Autowired
+    private EndpointCapturePolicies policies;
+
+    @BeforeEach
+    void setUp() {
+        eventCaptureListener.clearEvents();
+    }
+
+    @Test
+    void classLevelAnnotationDisablesResponseBody() throws Exception {
+        mockMvc.perform(get("/test/annotation/class-level"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("hidden response"));
+
+        HttpResponseEvent event = eventCaptureListener.getResponseEvents().getFirst();
+        assertThat(event.getResponseStatus().value()).isEqualTo(200);
+        assertThat(event.getResponseBody()).isNull();
+    }
+
+    @Test
+    void methodAnnotationReplacesClassAnnotation() throws Exception {
+        mockMvc.perform(get("/test/annotation/method-override"))
+                .andExpect(status().isOk());
+
+        HttpResponseEvent event = eventCaptureListener.getResponseEvents().getFirst();
+        assertThat(event.getResponseBody().asText()).isEqualTo("visible response");
+    }
+
+    @Test
+    void requestBodyIsPassedThroughWithoutCapture() throws Exception {
+        mockMvc.perform(post("/test/annotation/no-request-body")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("secret payload"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("secret payload"));
+
+        HttpRequestEvent event = eventCaptureListener.getRequestEvents().getFirst();
+        assertThat(event.getBodyPayload()).isNull();
+        assertThat(event.getPath()).isEqualTo("/test/annotation/no-request-body");
+    }
+
+    @Test
+    void maxBodyBytesCapsRequestAndResponseBodies() throws Exception {
+        mockMvc.perform(post("/test/annotation/capped")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("0123456789abcdef"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("0123456789abcdef"));
+
+        HttpRequestEvent requestEvent = eventCaptureListener.getRequestEvents().getFirst();
+        assertThat(requestEvent.getBodyPayload().isTruncated()).isTrue();
+        assertThat(requestEvent.getBodyPayload().getBody().asText()).isEqualTo("01234567");
+
+        HttpResponseEvent responseEvent = eventCaptureListener.getResponseEvents().getFirst();
+        assertThat(responseEvent.isResponseBodyTruncated()).isTrue();
+        assertThat(responseEvent.getResponseBody().asText()).isEqualTo("01234567");
+    }
+
+    @Test
+    void zeroSampleRatePublishesNothing() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/test/annotation/never-sampled"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("not published"));
+        }
+
+        assertThat(eventCaptureListener.getRequestEvents()).isEmpty();
+        assertThat(eventCaptureListener.getResponseEvents()).isEmpty();
+    }
+
+    @Test
+    void policyIsResolvedOncePerHandlerMethod() throws Exception {
+        var handler = new HandlerMethod(new WebCaptorTestController(), WebCaptorTestController.class.getMethod("capped", String.class));
+
+        EndpointCapturePolicy policy = policies.forHandler(handler);
+
+        assertThat(policy.getMaxBodyBytes()).isEqualTo(8);
+        assertThat(policy.isResponseBody()).isTrue();
+        assertThat(policies.forHandler(handler)).isSameAs(policy);
+    }
+
+    @Test
+    void handlersSharingAPatternKeepTheirOwnAnnotations() throws Exception {
+        mockMvc.perform(get("/test/annotation/same-route")).andExpect(status().isOk());
+        mockMvc.perform(get("/test/annotation/same-route").param("hidden", "true")).andExpect(status().isOk());
+
+        var events = eventCaptureListener.getResponseEvents();
+        assertThat(events).hasSize(2);
+        assertThat(events.get(0).getResponseBody().asText()).isEqualTo("visible response");
+        assertThat(events.get(1).getResponseBody()).isNull();
+    }
+}
@@ -0,0 +1,54 @@
+package com.davidrandoll.spring_web_captor.annotation;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/test/annotation")
+@WebCaptor(responseBody = false)
+public class WebCaptorTestController {
+
+    @GetMapping("/class-level")
+    public ResponseEntity<String> classLevel() {
+        return ResponseEntity.ok("hidden response");
+    }
+
+    @WebCaptor
+    @GetMapping("/method-override")
+    public ResponseEntity<String> methodOverride() {
+        return ResponseEntity.ok("visible response");
+    }
+
+    @WebCaptor(requestBody = false)
+    @PostMapping("/no-request-body")
+    public ResponseEntity<String> noRequestBody(@RequestBody String body) {
+        return ResponseEntity.ok(body);
+    }
+
+    @WebCaptor(maxBodyBytes = 8)
+    @PostMapping("/capped")
+    public ResponseEntity<String> capped(@RequestBody String body) {
+        return ResponseEntity.ok(body);
+    }
+
+    @WebCaptor(sampleRate = 0)
+    @GetMapping("/never-sampled")
+    public ResponseEntity<String> neverSampled() {
+        return ResponseEntity.ok("not published");
+    }
+
+    @WebCaptor
+    @GetMapping(value = "/same-route", params = "!hidden")
+    public ResponseEntity<String> sameRouteVisible() {
+        return ResponseEntity.ok("visible response");
+    }
+
+    @GetMapping(value = "/same-route", params = "hidden")
+    public ResponseEntity<String> sameRouteHidden() {
+        return ResponseEntity.ok("hidden response");
+    }
+}
@@ -1,5 +1,6 @@
 package com.davidrandoll.spring_web_captor.app_property;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -12,6 +13,11 @@ public class PropertyCaptureTestController {
         return ResponseEntity.ok("OK");
     }
 
+    @PostMapping("/echo-length")
+    public ResponseEntity<String> echoLength(@RequestBody String body) {
+        return ResponseEntity.ok(String.valueOf(body.length()));
+    }
+
     @GetMapping("/path-param/{id}")
     public ResponseEntity<String> pathParam(@PathVariable String id) {
         return ResponseEntity.ok("ID: " + id);
@@ -39,6 +45,20 @@ public class PropertyCaptureTestController {
         return ResponseEntity.ok("Response Body Content");
     }
 
+    @GetMapping("/sized-body/{size}")
+    public ResponseEntity<String> sizedBody(@PathVariable int size) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_PLAIN)
+                .body("z".repeat(size));
+    }
+
+    @GetMapping("/download/{size}")
+    public ResponseEntity<byte[]> download(@PathVariable int size) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(new byte[size]);
+    }
+
     @GetMapping("/error-detail")
     public ResponseEntity<String> errorDetail() {
         throw new RuntimeException("Simulated error for testing");
@@ -1,6 +1,7 @@
 package com.davidrandoll.spring_web_captor.app_property.conditional_path;
 
 import com.davidrandoll.spring_web_captor.WebCaptorApplication;
+import com.davidrandoll.spring_web_captor.publisher.WebCaptorExchange;
 import com.davidrandoll.spring_web_captor.setup.EventCaptureListener;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,9 +11,15 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, classes = WebCaptorApplication.class)
@@ -41,4 +48,20 @@ public class ExcludedEndpointTest {
         assertTrue(eventCaptureListener.getRequestEvents().isEmpty(), "Request event should not be published");
         assertTrue(eventCaptureListener.getResponseEvents().isEmpty(), "Response event should not be published");
     }
+
+    @Test
+    void excludedRequestIsNotWrapped() throws Exception {
+        MvcResult excluded = mockMvc.perform(get("/test/excluded"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("OK"))
+                .andReturn();
+        MvcResult captured = mockMvc.perform(post("/test/excluded"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertNull(excluded.getRequest().getAttribute(WebCaptorExchange.ATTRIBUTE));
+        assertTrue(WebCaptorExchange.isExcluded(excluded.getRequest()));
+        assertNotNull(captured.getRequest().getAttribute(WebCaptorExchange.ATTRIBUTE));
+        assertEquals(1, eventCaptureListener.getRequestEvents().size());
+    }
 }
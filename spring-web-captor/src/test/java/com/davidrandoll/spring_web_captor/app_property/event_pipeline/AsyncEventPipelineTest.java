@@ -0,0 +1,67 @@
+package com.davidrandoll.spring_web_captor.app_property.event_pipeline;
+
+import com.davidrandoll.spring_web_captor.WebCaptorApplication;
+import com.davidrandoll.spring_web_captor.event.HttpResponseEvent;
+import com.davidrandoll.spring_web_captor.publisher.IWebCaptorEventPublisher;
+import com.davidrandoll.spring_web_captor.publisher.pipeline.AsyncWebCaptorEventPublisher;
+import com.davidrandoll.spring_web_captor.setup.EventCaptureListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, classes = WebCaptorApplication.class)
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "web-captor.event-pipeline.mode=async",
+        "web-captor.event-pipeline.consumer-threads=2",
+        "web-captor.event-pipeline.backpressure-policy=drop-success-only"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AsyncEventPipelineTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EventCaptureListener eventCaptureListener;
+    @Autowired
+    private IWebCaptorEventPublisher webCaptorEventPublisher;
+
+    @BeforeEach
+    void setup() {
+        eventCaptureListener.clearEvents();
+    }
+
+    @Test
+    void testEventsReachListenersThroughTheQueue() throws Exception {
+        assertThat(webCaptorEventPublisher).isInstanceOf(AsyncWebCaptorEventPublisher.class);
+        var pipeline = (AsyncWebCaptorEventPublisher) webCaptorEventPublisher;
+        long deliveredBefore = pipeline.getDeliveredCount();
+
+        mockMvc.perform(get("/test/property/response-status/404"))
+                .andExpect(status().isNotFound());
+
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> {
+            assertThat(eventCaptureListener.getRequestEvents()).hasSize(1);
+            assertThat(eventCaptureListener.getResponseEvents()).hasSize(1);
+        });
+        HttpResponseEvent event = eventCaptureListener.getResponseEvents().getFirst();
+        assertThat(event.getResponseStatus()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(event.getPath()).isEqualTo("/test/property/response-status/404");
+        assertThat(pipeline.getDeliveredCount() - deliveredBefore).isEqualTo(2);
+        assertThat(pipeline.getDroppedCount()).isZero();
+        assertThat(pipeline.getQueueCapacity()).isEqualTo(8192);
+    }
+}
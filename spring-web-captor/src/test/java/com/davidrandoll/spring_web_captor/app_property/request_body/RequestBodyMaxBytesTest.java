@@ -0,0 +1,94 @@
+package com.davidrandoll.spring_web_captor.app_property.request_body;
+
+import com.davidrandoll.spring_web_captor.WebCaptorApplication;
+import com.davidrandoll.spring_web_captor.setup.EventCaptureListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, classes = WebCaptorApplication.class)
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "web-captor.event-details.max-request-body-bytes=16"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RequestBodyMaxBytesTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EventCaptureListener eventCaptureListener;
+
+    @BeforeEach
+    void setup() {
+        eventCaptureListener.clearEvents();
+    }
+
+    @Test
+    void testBodyOverCapIsTruncatedButControllerSeesEverything() throws Exception {
+        String body = "x".repeat(1000);
+        mockMvc.perform(post("/test/property/echo-length")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().string("1000"));
+
+        var payload = eventCaptureListener.getRequestEvents().getFirst().getBodyPayload();
+        assertTrue(payload.isTruncated());
+        assertEquals(1000L, payload.getOriginalLength());
+        assertEquals("x".repeat(16), payload.getBody().asText());
+    }
+
+    @Test
+    void testTruncatedJsonIsKeptAsText() throws Exception {
+        String body = "{\"items\":[" + "1,".repeat(100) + "1]}";
+        mockMvc.perform(post("/test/property/echo-length")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk());
+
+        var payload = eventCaptureListener.getRequestEvents().getFirst().getBodyPayload();
+        assertTrue(payload.isTruncated());
+        assertTrue(payload.getBody().isTextual());
+        assertEquals(body.substring(0, 16), payload.getBody().asText());
+    }
+
+    @Test
+    void testBodyUnderCapIsCapturedInFull() throws Exception {
+        mockMvc.perform(post("/test/property/echo-length")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("short"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("5"));
+
+        var payload = eventCaptureListener.getRequestEvents().getFirst().getBodyPayload();
+        assertFalse(payload.isTruncated());
+        assertNull(payload.getOriginalLength());
+        assertEquals("short", payload.getBody().asText());
+    }
+
+    @Test
+    void testBodyExactlyAtCapIsNotTruncated() throws Exception {
+        String body = "y".repeat(16);
+        mockMvc.perform(post("/test/property/echo-length")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().string("16"));
+
+        var payload = eventCaptureListener.getRequestEvents().getFirst().getBodyPayload();
+        assertFalse(payload.isTruncated());
+        assertEquals(body, payload.getBody().asText());
+    }
+}
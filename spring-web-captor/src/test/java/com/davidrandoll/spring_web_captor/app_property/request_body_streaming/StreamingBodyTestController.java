@@ -0,0 +1,32 @@
+package com.davidrandoll.spring_web_captor.app_property.request_body_streaming;
+
+import com.davidrandoll.spring_web_captor.setup.EventCaptureListener;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Reports how many request events had been published by the time the handler ran, so tests can
+ * tell whether the request event waited for the handler.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/test/streaming-body")
+public class StreamingBodyTestController {
+    private final EventCaptureListener eventCaptureListener;
+
+    @PostMapping("/echo-length")
+    public ResponseEntity<String> echoLength(@RequestBody String body) {
+        return ResponseEntity.ok(body.length() + ":" + eventCaptureListener.getRequestEvents().size());
+    }
+
+    @PostMapping("/ignore-body")
+    public ResponseEntity<String> ignoreBody() {
+        return ResponseEntity.ok(String.valueOf(eventCaptureListener.getRequestEvents().size()));
+    }
+
+    @GetMapping("/no-body")
+    public ResponseEntity<String> noBody() {
+        return ResponseEntity.ok(String.valueOf(eventCaptureListener.getRequestEvents().size()));
+    }
+}
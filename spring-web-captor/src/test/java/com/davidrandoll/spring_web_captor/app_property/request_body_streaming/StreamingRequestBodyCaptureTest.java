@@ -0,0 +1,100 @@
+package com.davidrandoll.spring_web_captor.app_property.request_body_streaming;
+
+import com.davidrandoll.spring_web_captor.WebCaptorApplication;
+import com.davidrandoll.spring_web_captor.setup.EventCaptureListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, classes = WebCaptorApplication.class)
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "web-captor.event-details.request-body-capture-mode=streaming",
+        "web-captor.event-details.max-request-body-bytes=32"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StreamingRequestBodyCaptureTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EventCaptureListener eventCaptureListener;
+
+    @BeforeEach
+    void setup() {
+        eventCaptureListener.clearEvents();
+    }
+
+    @Test
+    void testRequestEventIsPublishedAfterHandlerReadsBody() throws Exception {
+        mockMvc.perform(post("/test/streaming-body/echo-length")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"key\":\"value\"}"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("15:0"));
+
+        assertEquals(1, eventCaptureListener.getRequestEvents().size());
+        var requestEvent = eventCaptureListener.getRequestEvents().getFirst();
+        assertEquals("value", requestEvent.getRequestBody().get("key").asText());
+        assertFalse(requestEvent.getBodyPayload().isTruncated());
+    }
+
+    @Test
+    void testBodyOverCapIsTruncatedWithExactOriginalLength() throws Exception {
+        String body = "z".repeat(500);
+        mockMvc.perform(post("/test/streaming-body/echo-length")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().string("500:0"));
+
+        var payload = eventCaptureListener.getRequestEvents().getFirst().getBodyPayload();
+        assertTrue(payload.isTruncated());
+        assertEquals(500L, payload.getOriginalLength());
+        assertEquals("z".repeat(32), payload.getBody().asText());
+    }
+
+    @Test
+    void testBodyUnreadByHandlerIsStillCaptured() throws Exception {
+        mockMvc.perform(post("/test/streaming-body/ignore-body")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("never read"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("0"));
+
+        var requestEvent = eventCaptureListener.getRequestEvents().getFirst();
+        assertEquals("never read", requestEvent.getRequestBody().asText());
+    }
+
+    @Test
+    void testRequestWithoutBodyIsPublishedBeforeHandler() throws Exception {
+        mockMvc.perform(get("/test/streaming-body/no-body"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("1"));
+
+        assertEquals(1, eventCaptureListener.getRequestEvents().size());
+    }
+
+    @Test
+    void testResponseEventCarriesStreamedRequestBody() throws Exception {
+        mockMvc.perform(post("/test/streaming-body/echo-length")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"a\":1}"))
+                .andExpect(status().isOk());
+
+        var responseEvent = eventCaptureListener.getResponseEvents().getFirst();
+        assertEquals(1, responseEvent.getRequestBody().get("a").asInt());
+    }
+}
@@ -0,0 +1,86 @@
+package com.davidrandoll.spring_web_captor.app_property.response_body;
+
+import com.davidrandoll.spring_web_captor.WebCaptorApplication;
+import com.davidrandoll.spring_web_captor.setup.EventCaptureListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, classes = WebCaptorApplication.class)
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "web-captor.event-details.max-response-body-bytes=16",
+        "web-captor.event-details.skip-response-body-over-bytes=4096",
+        "web-captor.event-details.skip-response-body-content-types=application/octet-stream"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ResponseBodyMaxBytesTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EventCaptureListener eventCaptureListener;
+
+    @BeforeEach
+    void setup() {
+        eventCaptureListener.clearEvents();
+    }
+
+    @Test
+    void testBodyOverCapIsTruncatedButClientGetsEverything() throws Exception {
+        mockMvc.perform(get("/test/property/sized-body/1000"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("z".repeat(1000)));
+
+        var event = eventCaptureListener.getResponseEvents().getFirst();
+        assertTrue(event.isResponseBodyTruncated());
+        assertEquals(1000L, event.getResponseBodyOriginalLength());
+        assertEquals("z".repeat(16), event.getResponseBody().asText());
+    }
+
+    @Test
+    void testBodyUnderCapIsCapturedInFull() throws Exception {
+        mockMvc.perform(get("/test/property/sized-body/5"))
+                .andExpect(status().isOk());
+
+        var event = eventCaptureListener.getResponseEvents().getFirst();
+        assertFalse(event.isResponseBodyTruncated());
+        assertNull(event.getResponseBodyOriginalLength());
+        assertEquals("zzzzz", event.getResponseBody().asText());
+    }
+
+    @Test
+    void testDeclaredContentLengthOverSkipThresholdIsNotCopied() throws Exception {
+        mockMvc.perform(get("/test/property/sized-body/5000"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("z".repeat(5000)));
+
+        var event = eventCaptureListener.getResponseEvents().getFirst();
+        assertTrue(event.isResponseBodyTruncated());
+        assertEquals(5000L, event.getResponseBodyOriginalLength());
+        assertTrue(event.getResponseBody().isNull());
+    }
+
+    @Test
+    void testSkippedContentTypeIsNotCopied() throws Exception {
+        var result = mockMvc.perform(get("/test/property/download/100"))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertEquals(100, result.getResponse().getContentAsByteArray().length);
+
+        var event = eventCaptureListener.getResponseEvents().getFirst();
+        assertTrue(event.isResponseBodyTruncated());
+        assertEquals(100L, event.getResponseBodyOriginalLength());
+        assertTrue(event.getResponseBody().isNull());
+    }
+}
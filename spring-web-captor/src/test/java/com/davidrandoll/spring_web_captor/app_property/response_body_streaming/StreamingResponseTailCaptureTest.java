@@ -0,0 +1,109 @@
+package com.davidrandoll.spring_web_captor.app_property.response_body_streaming;
+
+import com.davidrandoll.spring_web_captor.WebCaptorApplication;
+import com.davidrandoll.spring_web_captor.event.HttpResponseChunkEvent;
+import com.davidrandoll.spring_web_captor.event.HttpResponseEvent;
+import com.davidrandoll.spring_web_captor.setup.EventCaptureListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Runs against a real server: MockMvc does not drive streaming responses the way a container does.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, classes = WebCaptorApplication.class)
+@TestPropertySource(properties = {
+        "web-captor.event-details.streaming-response-capture-mode=tail",
+        "web-captor.event-details.streaming-response-tail-bytes=32",
+        "web-captor.event-details.streaming-response-chunk-interval=20ms"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StreamingResponseTailCaptureTest {
+    private static final String FULL_BODY = IntStream.range(0, StreamingResponseTestController.PARTS)
+            .mapToObj(StreamingResponseTestController::part)
+            .collect(Collectors.joining());
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private EventCaptureListener eventCaptureListener;
+
+    @BeforeEach
+    void setup() {
+        eventCaptureListener.clearEvents();
+    }
+
+    @Test
+    void testStreamingResponseBodyKeepsOnlyTheTail() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/test/streaming-response/body", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(FULL_BODY);
+
+        HttpResponseEvent event = awaitResponseEvent();
+        assertThat(event.getResponseBody().asText()).isEqualTo(FULL_BODY.substring(FULL_BODY.length() - 32));
+        assertThat(event.isResponseBodyTruncated()).isTrue();
+        assertThat(event.getResponseBodyOriginalLength()).isEqualTo(FULL_BODY.length());
+    }
+
+    @Test
+    void testChunkEventsArePublishedInOrderWhileStreaming() {
+        restTemplate.getForEntity("/test/streaming-response/body", String.class);
+        awaitResponseEvent();
+
+        List<HttpResponseChunkEvent> chunks = eventCaptureListener.getResponseChunkEvents();
+        assertThat(chunks).isNotEmpty();
+        long previousEnd = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            HttpResponseChunkEvent chunk = chunks.get(i);
+            assertThat(chunk.getSequence()).isEqualTo(i);
+            assertThat(chunk.getOffset()).isGreaterThanOrEqualTo(previousEnd);
+            assertThat(chunk.getPath()).isEqualTo("/test/streaming-response/body");
+            String text = chunk.getChunk().asText();
+            assertThat(FULL_BODY.substring((int) chunk.getOffset(), (int) chunk.getOffset() + text.length())).isEqualTo(text);
+            previousEnd = chunk.getOffset() + text.length();
+        }
+    }
+
+    @Test
+    void testSseEmitterKeepsOnlyTheTail() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/test/streaming-response/sse", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).endsWith("data:part-19;\n\n");
+
+        HttpResponseEvent event = awaitResponseEvent();
+        assertThat(event.getResponseBody().asText()).hasSize(32).endsWith("data:part-19;\n\n");
+        assertThat(event.isResponseBodyTruncated()).isTrue();
+        assertThat(event.getResponseBodyOriginalLength()).isEqualTo(response.getBody().length());
+    }
+
+    @Test
+    void testNonStreamingResponseIsCapturedInFull() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/test/streaming-response/plain", String.class);
+
+        HttpResponseEvent event = awaitResponseEvent();
+        assertThat(event.getResponseBody().asText()).isEqualTo(response.getBody());
+        assertThat(event.isResponseBodyTruncated()).isFalse();
+        assertThat(eventCaptureListener.getResponseChunkEvents()).isEmpty();
+    }
+
+    private HttpResponseEvent awaitResponseEvent() {
+        await().atMost(10, TimeUnit.SECONDS).untilAsserted(() ->
+                assertThat(eventCaptureListener.getResponseEvents()).hasSize(1)
+        );
+        return eventCaptureListener.getResponseEvents().getFirst();
+    }
+}
@@ -0,0 +1,63 @@
+package com.davidrandoll.spring_web_captor.app_property.response_body_streaming;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/test/streaming-response")
+public class StreamingResponseTestController {
+    static final int PARTS = 20;
+
+    @GetMapping("/body")
+    public ResponseEntity<StreamingResponseBody> body() {
+        StreamingResponseBody body = out -> {
+            for (int i = 0; i < PARTS; i++) {
+                out.write(part(i).getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                sleep();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.TEXT_PLAIN).body(body);
+    }
+
+    @GetMapping("/sse")
+    public SseEmitter sse() {
+        SseEmitter emitter = new SseEmitter();
+        CompletableFuture.runAsync(() -> {
+            try {
+                for (int i = 0; i < PARTS; i++) {
+                    emitter.send(part(i));
+                }
+                emitter.complete();
+            } catch (Exception e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    @GetMapping("/plain")
+    public String plain() {
+        return "a plain response that is longer than the tail ring";
+    }
+
+    static String part(int i) {
+        return "part-%02d;".formatted(i);
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(15);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
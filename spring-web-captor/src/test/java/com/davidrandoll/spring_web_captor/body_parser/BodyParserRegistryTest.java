@@ -0,0 +1,158 @@
+package com.davidrandoll.spring_web_captor.body_parser;
+
+import com.davidrandoll.spring_web_captor.body_parser.registry.DefaultBodyParserRegistry;
+import com.davidrandoll.spring_web_captor.event.BodyPayload;
+import com.davidrandoll.spring_web_captor.properties.WebCaptorProperties;
+import com.davidrandoll.spring_web_captor.publisher.response.ByteChunkPool;
+import com.davidrandoll.spring_web_captor.publisher.response.ResponseBodyBuffer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import jakarta.servlet.ServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.annotation.Order;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BodyParserRegistryTest {
+    private final DefaultBodyParserRegistry registry =
+            new DefaultBodyParserRegistry(new ObjectMapper(), new WebCaptorProperties.EventDetails());
+
+    @Test
+    void jsonRequestBodyIsParsedOnFirstAccess() {
+        var request = new MockHttpServletRequest();
+        request.setContentType("application/json");
+        byte[] body = "{\"key\":\"value\"}".getBytes(StandardCharsets.UTF_8);
+
+        BodyPayload payload = registry.parseRequest(request, body);
+
+        assertThat(payload.isParsed()).isFalse();
+        assertThat(payload.getRawBody()).isEqualTo(body);
+        assertThat(payload.getBody().get("key").asText()).isEqualTo("value");
+        assertThat(payload.isParsed()).isTrue();
+    }
+
+    @Test
+    void invalidJsonFallsBackToTextWhenRead() {
+        var request = new MockHttpServletRequest();
+        request.setContentType("application/json");
+
+        BodyPayload payload = registry.parseRequest(request, "not json".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(payload.getBody().asText()).isEqualTo("not json");
+    }
+
+    @Test
+    void formBodyIsParsedUpFrontBecauseItNeedsTheRequest() {
+        var request = new MockHttpServletRequest();
+        request.setContentType("application/x-www-form-urlencoded");
+        byte[] body = "a=1".getBytes(StandardCharsets.UTF_8);
+        request.setContent(body);
+
+        BodyPayload payload = registry.parseRequest(request, body);
+
+        assertThat(payload.isParsed()).isTrue();
+        assertThat(payload.getBody().get("a").asText()).isEqualTo("1");
+    }
+
+    @Test
+    void responseBodyKeepsTheCaptureChunksUntilItIsParsed() {
+        var response = new MockHttpServletResponse();
+        response.setContentType("application/json");
+        var pool = new ByteChunkPool(8, 4);
+        var buffer = new ResponseBodyBuffer(pool);
+        buffer.write("{\"list\":[1,2,3]}".getBytes(StandardCharsets.UTF_8), 0, 16);
+
+        BodyPayload payload = registry.parseResponse(response, buffer);
+        buffer.release();
+        buffer.write("overwritten chunk".getBytes(StandardCharsets.UTF_8), 0, 17);
+
+        assertThat(payload.isParsed()).isFalse();
+        assertThat(payload.getRawLength()).isEqualTo(16);
+        assertThat(pool.getPooledChunks()).isZero();
+        assertThat(payload.getBody().get("list").size()).isEqualTo(3);
+        // parsed, so the two chunks of the body are back in the pool
+        assertThat(pool.getPooledChunks()).isEqualTo(2);
+        assertThat(payload.openRawBody()).isNull();
+    }
+
+    @Test
+    void responseBodyThatIsNotJsonFallsBackToTextFromTheChunks() {
+        var response = new MockHttpServletResponse();
+        response.setContentType("application/json");
+        var buffer = new ResponseBodyBuffer(new ByteChunkPool(8, 4));
+        buffer.write("not json".getBytes(StandardCharsets.UTF_8), 0, 8);
+
+        BodyPayload payload = registry.parseResponse(response, buffer);
+
+        assertThat(payload.getBody().asText()).isEqualTo("not json");
+    }
+
+    @Test
+    void supportsIsAskedOncePerContentType() {
+        AtomicInteger supportsCalls = new AtomicInteger();
+        registry.register(new CountingParser(supportsCalls));
+        var request = new MockHttpServletRequest();
+        request.setContentType("application/x-custom");
+
+        for (int i = 0; i < 5; i++) {
+            registry.parseRequest(request, "body".getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertThat(supportsCalls).hasValue(1);
+    }
+
+    @Test
+    void contentTypesInUseStayCachedAfterManyOthers() {
+        AtomicInteger supportsCalls = new AtomicInteger();
+        registry.register(new CountingParser(supportsCalls));
+        var request = new MockHttpServletRequest();
+        for (int i = 0; i < 1000; i++) {
+            request.setContentType("application/x-junk-" + i);
+            registry.parseRequest(request, "body".getBytes(StandardCharsets.UTF_8));
+        }
+        supportsCalls.set(0);
+
+        request.setContentType("application/x-custom");
+        for (int i = 0; i < 5; i++) {
+            registry.parseRequest(request, "body".getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertThat(supportsCalls).hasValue(1);
+    }
+
+    @Test
+    void parserRegisteredLaterTakesPrecedenceByOrder() {
+        var request = new MockHttpServletRequest();
+        request.setContentType("application/x-custom");
+        assertThat(registry.parseRequest(request, "body".getBytes(StandardCharsets.UTF_8)).getBody().asText())
+                .isEqualTo("body");
+
+        registry.register(new CountingParser(new AtomicInteger()));
+
+        assertThat(registry.parseRequest(request, "body".getBytes(StandardCharsets.UTF_8)).getBody().asText())
+                .isEqualTo("custom");
+    }
+
+    @Order(1)
+    @RequiredArgsConstructor
+    private static class CountingParser implements IRequestBodyParser {
+        private final AtomicInteger supportsCalls;
+
+        @Override
+        public boolean supports(String contentType) {
+            supportsCalls.incrementAndGet();
+            return "application/x-custom".equals(contentType);
+        }
+
+        @Override
+        public BodyPayload parse(ServletRequest request, byte[] body) {
+            return new BodyPayload(JsonNodeFactory.instance.textNode("custom"));
+        }
+    }
+}
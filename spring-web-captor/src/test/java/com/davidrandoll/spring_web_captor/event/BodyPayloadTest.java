@@ -0,0 +1,92 @@
+package com.davidrandoll.spring_web_captor.event;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BodyPayloadTest {
+
+    @Test
+    void lazyPayloadParsesOnceOnFirstAccess() {
+        AtomicInteger parses = new AtomicInteger();
+        byte[] raw = "hello".getBytes(StandardCharsets.UTF_8);
+        BodyPayload payload = BodyPayload.lazy(raw, "text/plain", () -> {
+            parses.incrementAndGet();
+            return JsonNodeFactory.instance.textNode("hello");
+        });
+
+        assertThat(payload.isParsed()).isFalse();
+        assertThat(parses).hasValue(0);
+        assertThat(payload.getRawBody()).isSameAs(raw);
+        assertThat(payload.getContentType()).isEqualTo("text/plain");
+
+        JsonNode body = payload.getBody();
+        assertThat(body.asText()).isEqualTo("hello");
+        assertThat(payload.getBody()).isSameAs(body);
+        assertThat(payload.isParsed()).isTrue();
+        assertThat(parses).hasValue(1);
+    }
+
+    @Test
+    void setBodyReplacesThePendingParse() {
+        AtomicInteger parses = new AtomicInteger();
+        BodyPayload payload = BodyPayload.lazy(new byte[0], null, () -> {
+            parses.incrementAndGet();
+            return JsonNodeFactory.instance.nullNode();
+        });
+
+        payload.setBody(JsonNodeFactory.instance.textNode("replaced"));
+
+        assertThat(payload.getBody().asText()).isEqualTo("replaced");
+        assertThat(parses).hasValue(0);
+    }
+
+    @Test
+    void bytesReadInPlaceAreReleasedOnceParsedAndNoLongerRead() throws IOException {
+        AtomicInteger releases = new AtomicInteger();
+        IRawBody raw = new IRawBody() {
+            @Override
+            public int size() {
+                return 5;
+            }
+
+            @Override
+            public InputStream toInputStream() {
+                return new ByteArrayInputStream("hello".getBytes(StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public void release() {
+                releases.incrementAndGet();
+            }
+        };
+        BodyPayload payload = BodyPayload.lazy(raw, "text/plain", () -> JsonNodeFactory.instance.textNode("hello"));
+
+        InputStream reader = payload.openRawBody();
+        assertThat(payload.getBody().asText()).isEqualTo("hello");
+        assertThat(releases).hasValue(0);
+        assertThat(reader.readAllBytes()).asString(StandardCharsets.UTF_8).isEqualTo("hello");
+
+        reader.close();
+        reader.close();
+        assertThat(releases).hasValue(1);
+        assertThat(payload.getRawLength()).isZero();
+        assertThat(payload.openRawBody()).isNull();
+    }
+
+    @Test
+    void eagerPayloadIsParsed() {
+        BodyPayload payload = new BodyPayload(JsonNodeFactory.instance.textNode("body"));
+
+        assertThat(payload.isParsed()).isTrue();
+        assertThat(payload.getRawBody()).isNull();
+    }
+}
@@ -0,0 +1,72 @@
+package com.davidrandoll.spring_web_captor.field_captor;
+
+import com.davidrandoll.spring_web_captor.event.HttpRequestEvent;
+import com.davidrandoll.spring_web_captor.field_captor.registry.AbstractFieldCaptorRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FieldCaptorRegistryTest {
+    private final List<String> calls = new CopyOnWriteArrayList<>();
+    private final AbstractFieldCaptorRegistry registry = new AbstractFieldCaptorRegistry() {
+    };
+
+    @Test
+    void captorsRunInOrderRegardlessOfRegistrationOrder() {
+        registry.register(new LateCaptor());
+        registry.register((IRequestFieldCaptor) (request, builder) -> calls.add("unordered"));
+        registry.register(new EarlyCaptor());
+
+        registry.capture(new MockHttpServletRequest(), HttpRequestEvent.builder());
+
+        assertThat(calls).containsExactly("early", "late", "unordered");
+    }
+
+    @Test
+    void captorRegisteredAtRuntimeIsUsedFromTheNextCapture() {
+        registry.register(new LateCaptor());
+        registry.capture(new MockHttpServletRequest(), HttpRequestEvent.builder());
+
+        registry.register(new EarlyCaptor());
+        calls.clear();
+        registry.capture(new MockHttpServletRequest(), HttpRequestEvent.builder());
+
+        assertThat(calls).containsExactly("early", "late");
+    }
+
+    @Test
+    void failingCaptorDoesNotStopTheOthers() {
+        registry.register(new EarlyCaptor());
+        registry.register((IRequestFieldCaptor) (request, builder) -> {
+            throw new IllegalStateException("boom");
+        });
+        registry.register(new LateCaptor());
+
+        registry.capture(new MockHttpServletRequest(), HttpRequestEvent.builder());
+
+        assertThat(calls).containsExactly("early", "late");
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    private class EarlyCaptor implements IRequestFieldCaptor {
+        @Override
+        public void capture(HttpServletRequest request, HttpRequestEvent.HttpRequestEventBuilder<?, ?> builder) {
+            calls.add("early");
+        }
+    }
+
+    @Order(100)
+    private class LateCaptor implements IRequestFieldCaptor {
+        @Override
+        public void capture(HttpServletRequest request, HttpRequestEvent.HttpRequestEventBuilder<?, ?> builder) {
+            calls.add("late");
+        }
+    }
+}
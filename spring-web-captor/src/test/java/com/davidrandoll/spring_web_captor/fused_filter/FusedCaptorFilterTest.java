@@ -0,0 +1,156 @@
+package com.davidrandoll.spring_web_captor.fused_filter;
+
+import com.davidrandoll.spring_web_captor.WebCaptorApplication;
+import com.davidrandoll.spring_web_captor.event.HttpRequestEvent;
+import com.davidrandoll.spring_web_captor.event.HttpResponseEvent;
+import com.davidrandoll.spring_web_captor.setup.EventCaptureListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.NonNull;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * With {@code web-captor.fused-filter=true} the captor is one filter, and a real container's
+ * request and error dispatches are captured as with the three separate filters.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = {WebCaptorApplication.class, FusedCaptorFilterTest.TestConfig.class})
+@TestPropertySource(properties = "web-captor.fused-filter=true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class FusedCaptorFilterTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ServletContext servletContext;
+
+    @Autowired
+    private EventCaptureListener eventCaptureListener;
+
+    @BeforeEach
+    void setUp() {
+        eventCaptureListener.clearEvents();
+    }
+
+    @Test
+    void onlyTheFusedFilterIsRegistered() {
+        assertThat(servletContext.getFilterRegistrations().keySet())
+                .contains("fusedCaptorFilter")
+                .doesNotContain("httpResponseEventPublisher", "httpDurationFilterExtension", "unhandledExceptionResponseFilter");
+    }
+
+    @Test
+    void capturesTheExchangeWithItsDuration() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/captor-fused-test/ok", String.class);
+        assertThat(response.getBody()).isEqualTo("fused");
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            HttpRequestEvent requestEvent = eventCaptureListener.getRequestEvents().getFirst();
+            assertThat(requestEvent.getPath()).isEqualTo("/captor-fused-test/ok");
+
+            HttpResponseEvent responseEvent = eventCaptureListener.getResponseEvents().getFirst();
+            assertThat(responseEvent.getResponseBody().asText()).isEqualTo("fused");
+            assertThat(responseEvent.hasAdditionalData("duration")).isTrue();
+        });
+    }
+
+    @Test
+    void escapedExceptionIsRenderedAndCaptured() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/captor-fused-test/escape", String.class);
+        assertThat(response.getStatusCode().value()).isEqualTo(500);
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(eventCaptureListener.getResponseEvents())
+                .anyMatch(e -> e.getResponseStatus().value() == 500));
+    }
+
+    @Test
+    void errorDispatchIsCaptured() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/captor-fused-test/translated", String.class);
+        assertThat(response.getStatusCode().value()).isEqualTo(403);
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(eventCaptureListener.getResponseEvents())
+                .anyMatch(e -> e.getResponseStatus().value() == 403 && e.getResponseBody() != null));
+        assertThat(eventCaptureListener.getResponseEvents())
+                .noneMatch(e -> e.getResponseStatus().value() == 200);
+    }
+
+    @Configuration
+    static class TestConfig {
+        @Bean
+        FilterRegistrationBean<TranslatingFilter> fusedTestTranslatingFilter() {
+            FilterRegistrationBean<TranslatingFilter> reg = new FilterRegistrationBean<>(new TranslatingFilter());
+            reg.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            reg.addUrlPatterns("/captor-fused-test/*");
+            return reg;
+        }
+
+        @Bean
+        FusedTestController fusedTestController() {
+            return new FusedTestController();
+        }
+    }
+
+    @RestController
+    @RequestMapping("/captor-fused-test")
+    static class FusedTestController {
+        @GetMapping("/ok")
+        public String ok() {
+            return "fused";
+        }
+
+        @GetMapping("/escape")
+        public String escape() {
+            throw new IllegalStateException("escaped");
+        }
+
+        @GetMapping("/translated")
+        public String translated() {
+            throw new AccessDeniedException("denied");
+        }
+    }
+
+    /**
+     * Translates {@link AccessDeniedException} with {@code sendError}, as Spring Security does.
+     */
+    static class TranslatingFilter extends OncePerRequestFilter {
+        @Override
+        protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                        @NonNull FilterChain chain) throws ServletException, IOException {
+            try {
+                chain.doFilter(request, response);
+            } catch (ServletException e) {
+                if (!(e.getCause() instanceof AccessDeniedException)) throw e;
+                response.sendError(HttpStatus.FORBIDDEN.value(), "Forbidden");
+            } catch (AccessDeniedException e) {
+                response.sendError(HttpStatus.FORBIDDEN.value(), "Forbidden");
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.davidrandoll.spring_web_captor.publish_conditions;
+
+import com.davidrandoll.spring_web_captor.properties.WebCaptorProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The compiled matcher has to decide exactly as matching every rule with {@link AntPathMatcher}
+ * did, for the patterns both understand.
+ */
+class ExcludedEndpointMatcherTest {
+    private static final List<String> METHODS = List.of("GET", "POST", "PUT", "DELETE", "PATCH", "PROPFIND");
+    private static final List<String> PATHS = List.of(
+            "/", "/actuator", "/actuator/health", "/actuator/health/liveness",
+            "/api/health", "/api/health/", "/api/healthz", "/api/users", "/api/users/42", "/api/users/42/orders",
+            "/swagger-ui/index.html", "/static/app.js", "/static/css/app.css", "/docs/v1/spec.json",
+            "/a/deep/nested/path/report.csv", "/internal/metrics", "/other"
+    );
+
+    private final List<WebCaptorProperties.ExcludedRequest> rules = new ArrayList<>();
+
+    @Test
+    void decidesLikeMatchingEveryRule() {
+        rule("*", "/actuator/**");
+        rule("GET", "/api/health");
+        rule("GET, POST", "/swagger-ui/**");
+        rule("DELETE", "/api/users/*");
+        rule("PUT,", "/api/users/{id}/orders");
+        rule("*", "/static/*.js");
+        rule("GET", "/docs/v?/*.json");
+        rule("*", "/**/report.csv");
+        rule("GET", "/internal/metrics");
+
+        assertSameDecisions(1024);
+        assertSameDecisions(0);
+    }
+
+    @Test
+    void catchAllRuleExcludesEverything() {
+        rule("*", "/**");
+
+        assertSameDecisions(16);
+    }
+
+    @Test
+    void invalidMethodIsSkipped() {
+        rule("GET,BOGUS", "/api/health");
+
+        var matcher = new ExcludedEndpointMatcher(rules, new AntPathMatcher(), 16);
+
+        assertThat(matcher.isExcluded("GET", "/api/health")).isTrue();
+        assertThat(matcher.isExcluded("PUT", "/api/health")).isFalse();
+        assertThat(matcher.isExcluded("PROPFIND", "/api/health")).isFalse();
+    }
+
+    @Test
+    void noRulesExcludeNothing() {
+        var matcher = new ExcludedEndpointMatcher(List.of(), new AntPathMatcher(), 16);
+
+        assertThat(matcher.isExcluded("GET", "/anything")).isFalse();
+    }
+
+    private void assertSameDecisions(int cacheSize) {
+        var matcher = new ExcludedEndpointMatcher(rules, new AntPathMatcher(), cacheSize);
+        // twice, so the second round is served from the cache
+        for (int round = 0; round < 2; round++) {
+            for (String path : PATHS) {
+                for (String method : METHODS) {
+                    assertThat(matcher.isExcluded(method, path))
+                            .as("%s %s", method, path)
+                            .isEqualTo(antExcluded(method, path));
+                }
+            }
+        }
+    }
+
+    private boolean antExcluded(String method, String path) {
+        var ant = new AntPathMatcher();
+        return rules.stream().anyMatch(rule -> {
+            List<String> methods = List.of(rule.getMethod().replaceAll("\\s*", "").replaceAll("^,|,$", "").split(","));
+            boolean methodMatches = methods.contains("*") || methods.contains(method);
+            return methodMatches && ant.match(rule.getPath(), path);
+        });
+    }
+
+    private void rule(String method, String path) {
+        var rule = new WebCaptorProperties.ExcludedRequest();
+        rule.setMethod(method);
+        rule.setPath(path);
+        rules.add(rule);
+    }
+}
@@ -0,0 +1,116 @@
+package com.davidrandoll.spring_web_captor.publish_conditions;
+
+import com.davidrandoll.spring_web_captor.annotation.WebCaptor;
+import com.davidrandoll.spring_web_captor.properties.WebCaptorProperties;
+import com.davidrandoll.spring_web_captor.route.CaptureRoute;
+import com.davidrandoll.spring_web_captor.route.EndpointCapturePolicies;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SamplingPublishConditionTest {
+    private static final String PATTERN = "/users/{id}";
+
+    @Test
+    void keyedDecisionIsTheSameOnEveryNode() {
+        var node1 = condition(0.25, Map.of(), "X-Request-Id");
+        var node2 = condition(0.25, Map.of(), "X-Request-Id");
+
+        int sampled = 0;
+        for (int i = 0; i < 4000; i++) {
+            String key = "request-" + i;
+            boolean decision = sampled(node1, key);
+            assertThat(sampled(node2, key)).as(key).isEqualTo(decision);
+            if (decision) sampled++;
+        }
+        assertThat(sampled).isBetween(800, 1200);
+    }
+
+    @Test
+    void lowerRateKeepsASubsetOfAHigherOne() {
+        var low = condition(0.1, Map.of(), "X-Request-Id");
+        var high = condition(0.5, Map.of(), "X-Request-Id");
+
+        for (int i = 0; i < 2000; i++) {
+            String key = "request-" + i;
+            if (sampled(low, key)) assertThat(sampled(high, key)).as(key).isTrue();
+        }
+    }
+
+    @Test
+    void traceparentIsSampledByItsTraceId() {
+        var condition = condition(0.5, Map.of(), "traceparent");
+
+        for (int i = 0; i < 200; i++) {
+            String traceId = "%032x".formatted(i * 7919L);
+            boolean decision = sampled(condition, "00-" + traceId + "-00f067aa0ba902b7-01");
+            assertThat(sampled(condition, "00-" + traceId + "-b7ad6b7169203331-01")).as(traceId).isEqualTo(decision);
+        }
+    }
+
+    @Test
+    void routeRateTakesPrecedenceOverTheGlobalRate() {
+        var condition = condition(1.0, Map.of(PATTERN, 0.0), null);
+
+        assertThat(condition.appliesTo(new CaptureRoute("GET", PATTERN, null))).isTrue();
+        assertThat(condition.appliesTo(new CaptureRoute("GET", "/orders/{id}", null))).isFalse();
+        assertThat(sampled(condition, null)).isFalse();
+    }
+
+    @Test
+    void explicitFullRateOnTheHandlerOverridesLowerRates() throws NoSuchMethodException {
+        var condition = condition(0.0, Map.of(PATTERN, 0.0), null);
+        var everything = new HandlerMethod(new Handlers(), Handlers.class.getMethod("everything"));
+        var unannotated = new HandlerMethod(new Handlers(), Handlers.class.getMethod("unannotated"));
+
+        assertThat(condition.appliesTo(new CaptureRoute("GET", PATTERN, everything))).isFalse();
+        assertThat(condition.appliesTo(new CaptureRoute("GET", PATTERN, unannotated))).isTrue();
+    }
+
+    @Test
+    void globalRateAppliesWithoutARoute() {
+        var condition = condition(0.0, Map.of(), null);
+        var request = new MockHttpServletRequest("GET", "/unmapped");
+
+        assertThat(condition.shouldPublishRequest(request, new MockHttpServletResponse())).isFalse();
+        assertThat(request.getAttribute(SamplingPublishCondition.SAMPLED_ATTRIBUTE)).isEqualTo(false);
+    }
+
+    private static boolean sampled(SamplingPublishCondition condition, String key) {
+        var request = new MockHttpServletRequest("GET", "/users/42");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, PATTERN);
+        if (key != null) {
+            request.addHeader("X-Request-Id", key);
+            request.addHeader("traceparent", key);
+        }
+        var response = new MockHttpServletResponse();
+        boolean publish = condition.shouldPublishRequest(request, response);
+        assertThat(condition.shouldPublishResponse(request, response)).isEqualTo(publish);
+        return publish;
+    }
+
+    private static SamplingPublishCondition condition(double rate, Map<String, Double> routes, String keyHeader) {
+        var sampling = new WebCaptorProperties.Sampling();
+        sampling.setRate(rate);
+        sampling.getRoutes().putAll(routes);
+        sampling.setKeyHeader(keyHeader);
+        return new SamplingPublishCondition(sampling, new EndpointCapturePolicies());
+    }
+
+    public static class Handlers {
+        @WebCaptor(sampleRate = 1.0)
+        public String everything() {
+            return "all";
+        }
+
+        public String unannotated() {
+            return "configured";
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.davidrandoll.spring_web_captor.publisher;
+
+import com.davidrandoll.spring_web_captor.event.HttpRequestEvent;
+import com.davidrandoll.spring_web_captor.event.HttpResponseEvent;
+import com.davidrandoll.spring_web_captor.properties.WebCaptorProperties;
+import com.davidrandoll.spring_web_captor.publisher.pipeline.AsyncWebCaptorEventPublisher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class AsyncWebCaptorEventPublisherTest {
+    private final List<Object> delivered = new CopyOnWriteArrayList<>();
+    private final List<String> deliveringThreads = new CopyOnWriteArrayList<>();
+    /**
+     * Holds the single consumer inside the listener so the queue fills up.
+     */
+    private final CountDownLatch release = new CountDownLatch(1);
+    private AsyncWebCaptorEventPublisher publisher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        release.countDown();
+        if (publisher != null) publisher.destroy();
+    }
+
+    @Test
+    void eventsAreDeliveredOffTheCallingThread() {
+        publisher = create(WebCaptorProperties.BackpressurePolicy.BLOCK, false);
+        release.countDown();
+
+        publisher.publishEvent("a");
+        publisher.publishEvent("b");
+
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> assertThat(delivered).containsExactly("a", "b"));
+        assertThat(deliveringThreads).allMatch(name -> name.startsWith("web-captor-events-"));
+        assertThat(publisher.getEnqueuedCount()).isEqualTo(2);
+        assertThat(publisher.getDeliveredCount()).isEqualTo(2);
+        assertThat(publisher.getDroppedCount()).isZero();
+    }
+
+    @Test
+    void virtualThreadConsumersDeliverEvents() {
+        publisher = create(WebCaptorProperties.BackpressurePolicy.BLOCK, true);
+        release.countDown();
+
+        publisher.publishEvent("a");
+
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> assertThat(delivered).containsExactly("a"));
+    }
+
+    @Test
+    void dropNewestDropsTheEventThatDoesNotFit() {
+        publisher = create(WebCaptorProperties.BackpressurePolicy.DROP_NEWEST, false);
+        fillQueue();
+
+        publisher.publishEvent("overflow");
+
+        assertThat(publisher.getDroppedCount()).isEqualTo(1);
+        release.countDown();
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> assertThat(delivered).containsExactly("blocker", "q0", "q1"));
+    }
+
+    @Test
+    void dropOldestMakesRoomForTheNewEvent() {
+        publisher = create(WebCaptorProperties.BackpressurePolicy.DROP_OLDEST, false);
+        fillQueue();
+
+        publisher.publishEvent("newest");
+
+        assertThat(publisher.getDroppedCount()).isEqualTo(1);
+        release.countDown();
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> assertThat(delivered).containsExactly("blocker", "q1", "newest"));
+    }
+
+    @Test
+    void dropSuccessOnlyKeepsErrorResponsesAndRequests() throws InterruptedException {
+        publisher = create(WebCaptorProperties.BackpressurePolicy.DROP_SUCCESS_ONLY, false);
+        fillQueue();
+        HttpRequestEvent request = new HttpRequestEvent();
+        HttpResponseEvent success = response(HttpStatus.OK);
+        HttpResponseEvent failure = response(HttpStatus.INTERNAL_SERVER_ERROR);
+
+        publisher.publishEvent(success);
+        assertThat(publisher.getDroppedCount()).isEqualTo(1);
+
+        // the request, whose exchange may yet fail, and the error response wait for room
+        Thread producer = Thread.ofPlatform().start(() -> {
+            publisher.publishEvent(request);
+            publisher.publishEvent(failure);
+        });
+        producer.join(200);
+        assertThat(producer.isAlive()).isTrue();
+        release.countDown();
+        producer.join(5000);
+
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> assertThat(delivered).containsExactly("blocker", "q0", "q1", request, failure));
+        assertThat(publisher.getDroppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void parkedConsumerIsWokenByTheNextEvent() throws InterruptedException {
+        publisher = create(WebCaptorProperties.BackpressurePolicy.BLOCK, false);
+        release.countDown();
+        // long enough for the consumer to run out of spins and park
+        Thread.sleep(50);
+
+        long start = System.nanoTime();
+        publisher.publishEvent("wake");
+        while (delivered.isEmpty() && System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5)) {
+            Thread.sleep(1);
+        }
+
+        assertThat(delivered).containsExactly("wake");
+        // well within the park timeout: the offer woke the consumer
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.MILLISECONDS.toNanos(80));
+    }
+
+    @Test
+    void listenerExceptionsAreCountedAndDoNotStopTheConsumer() {
+        publisher = create(WebCaptorProperties.BackpressurePolicy.BLOCK, false);
+        release.countDown();
+
+        publisher.publishEvent("fail");
+        publisher.publishEvent("ok");
+
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> assertThat(delivered).containsExactly("ok"));
+        assertThat(publisher.getFailedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void destroyDeliversQueuedEvents() throws InterruptedException {
+        publisher = create(WebCaptorProperties.BackpressurePolicy.BLOCK, false);
+        fillQueue();
+        release.countDown();
+
+        publisher.destroy();
+
+        assertThat(delivered).containsExactly("blocker", "q0", "q1");
+        publisher.publishEvent("after-shutdown");
+        assertThat(delivered).endsWith("after-shutdown");
+    }
+
+    /**
+     * Parks the consumer on "blocker" and fills the two-slot queue behind it.
+     */
+    private void fillQueue() {
+        publisher.publishEvent("blocker");
+        await().atMost(5, TimeUnit.SECONDS).until(() -> publisher.getQueueDepth() == 0);
+        publisher.publishEvent("q0");
+        publisher.publishEvent("q1");
+        assertThat(publisher.getQueueDepth()).isEqualTo(2);
+    }
+
+    private AsyncWebCaptorEventPublisher create(WebCaptorProperties.BackpressurePolicy policy, boolean virtualThreads) {
+        var settings = new WebCaptorProperties.EventPipeline();
+        settings.setMode(WebCaptorProperties.EventPipelineMode.ASYNC);
+        settings.setQueueCapacity(2);
+        settings.setConsumerThreads(1);
+        settings.setVirtualThreads(virtualThreads);
+        settings.setBackpressurePolicy(policy);
+        return new AsyncWebCaptorEventPublisher(event -> {
+            if ("blocker".equals(event)) awaitRelease();
+            if ("fail".equals(event)) throw new IllegalStateException("listener failed");
+            delivered.add(event);
+            deliveringThreads.add(Thread.currentThread().getName());
+        }, settings);
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static HttpResponseEvent response(HttpStatus status) {
+        var event = new HttpResponseEvent();
+        event.setResponseStatus(status);
+        return event;
+    }
+}
@@ -0,0 +1,133 @@
+package com.davidrandoll.spring_web_captor.publisher;
+
+import com.davidrandoll.spring_web_captor.publisher.request.CachedBodyHttpServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Measures the bytes allocated per request by body capture: read once for the event, then re-read
+ * by the handler and a couple of parsers. The single-buffer wrapper keeps the body in one array
+ * that re-reads share; since the declared length is not trusted up front, the array doubles as the
+ * bytes arrive, which allocates the body about twice over. The previous
+ * {@code ContentCachingRequestWrapper}-based wrapper allocated more than that.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CachedBodyHttpServletRequestAllocationTest {
+    private static final int BODY_SIZE = 1 << 20;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 20;
+    private static final int RE_READS = 3;
+
+    private com.sun.management.ThreadMXBean threadMXBean;
+    private byte[] body;
+
+    @BeforeAll
+    void setUp() {
+        var bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "allocated bytes per thread not available");
+        threadMXBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported(), "allocated bytes per thread not supported");
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        body = new byte[BODY_SIZE];
+        Arrays.fill(body, (byte) 'a');
+    }
+
+    @Test
+    void singleBufferWrapperAllocatesLessThanTheLegacyWrapper() throws IOException {
+        long singleBuffer = allocatedPerRequest(this::captureWithSingleBuffer);
+        long legacy = allocatedPerRequest(this::captureWithContentCachingWrapper);
+
+        assertThat(singleBuffer).isLessThan((long) (BODY_SIZE * 2.25));
+        assertThat(singleBuffer).isLessThan(legacy);
+    }
+
+    @Test
+    void declaredLengthDoesNotSizeTheBuffer() throws IOException {
+        var delegate = new MockHttpServletRequest("POST", "/test/allocation");
+        delegate.setContent("tiny".getBytes());
+        var forged = new HttpServletRequestWrapper(delegate) {
+            @Override
+            public long getContentLengthLong() {
+                return Integer.MAX_VALUE;
+            }
+        };
+        var request = new CachedBodyHttpServletRequest(forged);
+
+        long before = threadMXBean.getCurrentThreadAllocatedBytes();
+        byte[] cached = request.getCachedBody();
+        long allocated = threadMXBean.getCurrentThreadAllocatedBytes() - before;
+
+        assertThat(cached).isEqualTo("tiny".getBytes());
+        assertThat(allocated).isLessThan(64 * 1024);
+    }
+
+    @Test
+    void reReadsShareTheCachedBuffer() throws IOException {
+        var request = new CachedBodyHttpServletRequest(newRequest());
+        byte[] first = request.getCachedBody();
+        request.getInputStream().transferTo(OutputStream.nullOutputStream());
+
+        assertThat(request.getCachedBody()).isSameAs(first);
+        assertThat(request.getInputStream().readAllBytes()).isEqualTo(body);
+    }
+
+    private long allocatedPerRequest(Capture capture) throws IOException {
+        for (int i = 0; i < WARMUP; i++) {
+            capture.run(newRequest());
+        }
+        long total = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            var request = newRequest();
+            long before = threadMXBean.getCurrentThreadAllocatedBytes();
+            capture.run(request);
+            total += threadMXBean.getCurrentThreadAllocatedBytes() - before;
+        }
+        return total / ITERATIONS;
+    }
+
+    private void captureWithSingleBuffer(HttpServletRequest delegate) throws IOException {
+        var request = new CachedBodyHttpServletRequest(delegate);
+        request.getCachedBody();
+        for (int i = 0; i < RE_READS; i++) {
+            request.getInputStream().transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    /**
+     * The capture pattern the wrapper used before: the delegate's own cache plus a separate copy.
+     */
+    private void captureWithContentCachingWrapper(HttpServletRequest delegate) throws IOException {
+        var request = new ContentCachingRequestWrapper(delegate);
+        byte[] cachedBody = StreamUtils.copyToByteArray(request.getInputStream());
+        for (int i = 0; i < RE_READS; i++) {
+            new java.io.ByteArrayInputStream(cachedBody).transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    private MockHttpServletRequest newRequest() {
+        var request = new MockHttpServletRequest("POST", "/test/allocation");
+        request.setContentType("application/octet-stream");
+        request.setContent(body);
+        return request;
+    }
+
+    @FunctionalInterface
+    private interface Capture {
+        void run(HttpServletRequest request) throws IOException;
+    }
+}
@@ -0,0 +1,142 @@
+package com.davidrandoll.spring_web_captor.publisher;
+
+import com.davidrandoll.spring_web_captor.publisher.request.CachedBodyServletInputStream;
+import jakarta.servlet.ReadListener;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CachedBodyServletInputStreamTest {
+    private static final byte[] BODY = "hello cached body".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void bulkReadCopiesUpToRequestedLength() throws IOException {
+        var stream = new CachedBodyServletInputStream(BODY);
+        byte[] target = new byte[8];
+
+        assertThat(stream.read(target, 2, 5)).isEqualTo(5);
+        assertThat(new String(target, 2, 5, StandardCharsets.UTF_8)).isEqualTo("hello");
+        assertThat(stream.available()).isEqualTo(BODY.length - 5);
+    }
+
+    @Test
+    void bulkReadReturnsMinusOneAtEnd() throws IOException {
+        var stream = new CachedBodyServletInputStream(BODY);
+        stream.readAllBytes();
+
+        assertThat(stream.read(new byte[4], 0, 4)).isEqualTo(-1);
+        assertThat(stream.read()).isEqualTo(-1);
+        assertThat(stream.isFinished()).isTrue();
+    }
+
+    @Test
+    void readNBytesSkipAndTransferToContinueFromCurrentPosition() throws IOException {
+        var stream = new CachedBodyServletInputStream(BODY);
+
+        assertThat(new String(stream.readNBytes(5), StandardCharsets.UTF_8)).isEqualTo("hello");
+        assertThat(stream.skip(1)).isEqualTo(1);
+        var out = new ByteArrayOutputStream();
+        assertThat(stream.transferTo(out)).isEqualTo(BODY.length - 6);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("cached body");
+        assertThat(stream.skip(10)).isZero();
+        assertThat(stream.readNBytes(10)).isEmpty();
+    }
+
+    @Test
+    void readListenerGetsDataThenAllDataRead() {
+        var stream = new CachedBodyServletInputStream(BODY);
+        var calls = new ArrayList<String>();
+        var read = new ByteArrayOutputStream();
+
+        stream.setReadListener(new RecordingListener(calls) {
+            @Override
+            public void onDataAvailable() throws IOException {
+                super.onDataAvailable();
+                byte[] chunk = new byte[4];
+                while (stream.isReady() && !stream.isFinished()) {
+                    int count = stream.read(chunk);
+                    read.write(chunk, 0, count);
+                }
+            }
+        });
+
+        assertThat(calls).containsExactly("onDataAvailable", "onAllDataRead");
+        assertThat(read.toByteArray()).isEqualTo(BODY);
+    }
+
+    @Test
+    void readListenerOnEmptyBodyOnlyGetsAllDataRead() {
+        var stream = new CachedBodyServletInputStream(new byte[0]);
+        var calls = new ArrayList<String>();
+
+        stream.setReadListener(new RecordingListener(calls));
+
+        assertThat(calls).containsExactly("onAllDataRead");
+    }
+
+    @Test
+    void readListenerThatStopsReadingIsNotifiedWhenItFinishesLater() throws IOException {
+        var stream = new CachedBodyServletInputStream(BODY);
+        var calls = new ArrayList<String>();
+
+        stream.setReadListener(new RecordingListener(calls));
+        assertThat(calls).containsExactly("onDataAvailable");
+
+        stream.readAllBytes();
+        assertThat(calls).containsExactly("onDataAvailable", "onAllDataRead");
+    }
+
+    @Test
+    void readListenerFailureIsReportedToOnError() {
+        var stream = new CachedBodyServletInputStream(BODY);
+        var calls = new ArrayList<String>();
+
+        stream.setReadListener(new RecordingListener(calls) {
+            @Override
+            public void onDataAvailable() throws IOException {
+                super.onDataAvailable();
+                throw new IOException("boom");
+            }
+        });
+
+        assertThat(calls).containsExactly("onDataAvailable", "onError");
+    }
+
+    @Test
+    void readListenerCanOnlyBeSetOnce() {
+        var stream = new CachedBodyServletInputStream(BODY);
+        stream.setReadListener(new RecordingListener(new ArrayList<>()));
+
+        assertThrows(IllegalStateException.class, () -> stream.setReadListener(new RecordingListener(new ArrayList<>())));
+    }
+
+    private static class RecordingListener implements ReadListener {
+        private final List<String> calls;
+
+        RecordingListener(List<String> calls) {
+            this.calls = calls;
+        }
+
+        @Override
+        public void onDataAvailable() throws IOException {
+            calls.add("onDataAvailable");
+        }
+
+        @Override
+        public void onAllDataRead() {
+            calls.add("onAllDataRead");
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            calls.add("onError");
+        }
+    }
+}
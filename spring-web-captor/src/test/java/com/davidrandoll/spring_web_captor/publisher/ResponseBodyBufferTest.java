@@ -0,0 +1,94 @@
+package com.davidrandoll.spring_web_captor.publisher;
+
+import com.davidrandoll.spring_web_captor.publisher.response.ByteChunkPool;
+import com.davidrandoll.spring_web_captor.publisher.response.ResponseBodyBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseBodyBufferTest {
+
+    @Test
+    void writesAcrossChunkBoundariesAreReadBackInOrder() throws IOException {
+        var buffer = new ResponseBodyBuffer(new ByteChunkPool(16, 8));
+        byte[] body = randomBytes(100);
+
+        buffer.write(body[0]);
+        buffer.write(body, 1, 40);
+        buffer.write(body, 41, body.length - 41);
+
+        assertThat(buffer.size()).isEqualTo(body.length);
+        assertThat(buffer.toByteArray()).isEqualTo(body);
+        assertThat(buffer.toInputStream().readAllBytes()).isEqualTo(body);
+    }
+
+    @Test
+    void inputStreamSupportsSingleByteSkipAndTransferTo() throws IOException {
+        var buffer = new ResponseBodyBuffer(new ByteChunkPool(4, 0));
+        byte[] body = randomBytes(10);
+        buffer.write(body);
+
+        var in = buffer.toInputStream();
+        assertThat(in.read()).isEqualTo(body[0] & 0xFF);
+        assertThat(in.skip(4)).isEqualTo(4);
+        assertThat(in.available()).isEqualTo(5);
+        var out = new ByteArrayOutputStream();
+        assertThat(in.transferTo(out)).isEqualTo(5);
+        assertThat(out.toByteArray()).containsExactly(Arrays.copyOfRange(body, 5, 10));
+        assertThat(in.read()).isEqualTo(-1);
+    }
+
+    @Test
+    void releaseReturnsChunksToThePoolForTheNextResponse() {
+        var pool = new ByteChunkPool(16, 8);
+        var first = new ResponseBodyBuffer(pool);
+        first.write(randomBytes(40), 0, 40);
+
+        first.release();
+        assertThat(first.isEmpty()).isTrue();
+        assertThat(pool.getPooledChunks()).isEqualTo(3);
+
+        var second = new ResponseBodyBuffer(pool);
+        second.write(randomBytes(20), 0, 20);
+        assertThat(pool.getPooledChunks()).isEqualTo(1);
+    }
+
+    @Test
+    void detachedChunksAreLeftAloneByTheBufferTheyCameFrom() throws IOException {
+        var pool = new ByteChunkPool(16, 8);
+        var buffer = new ResponseBodyBuffer(pool);
+        byte[] body = randomBytes(40);
+        buffer.write(body);
+
+        ResponseBodyBuffer detached = buffer.detach();
+        buffer.release();
+        buffer.write(randomBytes(40));
+
+        assertThat(pool.getPooledChunks()).isZero();
+        assertThat(detached.toInputStream().readAllBytes()).isEqualTo(body);
+        detached.release();
+        assertThat(pool.getPooledChunks()).isEqualTo(3);
+    }
+
+    @Test
+    void poolKeepsNoMoreThanItsBound() {
+        var pool = new ByteChunkPool(16, 2);
+        var buffer = new ResponseBodyBuffer(pool);
+        buffer.write(randomBytes(80), 0, 80);
+
+        buffer.release();
+
+        assertThat(pool.getPooledChunks()).isEqualTo(2);
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,63 @@
+package com.davidrandoll.spring_web_captor.publisher;
+
+import com.davidrandoll.spring_web_captor.publisher.response.RingBodyBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RingBodyBufferTest {
+
+    @Test
+    void keepsEverythingUntilTheRingFills() {
+        var ring = new RingBodyBuffer(8);
+        ring.write(bytes("abc"), 0, 3);
+        ring.write('d');
+
+        assertThat(ring.toByteArray()).isEqualTo(bytes("abcd"));
+        assertThat(ring.isOverflowed()).isFalse();
+    }
+
+    @Test
+    void keepsOnlyTheLastBytesOnceItWraps() {
+        var ring = new RingBodyBuffer(8);
+        ring.write(bytes("0123456"), 0, 7);
+        ring.write(bytes("789ab"), 0, 5);
+
+        assertThat(ring.getTotalWritten()).isEqualTo(12);
+        assertThat(ring.isOverflowed()).isTrue();
+        assertThat(ring.toByteArray()).isEqualTo(bytes("456789ab"));
+    }
+
+    @Test
+    void writeLargerThanTheRingKeepsItsTail() {
+        var ring = new RingBodyBuffer(4);
+        ring.write('x');
+        ring.write(bytes("0123456789"), 0, 10);
+
+        assertThat(ring.getTotalWritten()).isEqualTo(11);
+        assertThat(ring.toByteArray()).isEqualTo(bytes("6789"));
+    }
+
+    @Test
+    void copySinceReturnsOnlyWhatTheRingStillHolds() {
+        var ring = new RingBodyBuffer(8);
+        ring.write(bytes("0123456789"), 0, 10);
+
+        RingBodyBuffer.Slice recent = ring.copySince(7);
+        assertThat(recent.offset()).isEqualTo(7);
+        assertThat(recent.bytes()).isEqualTo(bytes("789"));
+
+        RingBodyBuffer.Slice overwritten = ring.copySince(0);
+        assertThat(overwritten.offset()).isEqualTo(2);
+        assertThat(overwritten.bytes()).isEqualTo(bytes("23456789"));
+        assertThat(overwritten.end()).isEqualTo(10);
+
+        assertThat(ring.copySince(10).bytes()).isEmpty();
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,126 @@
+package com.davidrandoll.spring_web_captor.publisher;
+
+import com.davidrandoll.spring_web_captor.publisher.request.TeeServletInputStream;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TeeServletInputStreamTest {
+
+    @Test
+    void drainStopsOneBytePastTheCap() throws IOException {
+        var source = new CountingStream(100_000, true);
+        var tee = new TeeServletInputStream(source, 16, 16);
+
+        tee.drain();
+
+        assertThat(tee.getCapturedBody()).hasSize(16);
+        assertThat(tee.isTruncated()).isTrue();
+        assertThat(tee.isEof()).isFalse();
+        assertThat(source.consumed).isEqualTo(17);
+    }
+
+    @Test
+    void drainReadsAnUncappedBodyToTheEnd() throws IOException {
+        var source = new CountingStream(20_000, true);
+        var tee = new TeeServletInputStream(source, -1, 256);
+
+        tee.drain();
+
+        assertThat(tee.isEof()).isTrue();
+        assertThat(tee.getCapturedBody()).hasSize(20_000);
+        assertThat(tee.isTruncated()).isFalse();
+    }
+
+    @Test
+    void drainStopsWhenANonBlockingStreamIsNotReady() throws IOException {
+        var source = new CountingStream(100, false);
+        var tee = new TeeServletInputStream(source, -1, 256);
+        tee.setReadListener(new NoOpListener());
+
+        tee.drain();
+
+        assertThat(source.consumed).isZero();
+        assertThat(tee.isEof()).isFalse();
+    }
+
+    @Test
+    void drainStopsOnAnEmptyRead() throws IOException {
+        var source = new CountingStream(100, true) {
+            @Override
+            public int read(byte[] b, int off, int len) {
+                return 0;
+            }
+        };
+        var tee = new TeeServletInputStream(source, -1, 256);
+
+        tee.drain();
+
+        assertThat(tee.getCapturedBody()).isEmpty();
+        assertThat(tee.isEof()).isFalse();
+    }
+
+    /**
+     * {@code length} bytes of {@code 'a'}, reporting {@code ready} to non-blocking readers.
+     */
+    private static class CountingStream extends ServletInputStream {
+        private final int length;
+        private final boolean ready;
+        int consumed;
+
+        CountingStream(int length, boolean ready) {
+            this.length = length;
+            this.ready = ready;
+        }
+
+        @Override
+        public int read() {
+            if (consumed >= length) return -1;
+            consumed++;
+            return 'a';
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (consumed >= length) return -1;
+            int count = Math.min(len, length - consumed);
+            byte[] chunk = "a".repeat(count).getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(chunk, 0, b, off, count);
+            consumed += count;
+            return count;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return consumed >= length;
+        }
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+        }
+    }
+
+    private static class NoOpListener implements ReadListener {
+        @Override
+        public void onDataAvailable() {
+        }
+
+        @Override
+        public void onAllDataRead() {
+        }
+
+        @Override
+        public void onError(Throwable t) {
+        }
+    }
+}
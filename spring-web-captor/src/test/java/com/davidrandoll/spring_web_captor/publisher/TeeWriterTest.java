@@ -0,0 +1,91 @@
+package com.davidrandoll.spring_web_captor.publisher;
+
+import com.davidrandoll.spring_web_captor.publisher.response.TeeWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class TeeWriterTest {
+
+    @Test
+    void copiesEveryWriteEncodedInTheResponseCharset() throws IOException {
+        var original = new StringWriter();
+        var copy = new ByteArrayOutputStream();
+        var writer = new TeeWriter(original, copy, StandardCharsets.UTF_8);
+
+        writer.write("héllo ");
+        writer.write(new char[]{'✓', ' '}, 0, 2);
+        writer.write('x');
+        writer.append("-abc-", 1, 4);
+
+        assertThat(original.toString()).isEqualTo("héllo ✓ xabc");
+        assertThat(copy.toString(StandardCharsets.UTF_8)).isEqualTo("héllo ✓ xabc");
+    }
+
+    @Test
+    void surrogatePairSplitAcrossWritesIsEncodedOnce() throws IOException {
+        var copy = new ByteArrayOutputStream();
+        var writer = new TeeWriter(new StringWriter(), copy, StandardCharsets.UTF_8);
+        String emoji = "😃";
+
+        writer.write(emoji.charAt(0));
+        writer.write(emoji.charAt(1));
+        writer.write("!");
+
+        assertThat(copy.toString(StandardCharsets.UTF_8)).isEqualTo("😃!");
+    }
+
+    @Test
+    void usesNonUtf8Charset() throws IOException {
+        var copy = new ByteArrayOutputStream();
+        Charset latin1 = StandardCharsets.ISO_8859_1;
+        var writer = new TeeWriter(new StringWriter(), copy, latin1);
+
+        writer.write("café");
+
+        assertThat(copy.toByteArray()).isEqualTo("café".getBytes(latin1));
+    }
+
+    @Test
+    void writesLargerThanTheEncodeBufferAreCopiedInFull() throws IOException {
+        var copy = new ByteArrayOutputStream();
+        var writer = new TeeWriter(new StringWriter(), copy, StandardCharsets.UTF_8);
+        String text = "ü".repeat(5000);
+
+        writer.write(text);
+        writer.close();
+
+        assertThat(copy.toString(StandardCharsets.UTF_8)).isEqualTo(text);
+    }
+
+    @Test
+    void singleCharWritesDoNotAllocatePerChar() throws IOException {
+        var bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "allocated bytes per thread not available");
+        var threadMXBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported(), "allocated bytes per thread not supported");
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+        var writer = new TeeWriter(Writer.nullWriter(), OutputStream.nullOutputStream(), StandardCharsets.UTF_8);
+        for (int i = 0; i < 100_000; i++) {
+            writer.write('a' + i % 26);
+        }
+
+        long before = threadMXBean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100_000; i++) {
+            writer.write('a' + i % 26);
+        }
+        long allocated = threadMXBean.getCurrentThreadAllocatedBytes() - before;
+
+        assertThat(allocated).isLessThan(100_000);
+    }
+}
@@ -0,0 +1,97 @@
+package com.davidrandoll.spring_web_captor.publisher;
+
+import com.davidrandoll.spring_web_captor.field_captor.registry.AbstractFieldCaptorRegistry;
+import com.davidrandoll.spring_web_captor.publish_conditions.IHttpRequestPublishCondition;
+import com.davidrandoll.spring_web_captor.publisher.request.CachedBodyHttpServletRequest;
+import com.davidrandoll.spring_web_captor.publisher.response.CachedBodyHttpServletResponse;
+import com.davidrandoll.spring_web_captor.route.CaptureRoute;
+import com.davidrandoll.spring_web_captor.utils.HttpServletUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WebCaptorExchangeTest {
+    private CachedBodyHttpServletRequest request;
+    private CachedBodyHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        request = new CachedBodyHttpServletRequest(new MockHttpServletRequest("GET", "/users/42"));
+        response = new CachedBodyHttpServletResponse(new MockHttpServletResponse(), request);
+    }
+
+    @Test
+    void bindingTheSameWrappersAgainKeepsTheExchange() {
+        WebCaptorExchange exchange = WebCaptorExchange.bind(request, response);
+
+        assertThat(WebCaptorExchange.bind(request, response)).isSameAs(exchange);
+        assertThat(WebCaptorExchange.find(request)).isSameAs(exchange);
+
+        var errorResponse = new CachedBodyHttpServletResponse(new MockHttpServletResponse(), request);
+        assertThat(WebCaptorExchange.bind(request, errorResponse)).isNotSameAs(exchange);
+    }
+
+    @Test
+    void wrappersAreTakenFromTheExchangeBehindDecorators() {
+        WebCaptorExchange.bind(request, response);
+        HttpServletRequest decorated = new HttpServletRequestWrapper(request);
+        HttpServletResponse unrelated = new MockHttpServletResponse();
+
+        CachedBodyHttpServletRequest requestWrapper = HttpServletUtils.toCachedBodyHttpServletRequest(decorated);
+
+        assertThat(requestWrapper).isSameAs(request);
+        assertThat(HttpServletUtils.toCachedBodyHttpServletResponse(unrelated, requestWrapper)).isSameAs(response);
+    }
+
+    @Test
+    void routeIsResolvedAgainOnlyWhenThePatternChanges() {
+        WebCaptorExchange exchange = WebCaptorExchange.bind(request, response);
+        assertThat(exchange.getRoute()).isNull();
+
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/users/{id}");
+        CaptureRoute route = exchange.getRoute();
+        assertThat(route.getPattern()).isEqualTo("/users/{id}");
+        assertThat(exchange.getRoute()).isSameAs(route);
+
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/error");
+        assertThat(exchange.getRoute().getPattern()).isEqualTo("/error");
+    }
+
+    @Test
+    void conditionsAreAskedOncePerRoute() {
+        var asked = new AtomicInteger();
+        IHttpRequestPublishCondition condition = (req, res) -> {
+            asked.incrementAndGet();
+            return false;
+        };
+        var publisher = new DefaultHttpEventPublisher(event -> {
+        }, null, new AbstractFieldCaptorRegistry() {
+        }, List.of(condition), null);
+        WebCaptorExchange.bind(request, response);
+
+        // no route yet: not remembered
+        publisher.shouldPublishRequestEvent(request, response);
+        publisher.shouldPublishRequestEvent(request, response);
+        assertThat(asked).hasValue(2);
+
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/users/{id}");
+        for (int i = 0; i < 3; i++) {
+            assertThat(publisher.shouldPublishRequestEvent(request, response)).isFalse();
+        }
+        assertThat(asked).hasValue(3);
+
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/error");
+        publisher.shouldPublishRequestEvent(request, response);
+        assertThat(asked).hasValue(4);
+    }
+}
@@ -1,11 +1,14 @@
 package com.davidrandoll.spring_web_captor.response_body;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.PrintWriter;
 import java.util.Map;
 
 @RestController
@@ -47,5 +50,14 @@ public class ResponseBodyTestController {
     public ResponseEntity<String> specialChars() {
         return ResponseEntity.ok("Quotes: \" and Backslashes: \\");
     }
-}
 
+    @GetMapping("/writer")
+    public void writer(HttpServletResponse response) throws IOException {
+        response.setContentType("application/json;charset=UTF-8");
+        PrintWriter writer = response.getWriter();
+        writer.write("{\"message\":");
+        writer.print("\"Written 😃 ✓\"");
+        writer.append('}');
+        writer.flush();
+    }
+}
@@ -59,6 +59,15 @@ class ResponseBodyTestControllerTest {
         assertTrue(body.equalsIgnoreCase("<response><message>Hello</message></response>"));
     }
 
+    @Test
+    void testWriterResponseIsCaptured() throws Exception {
+        mockMvc.perform(get("/test/response/writer"))
+                .andExpect(status().isOk());
+
+        var response = eventCaptureListener.getResponseEvents().getFirst();
+        assertEquals("Written 😃 ✓", response.getResponseBody().get("message").asText());
+    }
+
     @Test
     void testEmptyResponse() throws Exception {
         mockMvc.perform(get("/test/response/empty"))
@@ -0,0 +1,122 @@
+package com.davidrandoll.spring_web_captor.route;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteComponentsTest {
+    private static final CaptureRoute USERS = new CaptureRoute("GET", "/users/{id}", null);
+    private static final CaptureRoute ORDERS = new CaptureRoute("GET", "/orders/{id}", null);
+
+    @Test
+    void planKeepsOnlyTheComponentsOfTheRouteInOrder() {
+        var first = new Scoped("first", "/users/{id}");
+        var everywhere = new Scoped("everywhere", null);
+        var last = new Scoped("last", "/users/{id}");
+        var components = new RouteComponents<>(new Scoped[]{first, everywhere, last});
+
+        assertThat(components.forRoute(USERS)).containsExactly(first, everywhere, last);
+        assertThat(components.forRoute(ORDERS)).containsExactly(everywhere);
+    }
+
+    @Test
+    void exchangeWithoutRouteRunsEveryComponent() {
+        var components = new RouteComponents<>(new Scoped[]{new Scoped("users", "/users/{id}")});
+
+        assertThat(components.forRoute(null)).hasSize(1);
+    }
+
+    @Test
+    void routeIsResolvedOnce() {
+        var scoped = new Scoped("users", "/users/{id}");
+        var components = new RouteComponents<>(new Scoped[]{scoped});
+
+        for (int i = 0; i < 5; i++) {
+            components.forRoute(new CaptureRoute("GET", "/users/{id}", null));
+        }
+        components.forRoute(new CaptureRoute("POST", "/users/{id}", null));
+
+        assertThat(scoped.resolutions.get()).isEqualTo(2);
+    }
+
+    @Test
+    void routesInUseStayCachedAfterManyMadeUpMethods() {
+        var scoped = new Scoped("users", "/users/{id}");
+        var components = new RouteComponents<>(new Scoped[]{scoped});
+        for (int i = 0; i < 2000; i++) {
+            components.forRoute(new CaptureRoute("X-JUNK-" + i, "/users/{id}", null));
+        }
+        scoped.resolutions.set(0);
+
+        for (int i = 0; i < 5; i++) {
+            components.forRoute(USERS);
+        }
+
+        assertThat(scoped.resolutions.get()).isEqualTo(1);
+    }
+
+    @Test
+    void handlersSharingAPatternGetPlansOfTheirOwn() throws NoSuchMethodException {
+        var json = new HandlerMethod(new Handlers(), Handlers.class.getMethod("json"));
+        var xml = new HandlerMethod(new Handlers(), Handlers.class.getMethod("xml"));
+        IRouteScoped jsonOnly = new IRouteScoped() {
+            @Override
+            public boolean appliesTo(CaptureRoute route) {
+                return route.getHandlerMethod() != null && route.getHandlerMethod().getMethod().getName().equals("json");
+            }
+        };
+        var components = new RouteComponents<>(new IRouteScoped[]{jsonOnly});
+
+        assertThat(components.forRoute(new CaptureRoute("GET", "/users/{id}", json))).containsExactly(jsonOnly);
+        assertThat(components.forRoute(new CaptureRoute("GET", "/users/{id}", xml))).isEmpty();
+    }
+
+    @Test
+    void componentThatFailsToResolveIsKept() {
+        IRouteScoped failing = new IRouteScoped() {
+            @Override
+            public boolean appliesTo(CaptureRoute route) {
+                throw new IllegalStateException("boom");
+            }
+        };
+        var components = new RouteComponents<>(new IRouteScoped[]{failing});
+
+        assertThat(List.of(components.forRoute(USERS))).containsExactly(failing);
+    }
+
+    private static class Scoped implements IRouteScoped {
+        private final String name;
+        private final String pattern;
+        private final AtomicInteger resolutions = new AtomicInteger();
+
+        Scoped(String name, String pattern) {
+            this.name = name;
+            this.pattern = pattern;
+        }
+
+        @Override
+        public boolean appliesTo(CaptureRoute route) {
+            resolutions.incrementAndGet();
+            return pattern == null || pattern.equals(route.getPattern());
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    public static class Handlers {
+        public String json() {
+            return "{}";
+        }
+
+        public String xml() {
+            return "<a/>";
+        }
+    }
+}
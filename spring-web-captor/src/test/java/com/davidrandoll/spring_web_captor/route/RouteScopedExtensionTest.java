@@ -0,0 +1,113 @@
+package com.davidrandoll.spring_web_captor.route;
+
+import com.davidrandoll.spring_web_captor.WebCaptorApplication;
+import com.davidrandoll.spring_web_captor.event.HttpRequestEvent;
+import com.davidrandoll.spring_web_captor.event.HttpResponseEvent;
+import com.davidrandoll.spring_web_captor.extensions.IHttpEventExtension;
+import com.davidrandoll.spring_web_captor.setup.EventCaptureListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * An extension scoped to one route only enriches the events of that route, and is asked about the
+ * route once rather than on every exchange.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, classes = WebCaptorApplication.class)
+@AutoConfigureMockMvc
+@Import(RouteScopedExtensionTest.Config.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RouteScopedExtensionTest {
+    private static final String BASIC_PATTERN = "/test/path/basic/{id}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EventCaptureListener eventCaptureListener;
+
+    @Autowired
+    private BasicRouteExtension extension;
+
+    @BeforeEach
+    void setUp() {
+        eventCaptureListener.clearEvents();
+    }
+
+    @Test
+    void extensionOnlyEnrichesItsRoute() throws Exception {
+        mockMvc.perform(get("/test/path/basic/1")).andExpect(status().isOk());
+        mockMvc.perform(get("/test/path/multi/1/orders/2")).andExpect(status().isOk());
+
+        assertThat(eventCaptureListener.getRequestEvents()).hasSize(2);
+        HttpRequestEvent basic = eventCaptureListener.getRequestEvents().get(0);
+        HttpRequestEvent multi = eventCaptureListener.getRequestEvents().get(1);
+        assertThat(basic.getAdditionalData()).containsEntry("route", BASIC_PATTERN);
+        assertThat(multi.hasAdditionalData("route")).isFalse();
+
+        assertThat(eventCaptureListener.getResponseEvents()).hasSize(2);
+        assertThat(eventCaptureListener.getResponseEvents().get(0).getAdditionalData()).containsEntry("route", BASIC_PATTERN);
+        assertThat(eventCaptureListener.getResponseEvents().get(1).hasAdditionalData("route")).isFalse();
+    }
+
+    @Test
+    void routeIsResolvedOncePerMethodAndPattern() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/test/path/basic/" + i)).andExpect(status().isOk());
+        }
+
+        assertThat(eventCaptureListener.getRequestEvents()).hasSize(5)
+                .allSatisfy(event -> assertThat(event.getAdditionalData()).containsEntry("route", BASIC_PATTERN));
+        assertThat(extension.resolutions(BASIC_PATTERN)).isEqualTo(1);
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        BasicRouteExtension basicRouteExtension() {
+            return new BasicRouteExtension();
+        }
+    }
+
+    static class BasicRouteExtension implements IHttpEventExtension {
+        private final Map<String, AtomicInteger> resolutions = new ConcurrentHashMap<>();
+
+        @Override
+        public boolean appliesTo(CaptureRoute route) {
+            resolutions.computeIfAbsent(route.getPattern(), pattern -> new AtomicInteger()).incrementAndGet();
+            return BASIC_PATTERN.equals(route.getPattern());
+        }
+
+        int resolutions(String pattern) {
+            AtomicInteger count = resolutions.get(pattern);
+            return count == null ? 0 : count.get();
+        }
+
+        @Override
+        public Map<String, Object> enrichRequestEvent(HttpServletRequest req, HttpServletResponse res, HttpRequestEvent event) {
+            return Map.of("route", BASIC_PATTERN);
+        }
+
+        @Override
+        public Map<String, Object> enrichResponseEvent(HttpServletRequest req, HttpServletResponse res, HttpRequestEvent reqEvent, HttpResponseEvent resEvent) {
+            return Map.of("route", BASIC_PATTERN);
+        }
+    }
+}
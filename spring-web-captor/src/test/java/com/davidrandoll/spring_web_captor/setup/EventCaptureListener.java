@@ -1,6 +1,7 @@
 package com.davidrandoll.spring_web_captor.setup;
 
 import com.davidrandoll.spring_web_captor.event.HttpRequestEvent;
+import com.davidrandoll.spring_web_captor.event.HttpResponseChunkEvent;
 import com.davidrandoll.spring_web_captor.event.HttpResponseEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
@@ -13,6 +14,7 @@ public class EventCaptureListener {
 
     private final List<HttpRequestEvent> requestEvents = new CopyOnWriteArrayList<>();
     private final List<HttpResponseEvent> responseEvents = new CopyOnWriteArrayList<>();
+    private final List<HttpResponseChunkEvent> responseChunkEvents = new CopyOnWriteArrayList<>();
 
     @EventListener
     public void onRequestEvent(HttpRequestEvent event) {
@@ -24,6 +26,11 @@ public class EventCaptureListener {
         responseEvents.add(event);
     }
 
+    @EventListener
+    public void onResponseChunkEvent(HttpResponseChunkEvent event) {
+        responseChunkEvents.add(event);
+    }
+
     public List<HttpRequestEvent> getRequestEvents() {
         return requestEvents;
     }
@@ -32,9 +39,14 @@ public class EventCaptureListener {
         return responseEvents;
     }
 
+    public List<HttpResponseChunkEvent> getResponseChunkEvents() {
+        return responseChunkEvents;
+    }
+
     public void clearEvents() {
         requestEvents.clear();
         responseEvents.clear();
+        responseChunkEvents.clear();
     }
 }
 